@@ -0,0 +1,58 @@
+package net.sourceforge.kolmafia;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.request.ApiRequest;
+import net.sourceforge.kolmafia.session.InventoryManager;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Sets up a reproducible character for benchmarks from a canned fixture in benchmark/resources.
+ *
+ * <p>A fixture is a JSON object holding the "status" and "inventory" responses of api.php, exactly
+ * as KoL sends them, along with the ids of the character's "skills" and the "familiars" in their
+ * terrarium, which api.php does not report.
+ */
+public final class CharacterFixture {
+  private CharacterFixture() {}
+
+  public static void load(final String name) {
+    JSONObject fixture = CharacterFixture.read(name);
+    JSONObject status = fixture.getJSONObject("status");
+    String username = status.getString("name");
+
+    KoLCharacter.reset(username);
+    Preferences.reset(username);
+
+    JSONArray skills = fixture.getJSONArray("skills");
+    for (int i = 0; i < skills.length(); ++i) {
+      KoLCharacter.addAvailableSkill(skills.getInt(i));
+    }
+
+    JSONArray familiars = fixture.getJSONArray("familiars");
+    for (int i = 0; i < familiars.length(); ++i) {
+      JSONObject familiar = familiars.getJSONObject(i);
+      KoLCharacter.addFamiliar(
+          FamiliarData.registerFamiliar(familiar.getInt("id"), familiar.getInt("experience")));
+    }
+
+    InventoryManager.parseInventory(fixture.getJSONObject("inventory"));
+    ApiRequest.parseStatus(status);
+  }
+
+  private static JSONObject read(final String name) {
+    String path = "/fixtures/" + name + ".json";
+    try (InputStream stream = CharacterFixture.class.getResourceAsStream(path)) {
+      if (stream == null) {
+        throw new IllegalArgumentException("No such fixture: " + path);
+      }
+      return new JSONObject(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package net.sourceforge.kolmafia;
+
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.modifiers.Lookup;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.persistence.ModifierDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Calculating the character's modifiers, for the current equipment and for a speculation. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-DuseCWDasROOT=true", "-Djava.awt.headless=true"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ModifiersBenchmark {
+  private final AdventureResult hat = ItemPool.get("Team Avarice cap", 1);
+  // An entry with an expression, which is evaluated on every lookup
+  private final Lookup variable = new Lookup(ModifierType.SKILL, "Amphibian Sympathy");
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    CharacterFixture.load("character");
+  }
+
+  @Benchmark
+  public Modifiers recalculateAdjustments() {
+    KoLCharacter.recalculateAdjustments();
+    return KoLCharacter.getCurrentModifiers();
+  }
+
+  @Benchmark
+  public Modifiers speculate() {
+    Speculation spec = new Speculation();
+    spec.equip(Slot.HAT, this.hat);
+    return spec.calculate();
+  }
+
+  @Benchmark
+  public Modifiers lookUpVariable() {
+    return ModifierDatabase.getModifiers(this.variable);
+  }
+}
@@ -0,0 +1,66 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.CharacterFixture;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.Modifiers;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.session.EquipmentManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A full maximization, and parsing and scoring an expression on its own, for a few representative
+ * expressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-DuseCWDasROOT=true", "-Djava.awt.headless=true"})
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class MaximizerBenchmark {
+  @Param({"meat, item, -tie", "hot res, 0.01 hp", "familiar weight"})
+  public String expression;
+
+  private Evaluator evaluator;
+  private Modifiers modifiers;
+  private Map<Slot, AdventureResult> equipment;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    CharacterFixture.load("character");
+    this.evaluator = new Evaluator(this.expression);
+    this.modifiers = KoLCharacter.getCurrentModifiers();
+    this.equipment = EquipmentManager.currentEquipment();
+  }
+
+  @Benchmark
+  public boolean maximize() {
+    return Maximizer.maximize(this.expression, 0, PriceLevel.DONT_CHECK, true);
+  }
+
+  @Benchmark
+  public Evaluator parse() {
+    return new Evaluator(this.expression);
+  }
+
+  @Benchmark
+  public double score() {
+    return this.evaluator.getScore(this.modifiers, this.equipment);
+  }
+}
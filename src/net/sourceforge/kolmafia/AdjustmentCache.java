@@ -0,0 +1,139 @@
+package net.sourceforge.kolmafia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The parts of {@link KoLCharacter#recalculateAdjustments} which do not depend on equipment, kept
+ * between speculations so that only the equipment, outfit, synergy and familiar parts are
+ * recalculated when a single slot changes.
+ *
+ * <p>Each part is kept as the sum of its modifiers. Variable modifiers in a part may read the
+ * {@link SpeculationContext}, so a part is kept for each location and familiar it has been
+ * calculated under. A few may also read the values which depend on equipment (smithsness, hobo
+ * power and so on); a part which did so when first calculated is kept for each set of those values
+ * as well. A cache is only valid for one set of effects, and for as long as nothing else about the
+ * character changes; the maximizer makes a new one for each run.
+ */
+public class AdjustmentCache {
+  public enum Part {
+    // Passive skills, effects, campground, chateau, dwelling, moons and clan rumpus room
+    PASSIVE,
+    // Thrall, quartet, mummery, inventory, boom box, location, horsery, voting booth and user mods
+    LOCAL,
+    // Path, class, events and everything path-specific
+    PATH
+  }
+
+  private record Key(
+      Part part,
+      String location,
+      String zone,
+      String environment,
+      double monsterLevel,
+      String familiar,
+      String horsery,
+      String boomBox) {
+    static Key of(
+        final Part part,
+        final SpeculationContext context,
+        final String horsery,
+        final String boomBox) {
+      return new Key(
+          part,
+          context.location(),
+          context.zone(),
+          context.environment(),
+          context.monsterLevel(),
+          context.familiar(),
+          horsery,
+          boomBox);
+    }
+  }
+
+  // The rest of the context, for parts which read it
+  private record Equipment(
+      String mainhandClass,
+      boolean unarmed,
+      double hoboPower,
+      double smithsness,
+      double familiarWeight) {
+    static Equipment of(final SpeculationContext context) {
+      return new Equipment(
+          context.mainhandClass(),
+          context.unarmed(),
+          context.hoboPower(),
+          context.smithsness(),
+          context.familiarWeight());
+    }
+  }
+
+  // Either the sum for every set of equipment, or the sum for each set of equipment seen so far
+  private record Entry(Modifiers mods, Map<Equipment, Modifiers> byEquipment) {}
+
+  private final Map<Key, Entry> parts = new ConcurrentHashMap<>();
+  private List<AdventureResult> effects = null;
+
+  /**
+   * @return whether this cache can be used for a calculation with these effects. The first
+   *     calculation to use the cache decides which effects it is for.
+   */
+  public synchronized boolean covers(final List<AdventureResult> effects) {
+    if (this.effects == null) {
+      this.effects = new ArrayList<>(effects);
+      return true;
+    }
+    return this.effects.equals(effects);
+  }
+
+  /**
+   * Adds a part of the calculation to the given modifiers, calculating it with {@code adjustments}
+   * if it has not already been calculated under the current context.
+   */
+  public void add(
+      final Modifiers target,
+      final Part part,
+      final String horsery,
+      final String boomBox,
+      final Consumer<Modifiers> adjustments) {
+    SpeculationContext context = SpeculationContext.current();
+    Key key = Key.of(part, context, horsery, boomBox);
+    Entry entry = this.parts.get(key);
+
+    Modifiers mods;
+    if (entry == null) {
+      Modifiers calculated = new Modifiers();
+      if (SpeculationContext.readsEquipment(() -> adjustments.accept(calculated))) {
+        Map<Equipment, Modifiers> byEquipment = new ConcurrentHashMap<>();
+        byEquipment.put(Equipment.of(context), calculated);
+        this.parts.putIfAbsent(key, new Entry(null, byEquipment));
+      } else {
+        this.parts.putIfAbsent(key, new Entry(calculated, null));
+      }
+      mods = calculated;
+    } else if (entry.mods != null) {
+      mods = entry.mods;
+    } else {
+      Equipment equipment = Equipment.of(context);
+      mods = entry.byEquipment.get(equipment);
+      if (mods == null) {
+        Modifiers calculated = new Modifiers();
+        adjustments.accept(calculated);
+        entry.byEquipment.put(equipment, calculated);
+        mods = calculated;
+      }
+    }
+    target.addCombined(mods);
+  }
+
+  public int size() {
+    int size = 0;
+    for (Entry entry : this.parts.values()) {
+      size += entry.mods != null ? 1 : entry.byEquipment.size();
+    }
+    return size;
+  }
+}
@@ -21,6 +21,7 @@ import net.sourceforge.kolmafia.session.ElVibratoManager;
 import net.sourceforge.kolmafia.session.ElVibratoManager.Punchcard;
 import net.sourceforge.kolmafia.session.GoalManager;
 import net.sourceforge.kolmafia.session.InventoryManager;
+import net.sourceforge.kolmafia.utilities.ItemCountIndex;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
@@ -1107,6 +1108,9 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
    * intent more transparent.
    */
   public int getCount(final List<AdventureResult> list) {
+    if (list instanceof ItemCountIndex counts && this.isItem() && this.id != -1) {
+      return counts.getItemCount(this.id);
+    }
     int index = list.indexOf(this);
     if (index == -1) return 0;
     AdventureResult item = list.get(index);
@@ -1114,6 +1118,16 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
     return item.getCount();
   }
 
+  /**
+   * @return how many of the item with this id are in the list
+   */
+  public static int getCount(final int itemId, final List<AdventureResult> list) {
+    if (list instanceof ItemCountIndex counts) {
+      return counts.getItemCount(itemId);
+    }
+    return ItemPool.get(itemId, 1).getCount(list);
+  }
+
   public int getCount(final Map<Integer, AdventureResult> map) {
     AdventureResult item = map.get(this.getItemId());
     if (item == null) return 0;
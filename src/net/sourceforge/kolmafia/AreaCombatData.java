@@ -5,11 +5,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import net.sourceforge.kolmafia.AscensionPath.Path;
 import net.sourceforge.kolmafia.KoLCharacter.Gender;
 import net.sourceforge.kolmafia.KoLConstants.Stat;
+import net.sourceforge.kolmafia.equipment.Slot;
 import net.sourceforge.kolmafia.modifiers.DoubleModifier;
 import net.sourceforge.kolmafia.objectpool.EffectPool;
 import net.sourceforge.kolmafia.objectpool.FamiliarPool;
@@ -60,6 +62,17 @@ public class AreaCombatData {
 
   private final String zone;
 
+  // What recalculate and the encounter chances below depend on, when they were last computed.
+  // Relay, GUI and script threads all ask for these, so they are only used while holding this.
+  private State recalculated = null;
+  private State cached = null;
+  private final Map<List<Boolean>, Map<MonsterData, Double>> monsterDataCache = new HashMap<>();
+  private double combatPercentCache = Double.NaN;
+  private double averageMLCache = Double.NaN;
+
+  private static final LongAdder cacheHits = new LongAdder();
+  private static final LongAdder cacheRebuilds = new LongAdder();
+
   // Flags in low-order bits of weightings
   private static final int ASCENSION_ODD = 0x01;
   private static final int ASCENSION_EVEN = 0x02;
@@ -86,7 +99,108 @@ public class AreaCombatData {
     this.jumpChance = Integer.MAX_VALUE;
   }
 
-  public void recalculate() {
+  /**
+   * Everything the encounter chances in a zone depend on, in a form which is cheap to compare.
+   * Most of it is kept in preferences, including banishes, tracked monsters, turn counters and
+   * quest progress, so any change to a preference counts as a change. The adventure queues have a
+   * count of their own. The rest comes from the character: class, path, familiar and equipment,
+   * the effects which track monsters, the modifiers which affect monster attack and the combat
+   * rate, and the one item which a zone's monsters depend on.
+   */
+  private record State(
+      long preferences,
+      long queues,
+      int run,
+      int ascensions,
+      AscensionClass ascensionClass,
+      Gender gender,
+      Path path,
+      int familiar,
+      Map<Slot, AdventureResult> equipment,
+      int moxie,
+      int monsterLevel,
+      double combatRate,
+      boolean onTheTrail,
+      boolean ewTheHumanity,
+      boolean aBeastlyOdor,
+      int multiPasses) {
+    static State current() {
+      return new State(
+          Preferences.getChangeCount(),
+          AdventureQueueDatabase.getChangeCount(),
+          KoLCharacter.getCurrentRun(),
+          KoLCharacter.getAscensions(),
+          KoLCharacter.getAscensionClass(),
+          KoLCharacter.getGender(),
+          KoLCharacter.getPath(),
+          KoLCharacter.getFamiliar().getId(),
+          EquipmentManager.allEquipment(),
+          KoLCharacter.getAdjustedMoxie(),
+          KoLCharacter.getMonsterLevelAdjustment(),
+          KoLCharacter.getCombatRateAdjustment(),
+          KoLConstants.activeEffects.contains(FightRequest.ONTHETRAIL),
+          KoLConstants.activeEffects.contains(EW_THE_HUMANITY),
+          KoLConstants.activeEffects.contains(A_BEASTLY_ODOR),
+          InventoryManager.getCount(ItemPool.MULTI_PASS));
+    }
+  }
+
+  /**
+   * Throws away the cached encounter chances if they were computed in another state.
+   *
+   * @return whether the cached values may be used
+   */
+  private boolean checkCache(final State state) {
+    if (state.equals(this.cached)) {
+      return true;
+    }
+    this.clearCache();
+    this.cached = state;
+    return false;
+  }
+
+  private void clearCache() {
+    this.cached = null;
+    this.monsterDataCache.clear();
+    this.combatPercentCache = Double.NaN;
+    this.averageMLCache = Double.NaN;
+  }
+
+  /**
+   * @return how many times encounter chances have been found in the cache
+   */
+  public static long getCacheHits() {
+    return AreaCombatData.cacheHits.sum();
+  }
+
+  /**
+   * @return how many times encounter chances have had to be computed, because they had not been
+   *     asked for since something they depend on changed
+   */
+  public static long getCacheRebuilds() {
+    return AreaCombatData.cacheRebuilds.sum();
+  }
+
+  public synchronized void recalculate() {
+    this.recalculate(State.current());
+  }
+
+  /**
+   * @return the state as of the end of recalculating, which can itself update preferences, such as
+   *     by clearing expired banishes
+   */
+  private State recalculate(final State state) {
+    if (state.equals(this.recalculated)) {
+      return state;
+    }
+    this.recalculateNow();
+    this.clearCache();
+    this.recalculated =
+        state.preferences() == Preferences.getChangeCount() ? state : State.current();
+    return this.recalculated;
+  }
+
+  private void recalculateNow() {
     this.minHit = Integer.MAX_VALUE;
     this.maxHit = 0;
     this.minEvade = Integer.MAX_VALUE;
@@ -240,7 +354,7 @@ public class AreaCombatData {
     }
   }
 
-  public boolean addMonster(String name) {
+  public synchronized boolean addMonster(String name) {
     int weighting = 1;
     int flags = ASCENSION_EVEN | ASCENSION_ODD;
     int rejection = 0;
@@ -315,6 +429,9 @@ public class AreaCombatData {
       return false;
     }
 
+    this.recalculated = null;
+    this.clearCache();
+
     if (EncounterManager.isSuperlikelyMonster(monster.getName())) {
       this.superlikelyMonsters.add(monster);
     } else {
@@ -456,7 +573,17 @@ public class AreaCombatData {
         .orElse(0);
   }
 
-  public double getAverageML() {
+  public synchronized double getAverageML() {
+    if (this.checkCache(State.current()) && !Double.isNaN(this.averageMLCache)) {
+      AreaCombatData.cacheHits.increment();
+      return this.averageMLCache;
+    }
+    AreaCombatData.cacheRebuilds.increment();
+    this.averageMLCache = this.computeAverageML();
+    return this.averageMLCache;
+  }
+
+  private double computeAverageML() {
     double averageML =
         monsters.stream()
             .filter(m -> getWeighting(m) > 0)
@@ -540,7 +667,7 @@ public class AreaCombatData {
     return mon;
   }
 
-  public void getSummary(
+  public synchronized void getSummary(
       final StringBuffer buffer, final boolean fullString, final boolean mapped) {
     // Get up-to-date monster stats in area summary
     this.recalculate();
@@ -647,13 +774,30 @@ public class AreaCombatData {
     return getMonsterData(stateful, false);
   }
 
-  public Map<MonsterData, Double> getMonsterData(boolean stateful, boolean mapped) {
-    Map<MonsterData, Double> monsterData = new TreeMap<>();
-
+  public synchronized Map<MonsterData, Double> getMonsterData(boolean stateful, boolean mapped) {
+    State state = State.current();
     if (stateful) {
-      recalculate();
+      state = this.recalculate(state);
+    }
+
+    List<Boolean> key = List.of(stateful, mapped);
+    Map<MonsterData, Double> monsterData =
+        this.checkCache(state) ? this.monsterDataCache.get(key) : null;
+    if (monsterData != null) {
+      AreaCombatData.cacheHits.increment();
+    } else {
+      AreaCombatData.cacheRebuilds.increment();
+      monsterData = this.computeMonsterData(stateful, mapped);
+      this.monsterDataCache.put(key, monsterData);
     }
 
+    // Callers may change the map they are given
+    return new TreeMap<>(monsterData);
+  }
+
+  private Map<MonsterData, Double> computeMonsterData(boolean stateful, boolean mapped) {
+    Map<MonsterData, Double> monsterData = new TreeMap<>();
+
     double totalSuperlikelyChance = 0.0;
 
     for (MonsterData monster : superlikelyMonsters) {
@@ -805,7 +949,20 @@ public class AreaCombatData {
     return areaCombatPercent(true);
   }
 
-  public double areaCombatPercent(boolean stateful) {
+  public synchronized double areaCombatPercent(boolean stateful) {
+    if (!stateful) {
+      return this.computeAreaCombatPercent(false);
+    }
+    if (this.checkCache(State.current()) && !Double.isNaN(this.combatPercentCache)) {
+      AreaCombatData.cacheHits.increment();
+      return this.combatPercentCache;
+    }
+    AreaCombatData.cacheRebuilds.increment();
+    this.combatPercentCache = this.computeAreaCombatPercent(true);
+    return this.combatPercentCache;
+  }
+
+  private double computeAreaCombatPercent(boolean stateful) {
     if (stateful) {
       // Some situations can force combats
       if (EncounterManager.isSaberForceZone(this.getZone())) {
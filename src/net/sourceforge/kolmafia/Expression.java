@@ -29,6 +29,7 @@ public class Expression {
 
   private char[] bytecode; // Compiled expression
   private ArrayList<Object> literals; // Strings & floats needed by expression
+  private ExpressionCompiler.Node compiled; // Bytecode as lambdas, or null to interpret it
   protected AdventureResult effect;
 
   // If non-null, contains concatenated error strings from compiling bytecode
@@ -93,6 +94,7 @@ public class Expression {
       buf.append(this.text);
     }
     this.text = null;
+    this.compiled = ExpressionCompiler.compile(this, this.bytecode, this.literals);
   }
 
   public static Expression getInstance(String text, String name) {
@@ -106,6 +108,21 @@ public class Expression {
 
   protected void initialize() {}
 
+  /**
+   * @return whether this expression reads something which is derived from the equipment worn:
+   *     mainhand class, hobo power, smithsness or familiar weight
+   */
+  public boolean dependsOnEquipment() {
+    for (char inst : this.bytecode) {
+      switch (inst) {
+        case 'h', 'H', 'K', 'W' -> {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public double eval() {
     try {
       return this.evalInternal();
@@ -120,10 +137,23 @@ public class Expression {
   }
 
   public double evalInternal() {
+    if (this.compiled != null) {
+      return this.compiled.eval(SpeculationContext.current());
+    }
+    return this.interpret();
+  }
+
+  boolean isCompiled() {
+    return this.compiled != null;
+  }
+
+  // Evaluates the bytecode directly, for expressions which ExpressionCompiler cannot compile
+  double interpret() {
     double[] s = stackFactory(null);
     int sp = 0;
     int pc = 0;
     double v = 0.0;
+    SpeculationContext context = SpeculationContext.current();
 
     while (true) {
       char inst = this.bytecode[pc++];
@@ -255,16 +285,16 @@ public class Expression {
           v = KoLCharacter.hasEquipped(item) ? 1 : 0;
         }
         case 'h' -> v =
-            Modifiers.mainhandClass.equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
+            context.mainhandClass().equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
                 ? 1
                 : 0;
         case 'i' -> v =
             FamiliarDatabase.hasAttribute(
-                    Modifiers.currentFamiliar, (String) this.literals.get((int) s[--sp]))
+                    context.familiar(), (String) this.literals.get((int) s[--sp]))
                 ? 1
                 : 0;
         case 'j' -> v =
-            Modifiers.currentEnvironment.equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
+            context.environment().equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
                 ? 1
                 : 0;
         case 'k' -> v =
@@ -274,7 +304,7 @@ public class Expression {
                 ? 1
                 : 0;
         case 'l' -> v =
-            Modifiers.currentLocation.equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
+            context.location().equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
                 ? 1
                 : 0;
         case 'n' -> {
@@ -291,11 +321,11 @@ public class Expression {
               (StringUtilities.isNumeric(fam))
                   ? FamiliarDatabase.getFamiliarName(StringUtilities.parseInt(fam))
                   : fam;
-          v = Modifiers.currentFamiliar.equalsIgnoreCase(familiarName) ? 1 : 0;
+          v = context.familiar().equalsIgnoreCase(familiarName) ? 1 : 0;
         }
         case 'z' -> {
           String expressionZone = (String) this.literals.get((int) s[--sp]);
-          String currentZone = Modifiers.currentZone;
+          String currentZone = context.zone();
           v = 0;
           while (true) {
             if (currentZone.equalsIgnoreCase(expressionZone)) {
@@ -404,10 +434,10 @@ public class Expression {
         }
         case 'F' -> v = KoLCharacter.getFullness();
         case 'G' -> v = HolidayDatabase.getGrimaciteEffect() / 10.0;
-        case 'H' -> v = Modifiers.hoboPower;
+        case 'H' -> v = context.hoboPower();
         case 'I' -> v = KoLCharacter.getDiscoMomentum();
         case 'J' -> v = HolidayDatabase.getHoliday().contains("Festival of Jarlsberg") ? 1.0 : 0.0;
-        case 'K' -> v = Modifiers.smithsness;
+        case 'K' -> v = context.smithsness();
         case 'L' -> v = KoLCharacter.getLevel();
         case 'M' -> v = HolidayDatabase.getMoonlight();
         case 'N' -> v = KoLCharacter.getAudience();
@@ -419,7 +449,7 @@ public class Expression {
                 ? 0.0
                 : Math.max(1, this.effect.getCount(KoLConstants.activeEffects));
         case 'U' -> v = KoLCharacter.getTelescopeUpgrades();
-        case 'W' -> v = Modifiers.currentWeight;
+        case 'W' -> v = context.familiarWeight();
         case 'X' -> v = KoLCharacter.getGender().modifierValue;
         case 'Y' -> v = KoLCharacter.getFury();
         default -> {
@@ -0,0 +1,383 @@
+package net.sourceforge.kolmafia;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import net.sourceforge.kolmafia.modifiers.DoubleModifier;
+import net.sourceforge.kolmafia.objectpool.EffectPool;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.persistence.AdventureDatabase;
+import net.sourceforge.kolmafia.persistence.EffectDatabase;
+import net.sourceforge.kolmafia.persistence.FamiliarDatabase;
+import net.sourceforge.kolmafia.persistence.HolidayDatabase;
+import net.sourceforge.kolmafia.persistence.ItemDatabase;
+import net.sourceforge.kolmafia.persistence.ModifierDatabase;
+import net.sourceforge.kolmafia.persistence.MonsterDatabase.Element;
+import net.sourceforge.kolmafia.persistence.SkillDatabase;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.request.BasementRequest;
+import net.sourceforge.kolmafia.request.FightRequest;
+import net.sourceforge.kolmafia.utilities.StringUtilities;
+
+/**
+ * Compiles the bytecode of an {@link Expression} into a tree of lambdas, so that evaluating it
+ * neither decodes instructions nor parses its literals again. Each instruction becomes a {@link
+ * Node} which reads exactly what {@link Expression#interpret} would.
+ *
+ * <p>Names of items, effects, skills and familiars are resolved on first evaluation rather than
+ * here, since expressions are compiled while those databases may still be loading. A name which
+ * does not resolve is looked up again next time, as it may be registered later in the session.
+ */
+final class ExpressionCompiler {
+  private ExpressionCompiler() {}
+
+  @FunctionalInterface
+  interface Node {
+    double eval(SpeculationContext context);
+  }
+
+  private record Constant(double value) implements Node {
+    @Override
+    public double eval(SpeculationContext context) {
+      return this.value;
+    }
+  }
+
+  private static final class Resolved<T> implements Supplier<T> {
+    private final Supplier<T> lookup;
+    private final Predicate<T> valid;
+    private volatile T value;
+
+    Resolved(Supplier<T> lookup, Predicate<T> valid) {
+      this.lookup = lookup;
+      this.valid = valid;
+    }
+
+    @Override
+    public T get() {
+      T value = this.value;
+      if (value == null) {
+        value = this.lookup.get();
+        if (this.valid.test(value)) {
+          this.value = value;
+        }
+      }
+      return value;
+    }
+  }
+
+  /**
+   * @return the compiled expression, or null if the bytecode can only be interpreted
+   */
+  static Node compile(Expression expression, char[] bytecode, List<Object> literals) {
+    Deque<Node> stack = new ArrayDeque<>();
+    try {
+      for (char inst : bytecode) {
+        if (inst == 'r') {
+          return stack.pop();
+        }
+        stack.push(compile(expression, inst, stack, literals));
+      }
+    } catch (RuntimeException e) {
+      // Bytecode the interpreter would reject: leave it to report the error when evaluated
+    }
+    return null;
+  }
+
+  private static Node compile(
+      Expression expression, char inst, Deque<Node> stack, List<Object> literals) {
+    return switch (inst) {
+      case '+' -> binary(stack, (a, b) -> a + b);
+      case '-' -> binary(stack, (a, b) -> a - b);
+      case '*' -> binary(stack, (a, b) -> a * b);
+      case '/' -> binary(
+          stack,
+          (numerator, denominator) -> {
+            if (denominator == 0.0) {
+              throw new ArithmeticException("Can't divide by zero");
+            }
+            return numerator / denominator;
+          });
+      case '%' -> binary(stack, (a, b) -> a % b);
+      case '^' -> binary(
+          stack,
+          (base, expt) -> {
+            double v = Math.pow(base, expt);
+            if (Double.isNaN(v) || Double.isInfinite(v)) {
+              throw new ArithmeticException(
+                  "Invalid exponentiation: cannot take " + base + " ** " + expt);
+            }
+            return v;
+          });
+      case 'a' -> unary(stack, Math::abs);
+      case 'c' -> unary(stack, Math::ceil);
+      case 'f' -> unary(stack, Math::floor);
+      case 'm' -> binary(stack, Math::min);
+        // args are read in reverse, so the operation is different from what you'd expect
+      case '<' -> binary(stack, (a, b) -> a > b ? 1 : 0);
+      case '≤' -> binary(stack, (a, b) -> a >= b ? 1 : 0);
+      case '>' -> binary(stack, (a, b) -> a < b ? 1 : 0);
+      case '≥' -> binary(stack, (a, b) -> a <= b ? 1 : 0);
+      case 'p' -> pref(literal(stack, literals, String.class));
+      case 's' -> unary(
+          stack,
+          x -> {
+            double v = Math.sqrt(x);
+            if (Double.isNaN(v)) {
+              throw new ArithmeticException("Can't take square root of a negative value");
+            }
+            return v;
+          });
+      case 'x' -> binary(stack, Math::max);
+      case '#' -> new Constant(literal(stack, literals, Double.class));
+
+        // Valid with ModifierExpression:
+      case 'b' -> {
+        Element element = Element.fromString(literal(stack, literals, String.class));
+        DoubleModifier modifier = ModifierDatabase.elementalResistance(element);
+        yield context -> KoLCharacter.currentNumericModifier(modifier);
+      }
+      case 'd' -> {
+        String skill = literal(stack, literals, String.class);
+        Resolved<Integer> skillId =
+            new Resolved<>(
+                () -> {
+                  String skillName =
+                      StringUtilities.isNumeric(skill)
+                          ? SkillDatabase.getSkillName(StringUtilities.parseInt(skill))
+                          : skill;
+                  return SkillDatabase.getSkillId(skillName);
+                },
+                id -> id != -1);
+        yield context -> KoLCharacter.hasSkill(skillId.get()) ? 1 : 0;
+      }
+      case 'e' -> {
+        String effectName = literal(stack, literals, String.class);
+        // If effect name is a number, convert to name
+        Resolved<AdventureResult> effect =
+            new Resolved<>(
+                () ->
+                    EffectPool.get(
+                        StringUtilities.isNumeric(effectName)
+                            ? StringUtilities.parseInt(effectName)
+                            : EffectDatabase.getEffectId(effectName)),
+                eff -> eff.getEffectId() != -1);
+        yield context -> Math.max(0, effect.get().getCount(KoLConstants.activeEffects));
+      }
+      case 'g' -> {
+        String itemName = literal(stack, literals, String.class);
+        Resolved<AdventureResult> item =
+            new Resolved<>(
+                () -> ItemPool.get(ItemDatabase.getItemId(itemName)), it -> it.getItemId() != -1);
+        yield context -> KoLCharacter.hasEquipped(item.get()) ? 1 : 0;
+      }
+      case 'h' -> {
+        String type = literal(stack, literals, String.class);
+        yield context -> context.mainhandClass().equalsIgnoreCase(type) ? 1 : 0;
+      }
+      case 'i' -> {
+        String attribute = literal(stack, literals, String.class);
+        yield context -> FamiliarDatabase.hasAttribute(context.familiar(), attribute) ? 1 : 0;
+      }
+      case 'j' -> {
+        String environment = literal(stack, literals, String.class);
+        yield context -> context.environment().equalsIgnoreCase(environment) ? 1 : 0;
+      }
+      case 'k' -> {
+        String stat = literal(stack, literals, String.class);
+        yield context -> KoLCharacter.mainStat().name().equalsIgnoreCase(stat) ? 1 : 0;
+      }
+      case 'l' -> {
+        String location = literal(stack, literals, String.class);
+        yield context -> context.location().equalsIgnoreCase(location) ? 1 : 0;
+      }
+      case 'n' -> {
+        String input = literal(stack, literals, String.class);
+        if (input.equalsIgnoreCase("awol")) {
+          yield context -> KoLCharacter.isAWoLClass() ? 1 : 0;
+        }
+        yield context -> KoLCharacter.getAscensionClassName().equalsIgnoreCase(input) ? 1 : 0;
+      }
+      case 'w' -> {
+        String fam = literal(stack, literals, String.class);
+        if (!StringUtilities.isNumeric(fam)) {
+          yield context -> context.familiar().equalsIgnoreCase(fam) ? 1 : 0;
+        }
+        Resolved<String> familiarName =
+            new Resolved<>(
+                () -> FamiliarDatabase.getFamiliarName(StringUtilities.parseInt(fam)),
+                name -> name != null);
+        yield context -> context.familiar().equalsIgnoreCase(familiarName.get()) ? 1 : 0;
+      }
+      case 'z' -> {
+        String expressionZone = literal(stack, literals, String.class);
+        yield context -> inZone(context.zone(), expressionZone) ? 1 : 0;
+      }
+      case 'v' -> {
+        String event = literal(stack, literals, String.class);
+        yield switch (event) {
+          case "December" -> context -> HolidayDatabase.isDecember() ? 1 : 0;
+          case "Saturday" -> context -> HolidayDatabase.isSaturday() ? 1 : 0;
+          default -> context -> HolidayDatabase.getHoliday().contains(event) ? 1 : 0;
+        };
+      }
+
+        // Valid with MonsterExpression:
+      case '\u0080' -> context -> KoLCharacter.getAdjustedMuscle();
+      case '\u0081' -> context -> KoLCharacter.getAdjustedMysticality();
+      case '\u0082' -> context -> KoLCharacter.getAdjustedMoxie();
+      case '\u0083' -> context -> KoLCharacter.getMonsterLevelAdjustment();
+      case '\u0084' -> context -> KoLCharacter.getMindControlLevel();
+      case '\u0086' -> context -> BasementRequest.getBasementLevel();
+      case '\u0087' -> context -> FightRequest.dreadKisses("Woods");
+      case '\u0088' -> context -> FightRequest.dreadKisses("Village");
+      case '\u0089' -> context -> FightRequest.dreadKisses("Castle");
+      case '\u0090' -> context -> KoLCharacter.getAdjustedHighestStat();
+
+        // Valid with MonsterExpression and RestoreExpression:
+      case '\u0085' -> context -> KoLCharacter.getMaximumHP();
+
+        // Valid with RestoreExpression:
+      case '\u0091' -> context -> KoLCharacter.getMaximumMP();
+      case '\u0095' -> context -> KoLCharacter.getCurrentHP();
+
+        // Valid with ModifierExpression and MonsterExpression:
+      case '\u0092' -> {
+        AscensionPath.Path path = AscensionPath.nameToPath(literal(stack, literals, String.class));
+        yield context -> KoLCharacter.getPath() == path ? 1 : 0;
+      }
+
+        // Valid with ModifierExpression:
+      case '\u0093' -> {
+        String modName = literal(stack, literals, String.class);
+        DoubleModifier modifier = DoubleModifier.byCaselessName(modName);
+        yield context -> KoLCharacter.getCurrentModifiers().getAccumulator(modifier);
+      }
+      case '\u0094' -> context -> KoLCharacter.canInteract() ? 1 : 0;
+      case '\u0096' -> {
+        String arg = literal(stack, literals, String.class);
+        yield new Constant(StringUtilities.parseInt(arg.replaceAll(",", "")));
+      }
+      case '\u0097' -> context -> KoLCharacter.getBaseMuscle();
+      case '\u0098' -> context -> KoLCharacter.getBaseMysticality();
+      case '\u0099' -> context -> KoLCharacter.getBaseMoxie();
+      case 'A' -> context -> KoLCharacter.getAscensions();
+      case 'B' -> context -> HolidayDatabase.getBloodEffect();
+      case 'C' -> context -> KoLCharacter.getMinstrelLevel();
+      case 'D' -> context -> KoLCharacter.getInebriety();
+      case 'E' -> context ->
+          KoLConstants.activeEffects.stream()
+              .map(AdventureResult::getCount)
+              .filter(d -> d < Integer.MAX_VALUE)
+              .count();
+      case 'F' -> context -> KoLCharacter.getFullness();
+      case 'G' -> context -> HolidayDatabase.getGrimaciteEffect() / 10.0;
+      case 'H' -> SpeculationContext::hoboPower;
+      case 'I' -> context -> KoLCharacter.getDiscoMomentum();
+      case 'J' -> context ->
+          HolidayDatabase.getHoliday().contains("Festival of Jarlsberg") ? 1.0 : 0.0;
+      case 'K' -> SpeculationContext::smithsness;
+      case 'L' -> context -> KoLCharacter.getLevel();
+      case 'M' -> context -> HolidayDatabase.getMoonlight();
+      case 'N' -> context -> KoLCharacter.getAudience();
+      case 'P' -> context -> KoLCharacter.currentPastaThrall.getLevel();
+      case 'R' -> context -> KoLCharacter.getReagentPotionDuration();
+      case 'S' -> context -> KoLCharacter.getSpleenUse();
+      case 'T' -> context ->
+          expression.effect == null
+              ? 0.0
+              : Math.max(1, expression.effect.getCount(KoLConstants.activeEffects));
+      case 'U' -> context -> KoLCharacter.getTelescopeUpgrades();
+      case 'W' -> SpeculationContext::familiarWeight;
+      case 'X' -> context -> KoLCharacter.getGender().modifierValue;
+      case 'Y' -> context -> KoLCharacter.getFury();
+      default -> {
+        if (inst > '\u00FF') {
+          yield new Constant(inst - 0x8000);
+        }
+        throw new IllegalStateException("Evaluator bytecode invalid: " + inst);
+      }
+    };
+  }
+
+  private static Node unary(Deque<Node> stack, DoubleUnaryOperator op) {
+    Node arg = pop(stack);
+    if (arg instanceof Constant c) {
+      try {
+        return new Constant(op.applyAsDouble(c.value()));
+      } catch (ArithmeticException e) {
+        // Report it when evaluated, as the interpreter does
+      }
+    }
+    return context -> op.applyAsDouble(arg.eval(context));
+  }
+
+  private static Node binary(Deque<Node> stack, DoubleBinaryOperator op) {
+    Node first = pop(stack);
+    Node second = pop(stack);
+    if (first instanceof Constant a && second instanceof Constant b) {
+      try {
+        return new Constant(op.applyAsDouble(a.value(), b.value()));
+      } catch (ArithmeticException e) {
+        // Report it when evaluated, as the interpreter does
+      }
+    }
+    return context -> op.applyAsDouble(first.eval(context), second.eval(context));
+  }
+
+  private static Node pop(Deque<Node> stack) {
+    if (stack.isEmpty()) {
+      throw new IllegalStateException("Evaluator stack underflow");
+    }
+    return stack.pop();
+  }
+
+  private static <T> T literal(Deque<Node> stack, List<Object> literals, Class<T> type) {
+    if (!(pop(stack) instanceof Constant index) || literals == null) {
+      throw new IllegalStateException("Evaluator literal is not constant");
+    }
+    Object value = literals.get((int) index.value());
+    if (!type.isInstance(value)) {
+      throw new IllegalStateException("Evaluator literal is not a " + type.getSimpleName());
+    }
+    return type.cast(value);
+  }
+
+  private static Node pref(String literal) {
+    String first = literal;
+    String second = null;
+    int commaIndex = first.indexOf(",");
+    if (commaIndex > -1) {
+      second = first.substring(commaIndex + 1);
+      first = first.substring(0, commaIndex);
+    }
+    String name = first;
+    if (second != null) {
+      String contains = second;
+      return context -> Preferences.getString(name).contains(contains) ? 1 : 0;
+    }
+    return context -> {
+      String prefString = Preferences.getString(name);
+      return prefString.contains("true")
+          ? 1
+          : prefString.contains("false") ? 0 : StringUtilities.parseDouble(prefString);
+    };
+  }
+
+  private static boolean inZone(String currentZone, String expressionZone) {
+    while (true) {
+      if (currentZone.equalsIgnoreCase(expressionZone)) {
+        return true;
+      }
+      String parentZone = AdventureDatabase.getParentZone(currentZone);
+      if (parentZone == null || currentZone.equals(parentZone)) {
+        return false;
+      }
+      currentZone = parentZone;
+    }
+  }
+}
@@ -4883,21 +4883,101 @@ public abstract class KoLCharacter {
       String boomBox,
       Map<Modeable, String> modeables,
       boolean speculation) {
-    int taoFactor = KoLCharacter.hasSkill(SkillPool.TAO_OF_THE_TERRAPIN) ? 2 : 1;
-
-    Modifiers newModifiers = debug ? new DebugModifiers() : new Modifiers();
-    Modifiers.setFamiliar(familiar);
+    return KoLCharacter.recalculateAdjustments(
+        debug,
+        MCD,
+        equipment,
+        effects,
+        familiar,
+        enthroned,
+        bjorned,
+        custom,
+        horsery,
+        boomBox,
+        modeables,
+        speculation,
+        null);
+  }
+
+  /**
+   * Calculates modifiers for the given equipment, effects and familiars. If a cache is given, the
+   * parts of the calculation which do not depend on equipment are taken from it where possible.
+   */
+  public static final Modifiers recalculateAdjustments(
+      boolean debug,
+      int MCD,
+      Map<Slot, AdventureResult> equipment,
+      List<AdventureResult> effects,
+      FamiliarData familiar,
+      FamiliarData enthroned,
+      FamiliarData bjorned,
+      String custom,
+      String horsery,
+      String boomBox,
+      Map<Modeable, String> modeables,
+      boolean speculation,
+      AdjustmentCache cache) {
     AdventureResult weapon = equipment.get(Slot.WEAPON);
-    Modifiers.mainhandClass =
-        weapon == null ? "" : EquipmentDatabase.getItemType(weapon.getItemId());
+    String mainhandClass = weapon == null ? "" : EquipmentDatabase.getItemType(weapon.getItemId());
     AdventureResult offhand = equipment.get(Slot.OFFHAND);
-    Modifiers.unarmed =
+    boolean unarmed =
         (weapon == null || weapon == EquipmentRequest.UNEQUIP)
             && (offhand == null || offhand == EquipmentRequest.UNEQUIP);
 
+    // A speculation leaves the live character's state alone, so it is safe on any thread.
+    if (!speculation) {
+      Modifiers.setFamiliar(familiar);
+      Modifiers.mainhandClass = mainhandClass;
+      Modifiers.unarmed = unarmed;
+    }
+
+    SpeculationContext previous =
+        SpeculationContext.live(speculation)
+            .withFamiliar(familiar)
+            .withWeapons(mainhandClass, unarmed)
+            .enter();
+    try {
+      return KoLCharacter.calculateAdjustments(
+          debug,
+          MCD,
+          equipment,
+          effects,
+          familiar,
+          enthroned,
+          bjorned,
+          custom,
+          horsery,
+          boomBox,
+          modeables,
+          speculation,
+          debug || cache == null || !cache.covers(effects) ? null : cache);
+    } finally {
+      SpeculationContext.restore(previous);
+    }
+  }
+
+  private static Modifiers calculateAdjustments(
+      boolean debug,
+      int MCD,
+      Map<Slot, AdventureResult> equipment,
+      List<AdventureResult> effects,
+      FamiliarData familiar,
+      FamiliarData enthroned,
+      FamiliarData bjorned,
+      String custom,
+      String horsery,
+      String boomBox,
+      Map<Modeable, String> modeables,
+      boolean speculation,
+      AdjustmentCache cache) {
+    int taoFactor = KoLCharacter.hasSkill(SkillPool.TAO_OF_THE_TERRAPIN) ? 2 : 1;
+
+    Modifiers newModifiers = debug ? new DebugModifiers() : new Modifiers();
+    SpeculationContext context = SpeculationContext.current();
+
     // Area-specific adjustments
-    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.LOC, Modifiers.currentLocation));
-    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.ZONE, Modifiers.currentZone));
+    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.LOC, context.location()));
+    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.ZONE, context.zone()));
 
     // Look at sign-specific adjustments
     newModifiers.addDouble(
@@ -4953,7 +5033,7 @@ public abstract class KoLCharacter {
                     DoubleModifier.INITIATIVE, level * 20, ModifierType.EL_VIBRATO, "SELF");
                 break;
               case 8:
-                if (Modifiers.currentFamiliar.contains("megadrone")) {
+                if (context.familiar().contains("megadrone")) {
                   newModifiers.addDouble(
                       DoubleModifier.FAMILIAR_WEIGHT, level * 10, ModifierType.EL_VIBRATO, "DRONE");
                 }
@@ -4974,8 +5054,8 @@ public abstract class KoLCharacter {
       newModifiers.add(ModifierDatabase.parseModifiers(ModifierType.GENERATED, "custom", custom));
     }
 
-    // Store some modifiers as statics
-    Modifiers.smithsness = KoLCharacter.getSmithsnessModifier(equipment, effects);
+    // Store some modifiers for expressions to use
+    SpeculationContext.publishSmithsness(KoLCharacter.getSmithsnessModifier(equipment, effects));
 
     // Look at items
     for (var slot : SlotSet.SLOTS) {
@@ -5033,52 +5113,15 @@ public abstract class KoLCharacter {
           DoubleModifier.ITEMDROP, cloathingLevel / 2, ModifierType.OUTFIT, "Cloathing");
     }
 
-    // Add modifiers from Passive Skills
-    newModifiers.applyPassiveModifiers(debug);
-
-    // For the sake of easier maintenance, execute a lot of extra
-    // string comparisons when looking at status effects.
-
-    for (AdventureResult effect : effects) {
-      newModifiers.add(ModifierDatabase.getEffectModifiers(effect.getEffectId()));
-    }
-
-    // Add modifiers from campground equipment.
-    for (AdventureResult item : KoLConstants.campground) {
-      // Skip ginormous pumpkin growing in garden
-      if (item.getItemId() == ItemPool.GINORMOUS_PUMPKIN) {
-        continue;
-      }
-      for (int count = item.getCount(); count > 0; --count) {
-        newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
-      }
-    }
-
-    // Add modifiers from Chateau
-    for (AdventureResult item : KoLConstants.chateau) {
-      newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
-    }
-
-    // Add modifiers from dwelling
-    AdventureResult dwelling = CampgroundRequest.getCurrentDwelling();
-    newModifiers.add(ModifierDatabase.getItemModifiers(dwelling.getItemId()));
-
-    if (InventoryManager.getCount(ItemPool.COMFY_BLANKET) > 0) {
-      newModifiers.add(ModifierDatabase.getItemModifiers(ItemPool.COMFY_BLANKET));
-    }
-
-    if (HolidayDatabase.getRonaldPhase() == 5) {
-      newModifiers.addDouble(
-          DoubleModifier.RESTING_MP_PCT, 100, ModifierType.EVENT, "Moons (Ronald full)");
-    }
-
-    if (HolidayDatabase.getGrimacePhase() == 5) {
-      newModifiers.addDouble(
-          DoubleModifier.RESTING_HP_PCT, 100, ModifierType.EVENT, "Moons (Grimace full)");
-    }
-
-    for (String equip : ClanManager.getClanRumpus()) {
-      newModifiers.add(ModifierDatabase.getModifiers(ModifierType.RUMPUS, equip));
+    if (cache == null) {
+      KoLCharacter.addPassiveAdjustments(newModifiers, effects, debug);
+    } else {
+      cache.add(
+          newModifiers,
+          AdjustmentCache.Part.PASSIVE,
+          horsery,
+          boomBox,
+          mods -> KoLCharacter.addPassiveAdjustments(mods, effects, false));
     }
 
     // Add other oddball interactions
@@ -5087,60 +5130,22 @@ public abstract class KoLCharacter {
     // Add familiar effects based on calculated weight adjustment.
     newModifiers.applyFamiliarModifiers(familiar, equipment.get(Slot.FAMILIAR));
 
-    // Add Pasta Thrall effects
-    if (ascensionClass == AscensionClass.PASTAMANCER) {
-      PastaThrallData thrall = KoLCharacter.currentPastaThrall;
-      if (thrall != PastaThrallData.NO_THRALL) {
-        newModifiers.add(ModifierDatabase.getModifiers(ModifierType.THRALL, thrall.getType()));
-      }
-    }
-
-    // Add in strung-up quartet.
-    if (KoLCharacter.getAscensions() == Preferences.getInteger("lastQuartetAscension")) {
-      switch (Preferences.getInteger("lastQuartetRequest")) {
-        case 1 -> newModifiers.addDouble(
-            DoubleModifier.MONSTER_LEVEL, 5, ModifierType.BALLROOM, "ML");
-        case 2 -> newModifiers.addDouble(
-            DoubleModifier.COMBAT_RATE, -5, ModifierType.BALLROOM, "Combat");
-        case 3 -> newModifiers.addDouble(DoubleModifier.ITEMDROP, 5, ModifierType.BALLROOM, "Item");
-      }
-    }
-
-    // Mummery
-    newModifiers.add(mummeryMods.get());
-
-    // Add modifiers from inventory
-    if (InventoryManager.getCount(ItemPool.FISHING_POLE) > 0) {
-      newModifiers.addDouble(
-          DoubleModifier.FISHING_SKILL, 20, ModifierType.INVENTORY_ITEM, "fishin' pole");
-    }
-    if (InventoryManager.getCount(ItemPool.ANTIQUE_TACKLEBOX) > 0) {
-      newModifiers.addDouble(
-          DoubleModifier.FISHING_SKILL, 5, ModifierType.INVENTORY_ITEM, "antique tacklebox");
+    if (cache == null) {
+      KoLCharacter.addLocalAdjustments(newModifiers, horsery, boomBox);
+    } else {
+      cache.add(
+          newModifiers,
+          AdjustmentCache.Part.LOCAL,
+          horsery,
+          boomBox,
+          mods -> KoLCharacter.addLocalAdjustments(mods, horsery, boomBox));
     }
-
-    // Boombox, no check for having one so it can work with Maximizer "show things you don't have"
-    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.BOOM_BOX, boomBox));
-
-    // Apply variable location modifiers
-    newModifiers.applyAutumnatonModifiers();
-    newModifiers.applyFloristModifiers();
-
-    // Horsery
-    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.HORSERY, horsery));
-
-    // Voting Booth
-    newModifiers.add(voteMods.get());
-
-    // Miscellaneous
-    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.GENERATED, "_userMods"));
     Modifiers fightMods = ModifierDatabase.getModifiers(ModifierType.GENERATED, "fightMods");
-    newModifiers.add(fightMods);
 
-    // Store some modifiers as statics
-    Modifiers.hoboPower = newModifiers.getDouble(DoubleModifier.HOBO_POWER);
+    // Store some modifiers for expressions to use
+    SpeculationContext.publishHoboPower(newModifiers.getDouble(DoubleModifier.HOBO_POWER));
 
-    if (Modifiers.currentLocation.equals("The Slime Tube")) {
+    if (context.location().equals("The Slime Tube")) {
       int hatred = (int) newModifiers.getDouble(DoubleModifier.SLIME_HATES_IT);
       if (hatred > 0) {
         newModifiers.addDouble(
@@ -5151,89 +5156,25 @@ public abstract class KoLCharacter {
       }
     }
 
-    // Add modifiers from Current Path
-    newModifiers.add(
-        ModifierDatabase.getModifiers(ModifierType.PATH, KoLCharacter.ascensionPath.toString()));
-
-    // Add modifiers from Current Class
-    newModifiers.add(
-        ModifierDatabase.getModifiers(ModifierType.CLASS, KoLCharacter.getAscensionClassName()));
-
-    // Add modifiers from today's events (Holidays, stat days etc)
-    for (var event : HolidayDatabase.getEvents()) {
-      newModifiers.add(ModifierDatabase.getModifiers(ModifierType.EVENT, event));
-    }
-
-    newModifiers.applyMotorbikeModifiers();
-
-    // If in Nuclear Autumn, add Radiation Sickness
-
-    if (KoLCharacter.inNuclearAutumn() && KoLCharacter.getRadSickness() > 0) {
-      newModifiers.addDouble(
-          DoubleModifier.MUS, -KoLCharacter.getRadSickness(), ModifierType.PATH, "Rads");
-      newModifiers.addDouble(
-          DoubleModifier.MYS, -KoLCharacter.getRadSickness(), ModifierType.PATH, "Rads");
-      newModifiers.addDouble(
-          DoubleModifier.MOX, -KoLCharacter.getRadSickness(), ModifierType.PATH, "Rads");
-    }
-
-    if (KoLCharacter.inAxecore() && KoLCharacter.currentInstrument != null) {
-      newModifiers.applyMinstrelModifiers(
-          KoLCharacter.minstrelLevel, KoLCharacter.currentInstrument);
-    }
-
-    if (KoLCharacter.isJarlsberg() && KoLCharacter.companion != null) {
-      newModifiers.applyCompanionModifiers(KoLCharacter.companion);
-    }
-
-    if (KoLCharacter.isEd() && EdServantData.currentServant() != null) {
-      newModifiers.applyServantModifiers(EdServantData.currentServant());
-    }
-
-    if (KoLCharacter.inNoobcore()) {
-      newModifiers.add(
-          ModifierDatabase.getModifiers(ModifierType.GENERATED, "Enchantments Absorbed"));
-    }
-
-    if (KoLCharacter.inDisguise() && KoLCharacter.getMask() != null) {
-      newModifiers.add(ModifierDatabase.getModifiers(ModifierType.MASK, KoLCharacter.getMask()));
-    }
-
-    if (KoLCharacter.isVampyre()) {
-      MonsterData ensorcelee = MonsterDatabase.findMonster(Preferences.getString("ensorcelee"));
-      if (ensorcelee != null) {
-        newModifiers.add(
-            ModifierDatabase.getModifiers(
-                ModifierType.ENSORCEL, ensorcelee.getPhylum().toString()));
-      }
-    }
-
-    if (KoLCharacter.inRobocore()) {
-      YouRobotManager.addRobotModifiers(newModifiers);
-    }
-
-    if (VYKEACompanionData.currentCompanion() != VYKEACompanionData.NO_COMPANION) {
-      newModifiers.applyCompanionModifiers(VYKEACompanionData.currentCompanion());
+    if (cache == null) {
+      KoLCharacter.addPathAdjustments(newModifiers);
+    } else {
+      cache.add(
+          newModifiers,
+          AdjustmentCache.Part.PATH,
+          horsery,
+          boomBox,
+          KoLCharacter::addPathAdjustments);
     }
 
-    // add additional rollover adventures
-    newModifiers.applyAdditionalRolloverAdventureModifiers();
-
-    // Organ capacity
-    newModifiers.applyAdditionalStomachCapacityModifiers();
-    newModifiers.applyAdditionalSpleenCapacityModifiers();
-
-    // free rests
-    newModifiers.applyAdditionalFreeRestModifiers();
-
     // Lastly, experience adjustment also implicitly depends on
     // monster level.  Add that information.
 
     // Water level impacts experience adjustment.
     if (KoLCharacter.inRaincore()) {
       int WL = 1;
-      if (Modifiers.currentLocation != null) {
-        KoLAdventure location = AdventureDatabase.getAdventure(Modifiers.currentLocation);
+      if (context.location() != null) {
+        KoLAdventure location = AdventureDatabase.getAdventure(context.location());
         if (location != null) {
           WL = location.getWaterLevel();
         }
@@ -5394,7 +5335,7 @@ public abstract class KoLCharacter {
             EffectPool.STEELY_EYED_SQUINT);
       }
     }
-    if (Modifiers.currentZone.equals("Shadow Rift")) {
+    if (context.zone().equals("Shadow Rift")) {
       newModifiers.addDouble(
           DoubleModifier.ITEMDROP,
           // It includes your current familiar
@@ -5411,6 +5352,188 @@ public abstract class KoLCharacter {
     return newModifiers;
   }
 
+  // Parts of the calculation which do not depend on equipment. A speculation may take these from
+  // an AdjustmentCache rather than recalculating them.
+
+  private static void addPassiveAdjustments(
+      Modifiers newModifiers, List<AdventureResult> effects, boolean debug) {
+    // Add modifiers from Passive Skills
+    newModifiers.applyPassiveModifiers(debug);
+
+    // For the sake of easier maintenance, execute a lot of extra
+    // string comparisons when looking at status effects.
+
+    for (AdventureResult effect : effects) {
+      newModifiers.add(ModifierDatabase.getEffectModifiers(effect.getEffectId()));
+    }
+
+    // Add modifiers from campground equipment.
+    for (AdventureResult item : KoLConstants.campground) {
+      // Skip ginormous pumpkin growing in garden
+      if (item.getItemId() == ItemPool.GINORMOUS_PUMPKIN) {
+        continue;
+      }
+      for (int count = item.getCount(); count > 0; --count) {
+        newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
+      }
+    }
+
+    // Add modifiers from Chateau
+    for (AdventureResult item : KoLConstants.chateau) {
+      newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
+    }
+
+    // Add modifiers from dwelling
+    AdventureResult dwelling = CampgroundRequest.getCurrentDwelling();
+    newModifiers.add(ModifierDatabase.getItemModifiers(dwelling.getItemId()));
+
+    if (InventoryManager.getCount(ItemPool.COMFY_BLANKET) > 0) {
+      newModifiers.add(ModifierDatabase.getItemModifiers(ItemPool.COMFY_BLANKET));
+    }
+
+    if (HolidayDatabase.getRonaldPhase() == 5) {
+      newModifiers.addDouble(
+          DoubleModifier.RESTING_MP_PCT, 100, ModifierType.EVENT, "Moons (Ronald full)");
+    }
+
+    if (HolidayDatabase.getGrimacePhase() == 5) {
+      newModifiers.addDouble(
+          DoubleModifier.RESTING_HP_PCT, 100, ModifierType.EVENT, "Moons (Grimace full)");
+    }
+
+    for (String equip : ClanManager.getClanRumpus()) {
+      newModifiers.add(ModifierDatabase.getModifiers(ModifierType.RUMPUS, equip));
+    }
+  }
+
+  private static void addLocalAdjustments(Modifiers newModifiers, String horsery, String boomBox) {
+    // Add Pasta Thrall effects
+    if (ascensionClass == AscensionClass.PASTAMANCER) {
+      PastaThrallData thrall = KoLCharacter.currentPastaThrall;
+      if (thrall != PastaThrallData.NO_THRALL) {
+        newModifiers.add(ModifierDatabase.getModifiers(ModifierType.THRALL, thrall.getType()));
+      }
+    }
+
+    // Add in strung-up quartet.
+    if (KoLCharacter.getAscensions() == Preferences.getInteger("lastQuartetAscension")) {
+      switch (Preferences.getInteger("lastQuartetRequest")) {
+        case 1 -> newModifiers.addDouble(
+            DoubleModifier.MONSTER_LEVEL, 5, ModifierType.BALLROOM, "ML");
+        case 2 -> newModifiers.addDouble(
+            DoubleModifier.COMBAT_RATE, -5, ModifierType.BALLROOM, "Combat");
+        case 3 -> newModifiers.addDouble(DoubleModifier.ITEMDROP, 5, ModifierType.BALLROOM, "Item");
+      }
+    }
+
+    // Mummery
+    newModifiers.add(mummeryMods.get());
+
+    // Add modifiers from inventory
+    if (InventoryManager.getCount(ItemPool.FISHING_POLE) > 0) {
+      newModifiers.addDouble(
+          DoubleModifier.FISHING_SKILL, 20, ModifierType.INVENTORY_ITEM, "fishin' pole");
+    }
+    if (InventoryManager.getCount(ItemPool.ANTIQUE_TACKLEBOX) > 0) {
+      newModifiers.addDouble(
+          DoubleModifier.FISHING_SKILL, 5, ModifierType.INVENTORY_ITEM, "antique tacklebox");
+    }
+
+    // Boombox, no check for having one so it can work with Maximizer "show things you don't have"
+    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.BOOM_BOX, boomBox));
+
+    // Apply variable location modifiers
+    newModifiers.applyAutumnatonModifiers();
+    newModifiers.applyFloristModifiers();
+
+    // Horsery
+    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.HORSERY, horsery));
+
+    // Voting Booth
+    newModifiers.add(voteMods.get());
+
+    // Miscellaneous
+    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.GENERATED, "_userMods"));
+    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.GENERATED, "fightMods"));
+  }
+
+  private static void addPathAdjustments(Modifiers newModifiers) {
+    // Add modifiers from Current Path
+    newModifiers.add(
+        ModifierDatabase.getModifiers(ModifierType.PATH, KoLCharacter.ascensionPath.toString()));
+
+    // Add modifiers from Current Class
+    newModifiers.add(
+        ModifierDatabase.getModifiers(ModifierType.CLASS, KoLCharacter.getAscensionClassName()));
+
+    // Add modifiers from today's events (Holidays, stat days etc)
+    for (var event : HolidayDatabase.getEvents()) {
+      newModifiers.add(ModifierDatabase.getModifiers(ModifierType.EVENT, event));
+    }
+
+    newModifiers.applyMotorbikeModifiers();
+
+    // If in Nuclear Autumn, add Radiation Sickness
+
+    if (KoLCharacter.inNuclearAutumn() && KoLCharacter.getRadSickness() > 0) {
+      newModifiers.addDouble(
+          DoubleModifier.MUS, -KoLCharacter.getRadSickness(), ModifierType.PATH, "Rads");
+      newModifiers.addDouble(
+          DoubleModifier.MYS, -KoLCharacter.getRadSickness(), ModifierType.PATH, "Rads");
+      newModifiers.addDouble(
+          DoubleModifier.MOX, -KoLCharacter.getRadSickness(), ModifierType.PATH, "Rads");
+    }
+
+    if (KoLCharacter.inAxecore() && KoLCharacter.currentInstrument != null) {
+      newModifiers.applyMinstrelModifiers(
+          KoLCharacter.minstrelLevel, KoLCharacter.currentInstrument);
+    }
+
+    if (KoLCharacter.isJarlsberg() && KoLCharacter.companion != null) {
+      newModifiers.applyCompanionModifiers(KoLCharacter.companion);
+    }
+
+    if (KoLCharacter.isEd() && EdServantData.currentServant() != null) {
+      newModifiers.applyServantModifiers(EdServantData.currentServant());
+    }
+
+    if (KoLCharacter.inNoobcore()) {
+      newModifiers.add(
+          ModifierDatabase.getModifiers(ModifierType.GENERATED, "Enchantments Absorbed"));
+    }
+
+    if (KoLCharacter.inDisguise() && KoLCharacter.getMask() != null) {
+      newModifiers.add(ModifierDatabase.getModifiers(ModifierType.MASK, KoLCharacter.getMask()));
+    }
+
+    if (KoLCharacter.isVampyre()) {
+      MonsterData ensorcelee = MonsterDatabase.findMonster(Preferences.getString("ensorcelee"));
+      if (ensorcelee != null) {
+        newModifiers.add(
+            ModifierDatabase.getModifiers(
+                ModifierType.ENSORCEL, ensorcelee.getPhylum().toString()));
+      }
+    }
+
+    if (KoLCharacter.inRobocore()) {
+      YouRobotManager.addRobotModifiers(newModifiers);
+    }
+
+    if (VYKEACompanionData.currentCompanion() != VYKEACompanionData.NO_COMPANION) {
+      newModifiers.applyCompanionModifiers(VYKEACompanionData.currentCompanion());
+    }
+
+    // add additional rollover adventures
+    newModifiers.applyAdditionalRolloverAdventureModifiers();
+
+    // Organ capacity
+    newModifiers.applyAdditionalStomachCapacityModifiers();
+    newModifiers.applyAdditionalSpleenCapacityModifiers();
+
+    // free rests
+    newModifiers.applyAdditionalFreeRestModifiers();
+  }
+
   public static void addItemAdjustment(
       Modifiers newModifiers,
       Slot slot,
@@ -628,9 +628,9 @@ public interface KoLConstants extends UtilityConstants {
 
   List<String> saveStateNames = LockableListFactory.getSortedInstance(String.class);
 
-  List<AdventureResult> inventory = LockableListFactory.getSortedInstance(AdventureResult.class);
-  List<AdventureResult> closet = LockableListFactory.getSortedInstance(AdventureResult.class);
-  List<AdventureResult> storage = LockableListFactory.getSortedInstance(AdventureResult.class);
+  List<AdventureResult> inventory = LockableListFactory.getItemInstance();
+  List<AdventureResult> closet = LockableListFactory.getItemInstance();
+  List<AdventureResult> storage = LockableListFactory.getItemInstance();
   List<AdventureResult> unlimited = LockableListFactory.getSortedInstance(AdventureResult.class);
   List<AdventureResult> freepulls = LockableListFactory.getSortedInstance(AdventureResult.class);
   List<AdventureResult> nopulls = LockableListFactory.getSortedInstance(AdventureResult.class);
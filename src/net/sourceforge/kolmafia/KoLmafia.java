@@ -37,6 +37,7 @@ import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.objectpool.SkillPool;
 import net.sourceforge.kolmafia.persistence.BountyDatabase;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
+import net.sourceforge.kolmafia.persistence.DatabaseInitializer;
 import net.sourceforge.kolmafia.persistence.EffectDatabase;
 import net.sourceforge.kolmafia.persistence.EquipmentDatabase;
 import net.sourceforge.kolmafia.persistence.FamiliarDatabase;
@@ -309,6 +310,9 @@ public abstract class KoLmafia {
 
     KoLmafia.checkDataOverrides();
 
+    // If asked to, load the databases now that stale overrides are gone, timing each one.
+    DatabaseInitializer.initialize();
+
     // Create an images directory if necessary
     KoLConstants.IMAGE_LOCATION.mkdirs();
 
@@ -627,6 +627,7 @@ public class KoLmafiaCLI {
     new CrimboTreeCommand().register("crimbotree");
     new CrossStreamsCommand().register("crossstreams");
     new DadCommand().register("dad");
+    new DatabasesCommand().register("databases");
     new DaycareCommand().register("daycare");
     new DebugCreateCommand().register("debugcreate");
     new DebugRequestCommand().register("debug");
@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 import net.sourceforge.kolmafia.VYKEACompanionData.VYKEACompanionType;
 import net.sourceforge.kolmafia.listener.PreferenceListenerRegistry;
@@ -60,24 +59,29 @@ public class Modifiers {
   public static double currentWeight = 0.0;
   public static boolean unarmed = false;
 
-  // caching of passive skills for the current character
-  private static boolean availableSkillsChanged = false;
-  private static final Map<Boolean, List<Modifiers>> availablePassiveSkillModifiersByVariable =
-      new TreeMap<>();
-  private static Modifiers cachedPassiveModifiers = null;
+  // caching of passive skills for the current character. A snapshot is never changed once
+  // published, so calculations on any thread can read it without a lock; a change to the
+  // character's skills drops it, and the next calculation collects a new one.
+  private record PassiveSkills(
+      List<Modifiers> constant, Modifiers constantSum, List<Modifiers> variable) {}
+
+  private static volatile PassiveSkills passiveSkills = null;
+  private static boolean passiveSkillListenerRegistered = false;
 
   // fields used in Modifiers objects
 
   private Lookup originalLookup;
   // Assume modifiers are variable until proven otherwise.
   public boolean variable = true;
-  private final DoubleModifierCollection doubles = new DoubleModifierCollection();
-  private final BooleanModifierCollection booleans = new BooleanModifierCollection();
-  private final BitmapModifierCollection bitmaps = new BitmapModifierCollection();
-  private final StringModifierCollection strings = new StringModifierCollection();
+  private final DoubleModifierCollection doubles;
+  private final BooleanModifierCollection booleans;
+  private final BitmapModifierCollection bitmaps;
+  private final StringModifierCollection strings;
   private ArrayList<Indexed<DoubleModifier, ModifierExpression>> expressions = null;
   // These are used for Steely-Eyed Squint and so on
-  private final DoubleModifierCollection accumulators = new DoubleModifierCollection();
+  private final DoubleModifierCollection accumulators;
+  // The Familiar Weight Percent penalty included in doubles
+  private double familiarWeightPenalty = 0.0;
 
   // constants
 
@@ -86,7 +90,23 @@ public class Modifiers {
   private static final AdventureResult FIDOXENE = EffectPool.get(EffectPool.FIDOXENE);
 
   public Modifiers() {
-    // Everything should be initialized above.
+    this.doubles = new DoubleModifierCollection();
+    this.booleans = new BooleanModifierCollection();
+    this.bitmaps = new BitmapModifierCollection();
+    this.strings = new StringModifierCollection();
+    this.accumulators = new DoubleModifierCollection();
+  }
+
+  // An overlay of base, sharing everything with it except the doubles its expressions set
+  private Modifiers(final Modifiers base, final DoubleModifierCollection doubles) {
+    this.originalLookup = base.originalLookup;
+    this.doubles = doubles;
+    this.booleans = base.booleans;
+    this.bitmaps = base.bitmaps;
+    this.strings = base.strings;
+    this.expressions = base.expressions;
+    this.accumulators = base.accumulators;
+    this.familiarWeightPenalty = base.familiarWeightPenalty;
   }
 
   public Modifiers(Modifiers copy) {
@@ -284,6 +304,7 @@ public class Modifiers {
     this.booleans.reset();
     this.bitmaps.reset();
     this.expressions = null;
+    this.familiarWeightPenalty = 0.0;
   }
 
   public double getNumeric(final Modifier modifier) {
@@ -330,6 +351,15 @@ public class Modifiers {
     if (modifier == DoubleModifier.COMBAT_RATE) {
       return this.cappedCombatRate();
     }
+    // The caps below apply to the total, so that sums of modifiers can be added together in any
+    // grouping and still give the same result.
+    if (modifier == DoubleModifier.MANA_COST) {
+      // Total Mana Cost reduction cannot exceed 3
+      return Math.max(-3.0, this.doubles.get(modifier));
+    }
+    if (modifier == DoubleModifier.FAMILIAR_ACTION_BONUS) {
+      return Math.min(100.0, this.doubles.get(modifier));
+    }
 
     if (modifier == null) {
       return 0.0;
@@ -453,6 +483,7 @@ public class Modifiers {
 
     boolean changed = false;
     this.originalLookup = mods.originalLookup;
+    this.familiarWeightPenalty = mods.familiarWeightPenalty;
 
     for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
       changed |= this.setDouble(mod, mods.doubles.get(mod));
@@ -493,35 +524,10 @@ public class Modifiers {
       final ModifierType type,
       final IntOrString key) {
     switch (mod) {
-      case MANA_COST:
-        // Total Mana Cost reduction cannot exceed 3
-        if (this.doubles.add(mod, value) < -3) {
-          this.doubles.set(mod, -3);
-        }
-        break;
-      case FAMILIAR_WEIGHT_PCT:
-        // TODO: this seems extremely fragile. Also, as the mod is negative is this right?
-        // The three current sources of -wt% do not stack
-        if (this.doubles.get(mod) > value) {
-          this.doubles.set(mod, value);
-        }
-        break;
-      case MUS_LIMIT:
-      case MYS_LIMIT:
-      case MOX_LIMIT:
-        {
-          // Only the lowest limiter applies
-          double current = this.doubles.get(mod);
-          if ((current == 0.0 || current > value) && value > 0.0) {
-            this.doubles.set(mod, value);
-          }
-          break;
-        }
       case ITEMDROP:
         if (ModifierDatabase.DOUBLED_BY_SQUINT_CHAMPAGNE.contains(type)) {
           this.accumulators.add(mod, value);
         }
-        this.doubles.add(mod, value);
         break;
       case INITIATIVE:
       case HOT_DAMAGE:
@@ -546,11 +552,37 @@ public class Modifiers {
         // Pear.
         // TODO: Figure out which ones aren't multiplied and exclude them. BoomBox?
         this.accumulators.add(mod, value);
-        this.doubles.add(mod, value);
         break;
-      case FAMILIAR_ACTION_BONUS:
-        this.doubles.set(mod, Math.min(100, this.getDouble(mod) + value));
+      default:
         break;
+    }
+
+    this.combineDouble(mod, value);
+  }
+
+  private void combineDouble(final DoubleModifier mod, final double value) {
+    switch (mod) {
+      case FAMILIAR_WEIGHT_PCT:
+        // Penalties to familiar weight do not stack, so only the largest one applies. Bonuses
+        // stack as usual, and are not lost to a penalty added before or after them.
+        if (value >= 0.0) {
+          this.doubles.add(mod, value);
+        } else if (value < this.familiarWeightPenalty) {
+          this.doubles.add(mod, value - this.familiarWeightPenalty);
+          this.familiarWeightPenalty = value;
+        }
+        break;
+      case MUS_LIMIT:
+      case MYS_LIMIT:
+      case MOX_LIMIT:
+        {
+          // Only the lowest limiter applies
+          double current = this.doubles.get(mod);
+          if ((current == 0.0 || current > value) && value > 0.0) {
+            this.doubles.set(mod, value);
+          }
+          break;
+        }
       case STOMACH_CAPACITY:
         if (KoLCharacter.canExpandStomachCapacity()) {
           this.doubles.add(mod, value);
@@ -592,7 +624,7 @@ public class Modifiers {
 
     // Unarmed modifiers apply only if the character has no weapon or offhand
     boolean unarmed = mods.getBoolean(BooleanModifier.UNARMED);
-    if (unarmed && !Modifiers.unarmed) {
+    if (unarmed && !SpeculationContext.current().unarmed()) {
       return;
     }
 
@@ -603,13 +635,50 @@ public class Modifiers {
         mods.booleans.get(BooleanModifier.NONSTACKABLE_WATCH)
             && this.booleans.get(BooleanModifier.NONSTACKABLE_WATCH);
 
-    mods.doubles.forEach(
-        (i, addition) -> {
-          if (!bothWatches || i != DoubleModifier.ADVENTURES) {
-            this.addDouble(i, addition, lookup);
-          }
-        });
+    // Walk the set indices directly rather than through forEach, as this is called for every
+    // item, effect and skill during each recalculation and should not allocate.
+    var doubles = mods.doubles;
+    for (int i = doubles.nextIndex(0); i >= 0; i = doubles.nextIndex(i + 1)) {
+      var mod = DoubleModifierCollection.modifier(i);
+      if (!bothWatches || mod != DoubleModifier.ADVENTURES) {
+        this.addDouble(mod, doubles.getAt(i), lookup);
+      }
+    }
 
+    this.addNonNumeric(mods);
+  }
+
+  /**
+   * Adds modifiers which are themselves a sum built up with {@link #add}, such as a part of the
+   * calculation kept in an {@link AdjustmentCache}. The class and unarmed checks were applied as
+   * each of them was summed, and their accumulators are carried over as they are.
+   */
+  public void addCombined(final Modifiers mods) {
+    var bothWatches =
+        mods.booleans.get(BooleanModifier.NONSTACKABLE_WATCH)
+            && this.booleans.get(BooleanModifier.NONSTACKABLE_WATCH);
+
+    var doubles = mods.doubles;
+    for (int i = doubles.nextIndex(0); i >= 0; i = doubles.nextIndex(i + 1)) {
+      var mod = DoubleModifierCollection.modifier(i);
+      if (mod == DoubleModifier.FAMILIAR_WEIGHT_PCT) {
+        // The sum holds its bonuses and its penalty together; add them separately.
+        this.combineDouble(mod, doubles.getAt(i) - mods.familiarWeightPenalty);
+        this.combineDouble(mod, mods.familiarWeightPenalty);
+      } else if (!bothWatches || mod != DoubleModifier.ADVENTURES) {
+        this.combineDouble(mod, doubles.getAt(i));
+      }
+    }
+
+    var accumulators = mods.accumulators;
+    for (int i = accumulators.nextIndex(0); i >= 0; i = accumulators.nextIndex(i + 1)) {
+      this.accumulators.add(DoubleModifierCollection.modifier(i), accumulators.getAt(i));
+    }
+
+    this.addNonNumeric(mods);
+  }
+
+  private void addNonNumeric(final Modifiers mods) {
     // Add in string modifiers as appropriate.
 
     String val;
@@ -828,8 +897,28 @@ public class Modifiers {
     };
   }
 
+  /**
+   * @return these modifiers with their expressions and hard-coded variable values evaluated for
+   *     the current character, leaving these modifiers unchanged. Only the values the expressions
+   *     set are stored separately; the rest are shared with these modifiers, so, like the constant
+   *     modifiers in the database, the result must not be changed.
+   */
+  public Modifiers overlay(final Lookup lookup) {
+    if (this.getBoolean(BooleanModifier.VARIABLE)) {
+      // Hard-coded values may set booleans and strings as well, so these need a full copy
+      Modifiers overlay = new Modifiers(this);
+      overlay.expressions = this.expressions;
+      overlay.override(lookup);
+      return overlay;
+    }
+
+    Modifiers overlay = new Modifiers(this, this.doubles.overlay());
+    overlay.override(lookup);
+    return overlay;
+  }
+
   public static synchronized void availableSkillsChanged() {
-    availableSkillsChanged = true;
+    Modifiers.passiveSkills = null;
   }
 
   public void addExpression(Indexed<DoubleModifier, ModifierExpression> entry) {
@@ -839,64 +928,70 @@ public class Modifiers {
     this.expressions.add(entry);
   }
 
-  public void applyPassiveModifiers(final boolean debug) {
-    if (Modifiers.cachedPassiveModifiers == null) {
-      Modifiers.cachedPassiveModifiers =
-          new Modifiers(new Lookup(ModifierType.PASSIVES, "cachedPassives"));
-      PreferenceListenerRegistry.registerPreferenceListener(
-          new String[] {"(skill)", "kingLiberated"}, () -> Modifiers.availableSkillsChanged());
+  public boolean dependsOnEquipment() {
+    if (this.expressions != null) {
+      for (Indexed<DoubleModifier, ModifierExpression> entry : this.expressions) {
+        if (entry.value.dependsOnEquipment()) {
+          return true;
+        }
+      }
     }
+    return false;
+  }
+
+  public void applyPassiveModifiers(final boolean debug) {
     if (KoLCharacter.getAvailableSkillIds().isEmpty()) {
-      // We probably haven't loaded the player's skills yet. Avoid populating
-      // availablePassiveSkillModifiersByVariable with two empty lists.
+      // We probably haven't loaded the player's skills yet. Avoid caching an empty snapshot.
       return;
     }
 
-    synchronized (Modifiers.class) {
-      if (debug
-          || Modifiers.availableSkillsChanged
-          || Modifiers.availablePassiveSkillModifiersByVariable.isEmpty()) {
-        // Collect all passive skills currently on the character.
-        Modifiers.availablePassiveSkillModifiersByVariable.putAll(
-            KoLCharacter.getAvailableSkillIds().stream()
-                .filter(SkillDatabase::isPassive)
-                .map(UseSkillRequest::getUnmodifiedInstance)
-                .filter(Objects::nonNull)
-                .filter(UseSkillRequest::isEffective)
-                .map(skill -> ModifierDatabase.getModifiers(ModifierType.SKILL, skill.getSkillId()))
-                .filter(Objects::nonNull)
-                .collect(
-                    Collectors.partitioningBy(
-                        modifiers -> modifiers.override(modifiers.getLookup()))));
-
-        // Recompute sum of cached constant passive skills.
-        Modifiers.cachedPassiveModifiers.reset();
-        Modifiers.availablePassiveSkillModifiersByVariable
-            .get(false)
-            .forEach(
-                mods -> {
-                  Modifiers.cachedPassiveModifiers.add(mods);
-
-                  // If we are debugging, add them directly. Also add them to the cache though
-                  if (debug) {
-                    this.add(mods);
-                  }
-                });
-        Modifiers.availableSkillsChanged = false;
-      }
+    PassiveSkills passives = Modifiers.passiveSkills;
+    if (debug || passives == null) {
+      passives = Modifiers.collectPassiveSkills();
     }
 
-    // If we're debugging we've already added the modifiers while building the passive cache.
-    if (!debug) {
-      this.add(Modifiers.cachedPassiveModifiers);
+    if (debug) {
+      // Add them one by one, so that each is reported
+      passives.constant().forEach(this::add);
+    } else {
+      this.add(passives.constantSum());
     }
 
-    // Add variable modifiers.
-    Modifiers.availablePassiveSkillModifiersByVariable.get(true).forEach(this::add);
+    // Add variable modifiers, evaluated afresh.
+    passives.variable().forEach(mods -> this.add(ModifierDatabase.getModifiers(mods.getLookup())));
   }
 
-  public static void resetAvailablePassiveSkills() {
-    availablePassiveSkillModifiersByVariable.clear();
+  private static synchronized PassiveSkills collectPassiveSkills() {
+    if (!Modifiers.passiveSkillListenerRegistered) {
+      PreferenceListenerRegistry.registerPreferenceListener(
+          new String[] {"(skill)", "kingLiberated"}, () -> Modifiers.availableSkillsChanged());
+      Modifiers.passiveSkillListenerRegistered = true;
+    }
+
+    // Collect all passive skills currently on the character.
+    Map<Boolean, List<Modifiers>> byVariable =
+        KoLCharacter.getAvailableSkillIds().stream()
+            .filter(SkillDatabase::isPassive)
+            .map(UseSkillRequest::getUnmodifiedInstance)
+            .filter(Objects::nonNull)
+            .filter(UseSkillRequest::isEffective)
+            .map(skill -> ModifierDatabase.getModifiers(ModifierType.SKILL, skill.getSkillId()))
+            .filter(Objects::nonNull)
+            .collect(Collectors.partitioningBy(modifiers -> modifiers.variable));
+
+    // Sum the constant passive skills.
+    List<Modifiers> constant = List.copyOf(byVariable.get(false));
+    Modifiers constantSum = new Modifiers(new Lookup(ModifierType.PASSIVES, "cachedPassives"));
+    constant.forEach(constantSum::add);
+
+    PassiveSkills passives =
+        new PassiveSkills(constant, constantSum, List.copyOf(byVariable.get(true)));
+    Modifiers.passiveSkills = passives;
+    return passives;
+  }
+
+  public static synchronized void resetAvailablePassiveSkills() {
+    Modifiers.passiveSkills = null;
   }
 
   public final void applyFloristModifiers() {
@@ -904,11 +999,12 @@ public class Modifiers {
       return;
     }
 
-    if (Modifiers.currentLocation == null) {
+    String location = SpeculationContext.current().location();
+    if (location == null) {
       return;
     }
 
-    List<Florist> plants = FloristRequest.getPlants(Modifiers.currentLocation);
+    List<Florist> plants = FloristRequest.getPlants(location);
     if (plants == null) {
       return;
     }
@@ -919,12 +1015,13 @@ public class Modifiers {
   }
 
   public final void applyAutumnatonModifiers() {
-    if (Modifiers.currentLocation == null || Modifiers.currentLocation.equals("")) return;
+    String location = SpeculationContext.current().location();
+    if (location == null || location.equals("")) return;
 
     var questLocation = AutumnatonManager.getQuestLocation();
     if (questLocation.equals("")) return;
 
-    if (Modifiers.currentLocation.equals(questLocation)) {
+    if (location.equals(questLocation)) {
       this.addDouble(DoubleModifier.EXPERIENCE, 1, ModifierType.AUTUMNATON, "");
     }
   }
@@ -1091,7 +1188,7 @@ public class Modifiers {
       final FamiliarData familiar, int weight, final AdventureResult famItem) {
     int familiarId = familiar.getEffectiveId();
     weight = Math.max(1, weight);
-    Modifiers.currentWeight = weight;
+    SpeculationContext.publishFamiliarWeight(weight);
 
     String race = familiar.getEffectiveRace();
 
@@ -1187,7 +1284,11 @@ public class Modifiers {
       this.addDouble(
           DoubleModifier.EXPERIENCE,
           Math.min(
-              Math.max(factor * (Modifiers.currentML / 4) * (0.1 + 0.005 * effective), 1),
+              Math.max(
+                  factor
+                      * (SpeculationContext.current().monsterLevel() / 4)
+                      * (0.1 + 0.005 * effective),
+                  1),
               maxStats),
           ModifierType.FAMILIAR,
           race);
@@ -1410,7 +1511,7 @@ public class Modifiers {
   }
 
   public static double getCurrentML() {
-    return Modifiers.currentML;
+    return SpeculationContext.current().monsterLevel();
   }
 
   public static void setFamiliar(FamiliarData fam) {
@@ -154,11 +154,20 @@ public class Speculation {
             this.horsery,
             this.boomBox,
             this.modeables,
-            true);
+            true,
+            this.getAdjustmentCache());
     this.calculated = true;
     return this.mods;
   }
 
+  /**
+   * @return a cache of the parts of the calculation which do not depend on equipment, or null if
+   *     everything should be recalculated
+   */
+  protected AdjustmentCache getAdjustmentCache() {
+    return null;
+  }
+
   public Modifiers getModifiers() {
     if (!this.calculated) this.calculate();
     return this.mods;
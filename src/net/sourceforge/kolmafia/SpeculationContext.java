@@ -0,0 +1,282 @@
+package net.sourceforge.kolmafia;
+
+/**
+ * The character state that modifier calculation and expression evaluation read, other than the
+ * equipment, effects and familiars passed to {@link KoLCharacter#recalculateAdjustments}.
+ *
+ * <p>This used to live only in static fields of {@link Modifiers}, which every calculation wrote
+ * to as it went. Those fields still describe the live character, but a calculation now works from
+ * an immutable context which is active on its own thread for the duration of the calculation. A
+ * speculative calculation never writes back to the static fields, so speculations can run on any
+ * thread without disturbing each other or the live character.
+ *
+ * @param location adventure name of the current location
+ * @param zone zone of the current location
+ * @param environment environment of the current location
+ * @param monsterLevel average monster level of the current location, at least 4
+ * @param familiar race of the familiar being considered
+ * @param mainhandClass item type of the weapon being considered
+ * @param unarmed whether no weapon or offhand is being considered
+ * @param hoboPower total Hobo Power
+ * @param smithsness total Smithsness
+ * @param familiarWeight weight of the familiar being considered
+ * @param speculative whether values computed under this context should be kept off the live
+ *     character
+ */
+public record SpeculationContext(
+    String location,
+    String zone,
+    String environment,
+    double monsterLevel,
+    String familiar,
+    String mainhandClass,
+    boolean unarmed,
+    double hoboPower,
+    double smithsness,
+    double familiarWeight,
+    boolean speculative) {
+
+  private static final ThreadLocal<SpeculationContext> active = new ThreadLocal<>();
+  // Set while a calculation on this thread is checking whether it depends on the equipment
+  private static final ThreadLocal<boolean[]> equipmentRead = new ThreadLocal<>();
+
+  // The values which depend on the equipment being considered note that they were read.
+
+  @Override
+  public String mainhandClass() {
+    SpeculationContext.noteEquipmentRead();
+    return this.mainhandClass;
+  }
+
+  @Override
+  public boolean unarmed() {
+    SpeculationContext.noteEquipmentRead();
+    return this.unarmed;
+  }
+
+  @Override
+  public double hoboPower() {
+    SpeculationContext.noteEquipmentRead();
+    return this.hoboPower;
+  }
+
+  @Override
+  public double smithsness() {
+    SpeculationContext.noteEquipmentRead();
+    return this.smithsness;
+  }
+
+  @Override
+  public double familiarWeight() {
+    SpeculationContext.noteEquipmentRead();
+    return this.familiarWeight;
+  }
+
+  private static void noteEquipmentRead() {
+    boolean[] read = equipmentRead.get();
+    if (read != null) {
+      read[0] = true;
+    }
+  }
+
+  /**
+   * Runs a calculation, noting whether it read any of the values which depend on the equipment
+   * being considered: the weapon class, whether unarmed, hobo power, smithsness and familiar
+   * weight. A calculation which read none of them gives the same result whatever is equipped.
+   *
+   * @return whether the calculation read any of them
+   */
+  public static boolean readsEquipment(final Runnable calculation) {
+    boolean[] previous = equipmentRead.get();
+    boolean[] read = new boolean[1];
+    equipmentRead.set(read);
+    try {
+      calculation.run();
+    } finally {
+      if (previous == null) {
+        equipmentRead.remove();
+      } else {
+        equipmentRead.set(previous);
+        previous[0] |= read[0];
+      }
+    }
+    return read[0];
+  }
+
+  /**
+   * @return the context of the calculation running on this thread, or a snapshot of the live
+   *     character if there is none
+   */
+  public static SpeculationContext current() {
+    SpeculationContext context = active.get();
+    return context != null ? context : live(false);
+  }
+
+  /**
+   * @return a snapshot of the live character
+   */
+  public static SpeculationContext live(boolean speculative) {
+    return new SpeculationContext(
+        Modifiers.currentLocation,
+        Modifiers.currentZone,
+        Modifiers.currentEnvironment,
+        Modifiers.currentML,
+        Modifiers.currentFamiliar,
+        Modifiers.mainhandClass,
+        Modifiers.unarmed,
+        Modifiers.hoboPower,
+        Modifiers.smithsness,
+        Modifiers.currentWeight,
+        speculative);
+  }
+
+  /**
+   * @return a copy of the current context whose results are kept off the live character
+   */
+  public static SpeculationContext speculate() {
+    SpeculationContext context = SpeculationContext.current();
+    if (context.speculative) {
+      return context;
+    }
+    return new SpeculationContext(
+        context.location,
+        context.zone,
+        context.environment,
+        context.monsterLevel,
+        context.familiar,
+        context.mainhandClass,
+        context.unarmed,
+        context.hoboPower,
+        context.smithsness,
+        context.familiarWeight,
+        true);
+  }
+
+  /**
+   * Makes this the context for calculations on this thread.
+   *
+   * @return the context it replaces, to be passed to {@link #restore}
+   */
+  public SpeculationContext enter() {
+    SpeculationContext previous = active.get();
+    active.set(this);
+    return previous;
+  }
+
+  public static void restore(SpeculationContext previous) {
+    if (previous == null) {
+      active.remove();
+    } else {
+      active.set(previous);
+    }
+  }
+
+  public SpeculationContext withFamiliar(final FamiliarData familiar) {
+    return new SpeculationContext(
+        this.location,
+        this.zone,
+        this.environment,
+        this.monsterLevel,
+        familiar == null ? "" : familiar.getRace(),
+        this.mainhandClass,
+        this.unarmed,
+        this.hoboPower,
+        this.smithsness,
+        this.familiarWeight,
+        this.speculative);
+  }
+
+  public SpeculationContext withWeapons(final String mainhandClass, final boolean unarmed) {
+    return new SpeculationContext(
+        this.location,
+        this.zone,
+        this.environment,
+        this.monsterLevel,
+        this.familiar,
+        mainhandClass,
+        unarmed,
+        this.hoboPower,
+        this.smithsness,
+        this.familiarWeight,
+        this.speculative);
+  }
+
+  public SpeculationContext withHoboPower(final double hoboPower) {
+    return new SpeculationContext(
+        this.location,
+        this.zone,
+        this.environment,
+        this.monsterLevel,
+        this.familiar,
+        this.mainhandClass,
+        this.unarmed,
+        hoboPower,
+        this.smithsness,
+        this.familiarWeight,
+        this.speculative);
+  }
+
+  public SpeculationContext withSmithsness(final double smithsness) {
+    return new SpeculationContext(
+        this.location,
+        this.zone,
+        this.environment,
+        this.monsterLevel,
+        this.familiar,
+        this.mainhandClass,
+        this.unarmed,
+        this.hoboPower,
+        smithsness,
+        this.familiarWeight,
+        this.speculative);
+  }
+
+  public SpeculationContext withFamiliarWeight(final double familiarWeight) {
+    return new SpeculationContext(
+        this.location,
+        this.zone,
+        this.environment,
+        this.monsterLevel,
+        this.familiar,
+        this.mainhandClass,
+        this.unarmed,
+        this.hoboPower,
+        this.smithsness,
+        familiarWeight,
+        this.speculative);
+  }
+
+  // The values below are computed part way through a calculation and read by expressions later in
+  // the same calculation. They replace the active context, and are also published to the live
+  // character unless the calculation is speculative.
+
+  static void publishHoboPower(final double hoboPower) {
+    SpeculationContext context = active.get();
+    if (context == null || !context.speculative) {
+      Modifiers.hoboPower = hoboPower;
+    }
+    if (context != null) {
+      active.set(context.withHoboPower(hoboPower));
+    }
+  }
+
+  static void publishSmithsness(final double smithsness) {
+    SpeculationContext context = active.get();
+    if (context == null || !context.speculative) {
+      Modifiers.smithsness = smithsness;
+    }
+    if (context != null) {
+      active.set(context.withSmithsness(smithsness));
+    }
+  }
+
+  static void publishFamiliarWeight(final double familiarWeight) {
+    SpeculationContext context = active.get();
+    if (context == null || !context.speculative) {
+      Modifiers.currentWeight = familiarWeight;
+    }
+    if (context != null) {
+      active.set(context.withFamiliarWeight(familiarWeight));
+    }
+  }
+}
@@ -8,6 +8,8 @@ import net.sourceforge.kolmafia.RestrictedItemType;
 import net.sourceforge.kolmafia.objectpool.Concoction;
 import net.sourceforge.kolmafia.objectpool.ConcoctionPool;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
+import net.sourceforge.kolmafia.persistence.ConcoctionSnapshot;
 import net.sourceforge.kolmafia.persistence.ItemDatabase;
 import net.sourceforge.kolmafia.persistence.ItemDatabase.FoldGroup;
 import net.sourceforge.kolmafia.persistence.MallPriceDatabase;
@@ -85,12 +87,13 @@ public class CheckedItem extends AdventureResult {
     Concoction c = ConcoctionPool.get(itemId);
     if (c == null) return;
 
-    this.creatable = c.creatable;
+    ConcoctionSnapshot.Counts counts = ConcoctionDatabase.getSnapshot().get(c);
+    this.creatable = counts.creatable();
 
     if (c.getAdventuresNeeded(1) > 0 && Preferences.getBoolean("maximizerNoAdventures")) {
       this.creatable = 0;
-    } else if (c.price > 0) {
-      this.npcBuyable = maxPrice / c.price;
+    } else if (counts.price() > 0) {
+      this.npcBuyable = maxPrice / counts.price();
       int limit = CheckedItem.limitBuyable(itemId);
       if (limit < this.npcBuyable) {
         this.npcBuyable = limit;
@@ -202,6 +205,18 @@ public class CheckedItem extends AdventureResult {
         + this.pullBuyable;
   }
 
+  /**
+   * @return whether the only way to get this item is to buy it from the mall, and perhaps pull it
+   */
+  public boolean onlyFromMall() {
+    return this.inventory <= 0
+        && this.initial <= 0
+        && this.creatable <= 0
+        && this.npcBuyable <= 0
+        && this.pullable <= 0
+        && (this.mallBuyable > 0 || this.pullBuyable > 0);
+  }
+
   public void validate(int maxPrice, PriceLevel priceLevel) throws MaximizerInterruptedException {
     if (!KoLmafia.permitsContinue()) {
       throw new MaximizerInterruptedException();
@@ -267,4 +282,7 @@ public class CheckedItem extends AdventureResult {
   public boolean requiredFlag;
   public boolean conditionalFlag;
   public boolean singleFlag;
+
+  // The most wearing this item can add to the score of a loadout, if the score can be bounded
+  double upperBound = Double.POSITIVE_INFINITY;
 }
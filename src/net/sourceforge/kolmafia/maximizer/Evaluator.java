@@ -21,6 +21,7 @@ import net.sourceforge.kolmafia.FamiliarData;
 import net.sourceforge.kolmafia.KoLCharacter;
 import net.sourceforge.kolmafia.KoLCharacter.TurtleBlessing;
 import net.sourceforge.kolmafia.KoLCharacter.TurtleBlessingLevel;
+import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLConstants.MafiaState;
 import net.sourceforge.kolmafia.KoLConstants.WeaponType;
 import net.sourceforge.kolmafia.KoLmafia;
@@ -30,6 +31,7 @@ import net.sourceforge.kolmafia.Modifiers;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.RestrictedItemType;
 import net.sourceforge.kolmafia.SpecialOutfit;
+import net.sourceforge.kolmafia.SpeculationContext;
 import net.sourceforge.kolmafia.equipment.Slot;
 import net.sourceforge.kolmafia.equipment.SlotSet;
 import net.sourceforge.kolmafia.modifiers.BitmapModifier;
@@ -50,6 +52,7 @@ import net.sourceforge.kolmafia.persistence.ItemDatabase.FoldGroup;
 import net.sourceforge.kolmafia.persistence.ItemFinder;
 import net.sourceforge.kolmafia.persistence.ItemFinder.Match;
 import net.sourceforge.kolmafia.persistence.ModifierDatabase;
+import net.sourceforge.kolmafia.persistence.SkillDatabase;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.EquipmentRequest;
 import net.sourceforge.kolmafia.request.StandardRequest;
@@ -58,12 +61,20 @@ import net.sourceforge.kolmafia.session.InventoryManager;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class Evaluator {
+  // The outcome of the last call to getScore(Modifiers, Map), for callers on a single thread
   public boolean failed;
   boolean exceeded;
   private Evaluator tiebreaker;
   private final DoubleModifierCollection weight = new DoubleModifierCollection();
   private Map<DoubleModifier, Double> min;
   private Map<DoubleModifier, Double> max;
+  // The modifiers which count towards the score, with their weights and limits, compiled from the
+  // above once the expression has been parsed
+  private DoubleModifier[] scored;
+  private double[] scoredWeight;
+  private double[] scoredMin;
+  private double[] scoredMax;
+  private boolean scoresStats;
   private double totalMin, totalMax;
   private int dump = 0;
   private int clownosity = 0;
@@ -107,6 +118,8 @@ public class Evaluator {
   private final Set<AdventureResult> negEquip = new HashSet<>();
   private final Map<AdventureResult, Double> bonuses = new HashMap<>();
   private final List<BonusFunction> bonusFunc = new ArrayList<>();
+  // Upper bounds for pruning the equipment enumeration, if the score can be bounded slot by slot
+  SlotBounds bounds = null;
 
   static class BonusFunction {
     public final Function<AdventureResult, Double> bonusFunction;
@@ -155,6 +168,63 @@ public class Evaluator {
   // Slots starting with EquipmentSlot.ALL_SLOTS are equipment
   // for other familiars being considered.
 
+  // Scored values which are not a sum over the equipment worn, so cannot be bounded slot by slot
+  private static final Set<DoubleModifier> DERIVED_MODIFIERS =
+      EnumSet.of(
+          DoubleModifier.MUS,
+          DoubleModifier.MYS,
+          DoubleModifier.MOX,
+          DoubleModifier.HP,
+          DoubleModifier.MP,
+          DoubleModifier.FAMILIAR_WEIGHT,
+          DoubleModifier.EXPERIENCE,
+          DoubleModifier.MUS_EXPERIENCE,
+          DoubleModifier.MYS_EXPERIENCE,
+          DoubleModifier.MOX_EXPERIENCE);
+  private static final List<AdventureResult> DOUBLING_EFFECTS =
+      List.of(
+          KoLCharacter.BENDIN_HELL,
+          KoLCharacter.DIRTY_PEAR,
+          KoLCharacter.BOWLEGGED_SWAGGER,
+          KoLCharacter.STEELY_EYED_SQUINT,
+          KoLCharacter.OFFHAND_REMARKABLE);
+  // Items which add modifiers other than their own, as in KoLCharacter.addItemAdjustment
+  private static final Set<Integer> UNBOUNDED_ITEMS =
+      Set.of(
+          ItemPool.STICKER_SWORD,
+          ItemPool.STICKER_CROSSBOW,
+          ItemPool.CARD_SLEEVE,
+          ItemPool.FOLDER_HOLDER,
+          ItemPool.REPLICA_FOLDER_HOLDER,
+          ItemPool.COWBOY_BOOTS,
+          ItemPool.HATSEAT,
+          ItemPool.BUDDY_BJORN,
+          ItemPool.VAMPYRIC_CLOAKE,
+          ItemPool.MAKESHIFT_GARBAGE_SHIRT,
+          ItemPool.BROKEN_CHAMPAGNE);
+  // Modifiers which change how much the rest of the equipment is worth
+  private static final List<DoubleModifier> COUPLED_MODIFIERS =
+      List.of(
+          DoubleModifier.FAMILIAR_WEIGHT,
+          DoubleModifier.HIDDEN_FAMILIAR_WEIGHT,
+          DoubleModifier.FAMILIAR_WEIGHT_PCT,
+          DoubleModifier.SLIME_HATES_IT);
+  private static final List<BitmapModifier> COUPLED_BITMAPS =
+      List.of(BitmapModifier.BRIMSTONE, BitmapModifier.CLOATHING, BitmapModifier.SYNERGETIC);
+  private static final List<BooleanModifier> COUPLED_BOOLEANS =
+      List.of(
+          BooleanModifier.NONSTACKABLE_WATCH,
+          BooleanModifier.COLD_IMMUNITY,
+          BooleanModifier.HOT_IMMUNITY,
+          BooleanModifier.SLEAZE_IMMUNITY,
+          BooleanModifier.SPOOKY_IMMUNITY,
+          BooleanModifier.STENCH_IMMUNITY,
+          BooleanModifier.COLD_VULNERABILITY,
+          BooleanModifier.HOT_VULNERABILITY,
+          BooleanModifier.SLEAZE_VULNERABILITY,
+          BooleanModifier.SPOOKY_VULNERABILITY,
+          BooleanModifier.STENCH_VULNERABILITY);
+
   private static int relevantSkill(int skillId) {
     return KoLCharacter.hasSkill(skillId) ? 1 : 0;
   }
@@ -218,10 +288,36 @@ public class Evaluator {
       tiebreaker.max.put(mod, Double.POSITIVE_INFINITY);
     }
     tiebreaker.parse(Evaluator.TIEBREAKER);
+    tiebreaker.compile();
 
     this.min = new EnumMap<>(tiebreaker.min);
     this.max = new EnumMap<>(tiebreaker.max);
     this.parse(expr);
+    this.compile();
+  }
+
+  private void compile() {
+    List<DoubleModifier> scored = new ArrayList<>();
+    for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
+      if (this.weight.get(mod) != 0.0 || this.min.get(mod) != Double.NEGATIVE_INFINITY) {
+        scored.add(mod);
+      }
+    }
+    int size = scored.size();
+    this.scored = scored.toArray(new DoubleModifier[size]);
+    this.scoredWeight = new double[size];
+    this.scoredMin = new double[size];
+    this.scoredMax = new double[size];
+    this.scoresStats = false;
+    for (int i = 0; i < size; ++i) {
+      var mod = this.scored[i];
+      this.scoredWeight[i] = this.weight.get(mod);
+      this.scoredMin[i] = this.min.get(mod);
+      this.scoredMax[i] = this.max.get(mod);
+      switch (mod) {
+        case MUS, MYS, MOX, HP, MP -> this.scoresStats = true;
+      }
+    }
   }
 
   private void parse(String expr) {
@@ -753,18 +849,31 @@ public class Evaluator {
     };
   }
 
+  /** Whether one set of modifiers failed the requirements, or reached the maximum score. */
+  static final class Outcome {
+    boolean failed;
+    boolean exceeded;
+  }
+
   public double getScore(Modifiers mods, Map<Slot, AdventureResult> equipment) {
-    this.failed = false;
-    this.exceeded = false;
-    var predicted = mods.predict();
+    Outcome outcome = new Outcome();
+    double score = this.getScore(mods, equipment, outcome);
+    this.failed = outcome.failed;
+    this.exceeded = outcome.exceeded;
+    return score;
+  }
+
+  /** Scores modifiers without touching this evaluator, so that any thread may call it. */
+  double getScore(Modifiers mods, Map<Slot, AdventureResult> equipment, Outcome outcome) {
+    var predicted = this.scoresStats ? mods.predict() : null;
 
     double score = 0.0;
-    for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
-      double weight = this.weight.get(mod);
-      double min = this.min.get(mod);
-      if (weight == 0.0 && min == Double.NEGATIVE_INFINITY) continue;
+    for (int i = 0; i < this.scored.length; ++i) {
+      var mod = this.scored[i];
+      double weight = this.scoredWeight[i];
+      double min = this.scoredMin[i];
       double val = mods.getDouble(mod);
-      double max = this.max.get(mod);
+      double max = this.scoredMax[i];
       switch (mod) {
         case MUS:
           val = predicted.get(DerivedModifier.BUFFED_MUS);
@@ -870,7 +979,7 @@ public class Evaluator {
           val += mods.getDouble(DoubleModifier.SPORADIC_THORNS);
           break;
       }
-      if (val < min) this.failed = true;
+      if (val < min) outcome.failed = true;
       score += weight * Math.min(val, max);
     }
     if (!this.bonuses.isEmpty()) {
@@ -891,8 +1000,8 @@ public class Evaluator {
     if (mods.getString(StringModifier.ROLLOVER_EFFECT).length() > 0) {
       score += 0.01f;
     }
-    if (score < this.totalMin) this.failed = true;
-    if (score >= this.totalMax) this.exceeded = true;
+    if (score < this.totalMin) outcome.failed = true;
+    if (score >= this.totalMax) outcome.exceeded = true;
     // special handling for -osity:
     // The "weight" specified is actually the desired -osity.
     // Allow partials to contribute to the score (1:1 ratio) up to the desired value.
@@ -900,22 +1009,22 @@ public class Evaluator {
     if (this.clownosity > 0) {
       int osity = mods.getBitmap(BitmapModifier.CLOWNINESS);
       score += Math.min(osity, this.clownosity);
-      if (osity < this.clownosity) this.failed = true;
+      if (osity < this.clownosity) outcome.failed = true;
     }
     if (this.raveosity > 0) {
       int osity = mods.getBitmap(BitmapModifier.RAVEOSITY);
       score += Math.min(osity, this.raveosity);
-      if (osity < this.raveosity) this.failed = true;
+      if (osity < this.raveosity) outcome.failed = true;
     }
     if (this.surgeonosity > 0) {
       int osity = mods.getBitmap(BitmapModifier.SURGEONOSITY);
       score += Math.min(osity, this.surgeonosity);
-      if (osity < this.surgeonosity) this.failed = true;
+      if (osity < this.surgeonosity) outcome.failed = true;
     }
-    if (!this.failed
+    if (!outcome.failed
         && this.booleanMask.size() != 0
         && !mods.getBooleans(this.booleanMask).equals(this.booleanValue)) {
-      this.failed = true;
+      outcome.failed = true;
     }
     return score;
   }
@@ -924,10 +1033,207 @@ public class Evaluator {
     return this.getScore(mods, Map.of());
   }
 
-  void checkEquipment(Modifiers mods, Map<Slot, AdventureResult> equipment, int beeosity) {
+  /**
+   * Bounds each slot by its best candidate, for pruning the equipment enumeration.
+   *
+   * <p>A candidate's bound is the most that wearing it can add to the score of a loadout in which
+   * its slot was empty. That only holds if each weighted modifier is scored as a sum over the
+   * equipment worn, so there are no bounds at all when a weighted modifier is derived from other
+   * modifiers, or when an effect, passive skill or candidate has an expression which reads
+   * something derived from equipment.
+   *
+   * @return the bounds, or null if the score cannot be bounded slot by slot
+   */
+  SlotBounds getSlotBounds(SlotList<CheckedItem> possibles, Map<Slot, AdventureResult> equipment) {
+    for (int i = 0; i < this.scored.length; ++i) {
+      if (this.scoredWeight[i] != 0.0 && Evaluator.DERIVED_MODIFIERS.contains(this.scored[i])) {
+        return null;
+      }
+    }
+    for (AdventureResult effect : KoLConstants.activeEffects) {
+      Modifiers mods = ModifierDatabase.getEffectModifiers(effect.getEffectId());
+      if (mods != null && mods.dependsOnEquipment()) return null;
+    }
+    for (int skillId : KoLCharacter.getAvailableSkillIds()) {
+      if (!SkillDatabase.isPassive(skillId)) continue;
+      Modifiers mods = ModifierDatabase.getModifiers(ModifierType.SKILL, skillId);
+      if (mods != null && mods.dependsOnEquipment()) return null;
+    }
+    List<AdventureResult> items = new ArrayList<>(equipment.values());
+    for (var entry : possibles.entries()) {
+      items.addAll(entry.value());
+    }
+    for (AdventureResult item : items) {
+      if (item == null) continue;
+      Modifiers mods = ModifierDatabase.getItemModifiers(item.getItemId());
+      if (mods != null && mods.dependsOnEquipment()) return null;
+    }
+
+    // Each of these doubles some modifiers once everything else has been added
+    int doublings = 0;
+    for (AdventureResult effect : Evaluator.DOUBLING_EFFECTS) {
+      if (KoLConstants.activeEffects.contains(effect)) ++doublings;
+    }
+    double multiplier = 1 << doublings;
+
+    SlotBounds bounds = new SlotBounds();
+    for (var slot :
+        List.of(Slot.HAT, Slot.WEAPON, Slot.HOLSTER, Slot.CONTAINER, Slot.SHIRT, Slot.PANTS)) {
+      bounds.put(slot, 0.0);
+      for (CheckedItem item : possibles.get(slot)) {
+        item.upperBound = this.getUpperBound(item, multiplier);
+        bounds.put(slot, item.upperBound);
+      }
+    }
+    bounds.put(Slot.OFFHAND, 0.0);
+    for (var slot : List.of(Slot.OFFHAND, Evaluator.OFFHAND_MELEE, Evaluator.OFFHAND_RANGED)) {
+      for (CheckedItem item : possibles.get(slot)) {
+        item.upperBound = this.getUpperBound(item, multiplier);
+        bounds.put(Slot.OFFHAND, item.upperBound);
+      }
+    }
+    List<Double> accessories = new ArrayList<>();
+    for (CheckedItem item : possibles.get(Slot.ACCESSORY1)) {
+      double bound = this.getUpperBound(item, multiplier);
+      item.upperBound = bound;
+      int count = Math.min(item.getCount(), SlotSet.ACCESSORY_SLOTS.size());
+      for (int i = 0; i < count; ++i) {
+        accessories.add(bound);
+      }
+    }
+    bounds.putAccessories(accessories);
+    return bounds;
+  }
+
+  private double getUpperBound(AdventureResult item, double multiplier) {
+    int itemId = item.getItemId();
+    if (itemId <= 0) return 0.0;
+    if (Evaluator.UNBOUNDED_ITEMS.contains(itemId) || Modeable.find(itemId) != null) {
+      return Double.POSITIVE_INFINITY;
+    }
+    int outfitId = EquipmentDatabase.getOutfitWithItem(itemId);
+    if (outfitId >= 0) {
+      SpecialOutfit outfit = EquipmentDatabase.getOutfit(outfitId);
+      if (outfit == null
+          || ModifierDatabase.getModifiers(ModifierType.OUTFIT, outfit.getName()) != null) {
+        return Double.POSITIVE_INFINITY;
+      }
+    }
+
+    Modifiers mods = ModifierDatabase.getItemModifiers(itemId);
+    Modifiers intrinsic = null;
+    if (mods != null) {
+      String effect = mods.getString(StringModifier.INTRINSIC_EFFECT);
+      if (!effect.isEmpty()) {
+        intrinsic = ModifierDatabase.getModifiers(ModifierType.EFFECT, effect);
+      }
+    }
+    if (Evaluator.isUnbounded(mods) || Evaluator.isUnbounded(intrinsic)) {
+      return Double.POSITIVE_INFINITY;
+    }
+
+    // Equipment power, allowing for Tao of the Terrapin
+    double power = EquipmentDatabase.getPower(itemId);
+    double weaponPower = 0.0;
+    double hatPower = 0.0;
+    switch (ItemDatabase.getConsumptionType(itemId)) {
+      case WEAPON -> weaponPower = power * 0.15;
+      case HAT, PANTS, SHIRT -> hatPower = power * 2;
+    }
+
+    double bound = 0.0;
+    for (int i = 0; i < this.scored.length; ++i) {
+      var mod = this.scored[i];
+      double weight = this.scoredWeight[i];
+      double val = Evaluator.getScoredValue(mod, mods) + Evaluator.getScoredValue(mod, intrinsic);
+      switch (mod) {
+        case WEAPON_DAMAGE -> val += weaponPower;
+        case DAMAGE_ABSORPTION -> val += hatPower;
+      }
+      // Penalties only count while they are negative, so may add anything between nothing and
+      // the whole penalty
+      double penalty = Evaluator.getPenalty(mod, mods) + Evaluator.getPenalty(mod, intrinsic);
+      double gain =
+          Math.max(
+              weight * (val + Math.min(0.0, penalty)), weight * (val + Math.max(0.0, penalty)));
+      bound += Math.max(0.0, gain);
+    }
+    bound *= multiplier;
+
+    Double bonus = this.bonuses.get(item);
+    if (bonus != null) {
+      bound += Math.max(0.0, bonus);
+    }
+    for (BonusFunction func : this.bonusFunc) {
+      double gain =
+          func.bonusFunction.apply(item) - func.bonusFunction.apply(EquipmentRequest.UNEQUIP);
+      bound += Math.max(0.0, gain * func.weight);
+    }
+    if (mods != null) {
+      if (mods.getString(StringModifier.ROLLOVER_EFFECT).length() > 0) {
+        bound += 0.01f;
+      }
+      if (this.clownosity > 0) {
+        bound += Integer.bitCount(mods.getRawBitmap(BitmapModifier.CLOWNINESS));
+      }
+      if (this.raveosity > 0) {
+        bound += Integer.bitCount(mods.getRawBitmap(BitmapModifier.RAVEOSITY));
+      }
+      if (this.surgeonosity > 0) {
+        bound += Integer.bitCount(mods.getRawBitmap(BitmapModifier.SURGEONOSITY));
+      }
+    }
+    return bound;
+  }
+
+  private static boolean isUnbounded(Modifiers mods) {
+    if (mods == null) return false;
+    for (var mod : Evaluator.COUPLED_MODIFIERS) {
+      if (mods.getDouble(mod) != 0.0) return true;
+    }
+    for (var mod : Evaluator.COUPLED_BITMAPS) {
+      if (mods.getRawBitmap(mod) != 0) return true;
+    }
+    for (var mod : Evaluator.COUPLED_BOOLEANS) {
+      if (mods.getBoolean(mod)) return true;
+    }
+    return false;
+  }
+
+  // The part of a modifier's value in getScore which these modifiers contribute
+  private static double getScoredValue(DoubleModifier mod, Modifiers mods) {
+    if (mods == null) return 0.0;
+    double val = mods.getDouble(mod);
+    return switch (mod) {
+      case MANA_COST -> val + mods.getDouble(DoubleModifier.STACKABLE_MANA_COST);
+      case MEATDROP -> val
+          + mods.getDouble(DoubleModifier.SPORADIC_MEATDROP)
+          + mods.getDouble(DoubleModifier.MEAT_BONUS) / 10000.0;
+      case ITEMDROP -> val + mods.getDouble(DoubleModifier.SPORADIC_ITEMDROP);
+      case WEAPON_DAMAGE -> val + mods.getDouble(DoubleModifier.WEAPON_DAMAGE_PCT);
+      case RANGED_DAMAGE -> val + mods.getDouble(DoubleModifier.RANGED_DAMAGE_PCT);
+      case SPELL_DAMAGE -> val + mods.getDouble(DoubleModifier.SPELL_DAMAGE_PCT);
+      case DAMAGE_AURA -> val + mods.getDouble(DoubleModifier.SPORADIC_DAMAGE_AURA);
+      case THORNS -> val + mods.getDouble(DoubleModifier.SPORADIC_THORNS);
+      default -> val;
+    };
+  }
+
+  private static double getPenalty(DoubleModifier mod, Modifiers mods) {
+    if (mods == null) return 0.0;
+    return switch (mod) {
+      case INITIATIVE -> mods.getDouble(DoubleModifier.INITIATIVE_PENALTY);
+      case MEATDROP -> mods.getDouble(DoubleModifier.MEATDROP_PENALTY);
+      case ITEMDROP -> mods.getDouble(DoubleModifier.ITEMDROP_PENALTY);
+      default -> 0.0;
+    };
+  }
+
+  void checkEquipment(
+      Modifiers mods, Map<Slot, AdventureResult> equipment, int beeosity, Outcome outcome) {
     boolean outfitSatisfied = this.posOutfits.isEmpty();
     boolean equipSatisfied = this.posEquip.isEmpty();
-    if (!this.failed && !this.posEquip.isEmpty()) {
+    if (!outcome.failed && !this.posEquip.isEmpty()) {
       equipSatisfied = true;
       for (AdventureResult item : this.posEquip) {
         if (!KoLCharacter.hasEquipped(equipment, item)) {
@@ -936,10 +1242,10 @@ public class Evaluator {
         }
       }
     }
-    if (!this.failed) {
+    if (!outcome.failed) {
       String outfit = mods.getString(StringModifier.OUTFIT);
       if (this.negOutfits.contains(outfit)) {
-        this.failed = true;
+        outcome.failed = true;
       } else {
         outfitSatisfied = this.posOutfits.contains(outfit) || this.posOutfits.isEmpty();
       }
@@ -947,16 +1253,16 @@ public class Evaluator {
     // negEquip is not checked, since enumerateEquipment should make it
     // impossible for such items to be chosen.
     if (!outfitSatisfied || !equipSatisfied) {
-      this.failed = true;
+      outcome.failed = true;
     }
     if (beeosity > this.beeosity) {
-      this.failed = true;
+      outcome.failed = true;
     }
   }
 
   double getTiebreaker(Modifiers mods) {
     if (this.noTiebreaker) return 0.0;
-    return this.tiebreaker.getScore(mods);
+    return this.tiebreaker.getScore(mods, Map.of(), new Outcome());
   }
 
   boolean isUsingTiebreaker() {
@@ -1045,6 +1351,17 @@ public class Evaluator {
 
   void enumerateEquipment(EquipScope equipScope, int maxPrice, PriceLevel priceLevel)
       throws MaximizerInterruptedException {
+    // Expressions are evaluated under a context of our own, which enumerating may replace
+    SpeculationContext previous = SpeculationContext.speculate().enter();
+    try {
+      this.enumerateEquipmentIn(equipScope, maxPrice, priceLevel);
+    } finally {
+      SpeculationContext.restore(previous);
+    }
+  }
+
+  private void enumerateEquipmentIn(EquipScope equipScope, int maxPrice, PriceLevel priceLevel)
+      throws MaximizerInterruptedException {
     // Items automatically considered regardless of their score -
     // synergies, hobo power, brimstone, etc.
     SlotList<CheckedItem> automatic = new SlotList<>(this.familiars.size());
@@ -1337,7 +1654,8 @@ public class Evaluator {
               continue;
             }
             if (hoboPowerUseful && name.startsWith("Hodgman's")) {
-              Modifiers.hoboPower = 100.0;
+              // Score the rest of the items at full hobo power, leaving the character alone
+              SpeculationContext.current().withHoboPower(100.0).enter();
               item.automaticFlag = true;
             }
             break;
@@ -2310,6 +2628,7 @@ public class Evaluator {
           }
         });
 
+    this.bounds = this.getSlotBounds(automatic, spec.equipment);
     spec.tryAll(
         this.familiars,
         this.carriedFamiliars,
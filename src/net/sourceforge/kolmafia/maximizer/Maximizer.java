@@ -1,13 +1,16 @@
 package net.sourceforge.kolmafia.maximizer;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import net.java.dev.spellcast.utilities.LockableListModel;
+import net.sourceforge.kolmafia.AdjustmentCache;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.FamiliarData;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -68,6 +71,7 @@ import net.sourceforge.kolmafia.utilities.StringUtilities;
 public class Maximizer {
   private static boolean firstTime = true;
 
+  // The boosts and evaluator of the last maximization to finish
   public static final LockableListModel<Boost> boosts = new LockableListModel<>();
   public static Evaluator eval;
 
@@ -82,9 +86,10 @@ public class Maximizer {
     "_smithsness",
   };
 
-  static MaximizerSpeculation best;
-  static int bestChecked;
-  static long bestUpdate;
+  // The last maximization to finish
+  static volatile SearchState last;
+
+  private static final ResultCache results = new ResultCache();
 
   private Maximizer() {}
 
@@ -100,16 +105,23 @@ public class Maximizer {
 
     KoLmafiaCLI.isExecutingCheckOnlyCommand = false;
 
-    Maximizer.maximize(equipScope, maxPrice, priceLevel, false, EnumSet.allOf(filterType.class));
+    SearchState state =
+        Maximizer.run(
+            maximizerString,
+            equipScope,
+            maxPrice,
+            priceLevel,
+            false,
+            EnumSet.allOf(filterType.class));
 
     if (!KoLmafia.permitsContinue()) {
       return false;
     }
 
-    Modifiers mods = Maximizer.best.calculate();
+    Modifiers mods = state.best.calculate();
     ModifierDatabase.overrideModifier(ModifierType.GENERATED, "_spec", mods);
 
-    return !Maximizer.best.failed;
+    return !state.best.failed;
   }
 
   public static void maximize(
@@ -118,24 +130,116 @@ public class Maximizer {
       PriceLevel priceLevel,
       boolean includeAll,
       Set<filterType> filter) {
-    KoLmafia.forceContinue();
     String maxMe = (String) MaximizerFrame.expressionSelect.getSelectedItem();
+    Maximizer.run(maxMe, equipScope, maxPrice, priceLevel, includeAll, filter);
+  }
+
+  private static SearchState run(
+      String maxMe,
+      EquipScope equipScope,
+      int maxPrice,
+      PriceLevel priceLevel,
+      boolean includeAll,
+      Set<filterType> filter) {
+    // Equipping as we go changes the character, so only speculative results are reused
+    int cacheSize = Preferences.getInteger("maximizerResultCacheSize");
+    if (cacheSize <= 0 || equipScope == EquipScope.EQUIP_NOW || filter.isEmpty()) {
+      return Maximizer.publish(
+          Maximizer.search(maxMe, equipScope, maxPrice, priceLevel, includeAll, filter));
+    }
+
+    var key = ResultCache.key(maxMe, equipScope, maxPrice, priceLevel, includeAll, filter);
+    var cached = Maximizer.results.get(key);
+    if (cached == null) {
+      SearchState state =
+          Maximizer.search(maxMe, equipScope, maxPrice, priceLevel, includeAll, filter);
+      if (state.complete) {
+        var best = filter.contains(filterType.EQUIP) ? state.best.clone() : null;
+        var result = new ResultCache.Result(state.eval, best, List.copyOf(state.boosts));
+        Maximizer.results.put(key, result, cacheSize);
+      }
+      return Maximizer.publish(state);
+    }
+
+    KoLmafia.forceContinue();
+    RequestLogger.printLine("Maximizer: " + maxMe);
+    RequestLogger.updateSessionLog("Maximizer: " + maxMe);
+    KoLConstants.maximizerMList.addItem(maxMe);
+    SearchState state = new SearchState(cached.eval());
+    if (cached.best() != null) {
+      state.best = cached.best().clone();
+    }
+    state.boosts.addAll(cached.boosts());
+    return Maximizer.publish(state);
+  }
+
+  private static SearchState publish(SearchState state) {
+    synchronized (Maximizer.boosts) {
+      Maximizer.eval = state.eval;
+      Maximizer.boosts.clear();
+      Maximizer.boosts.addAll(state.boosts);
+      Maximizer.last = state;
+    }
+    return state;
+  }
+
+  public static int getResultCacheHits() {
+    return Maximizer.results.getHits();
+  }
+
+  public static int getResultCacheMisses() {
+    return Maximizer.results.getMisses();
+  }
+
+  public static void clearResultCache() {
+    Maximizer.results.clear();
+  }
+
+  private static SearchState search(
+      String maxMe,
+      EquipScope equipScope,
+      int maxPrice,
+      PriceLevel priceLevel,
+      boolean includeAll,
+      Set<filterType> filter) {
+    KoLmafia.forceContinue();
     RequestLogger.printLine("Maximizer: " + maxMe);
     RequestLogger.updateSessionLog("Maximizer: " + maxMe);
     KoLConstants.maximizerMList.addItem(maxMe);
-    Maximizer.eval = new Evaluator(maxMe);
+    SearchState state = new SearchState(new Evaluator(maxMe));
+    SearchState previous = state.enter();
+    try {
+      state.complete =
+          Maximizer.search(state, equipScope, maxPrice, priceLevel, includeAll, filter);
+    } finally {
+      SearchState.restore(previous);
+    }
+    return state;
+  }
+
+  /**
+   * @return whether the search ran to completion, so that its result may be reused
+   */
+  private static boolean search(
+      SearchState state,
+      EquipScope equipScope,
+      int maxPrice,
+      PriceLevel priceLevel,
+      boolean includeAll,
+      Set<filterType> filter) {
     int filterCount = filter.size();
     var limitMode = KoLCharacter.getLimitMode();
+    boolean complete = true;
 
     // parsing error
     if (!KoLmafia.permitsContinue() || filterCount == 0) {
-      return;
+      return false;
     }
 
     // ensure current modifiers are up-to-date
     KoLCharacter.recalculateAdjustments();
     double current =
-        Maximizer.eval.getScore(
+        state.eval.getScore(
             KoLCharacter.getCurrentModifiers(), EquipmentManager.currentEquipment());
 
     if (maxPrice <= 0) {
@@ -146,23 +250,25 @@ public class Maximizer {
         Maximizer.firstTime ? "Maximizing (1st time may take a while)..." : "Maximizing...");
     Maximizer.firstTime = false;
 
-    Maximizer.boosts.clear();
     if (filter.contains(KoLConstants.filterType.EQUIP)) {
-      Maximizer.best = new MaximizerSpeculation();
-      Maximizer.best.getScore();
+      state.adjustments = new AdjustmentCache();
+      state.best = new MaximizerSpeculation();
+      state.best.getScore();
       // In case the current outfit scores better than any tried combination,
       // due to some newly-added constraint (such as +melee):
-      Maximizer.best.failed = true;
-      Maximizer.bestChecked = 0;
-      Maximizer.bestUpdate = System.currentTimeMillis() + 5000;
+      state.best.failed = true;
+      state.bestChecked = 0;
+      state.visited = 0;
+      state.pruned = 0;
+      state.bestUpdate = System.currentTimeMillis() + 5000;
       try {
-        Maximizer.eval.enumerateEquipment(equipScope, maxPrice, priceLevel);
+        state.eval.enumerateEquipment(equipScope, maxPrice, priceLevel);
       } catch (MaximizerExceededException e) {
-        Maximizer.boosts.add(
+        state.boosts.add(
             new Boost(
                 "", "(maximum achieved, no further combinations checked)", Slot.NONE, null, 0.0));
       } catch (MaximizerLimitException e) {
-        Maximizer.boosts.add(
+        state.boosts.add(
             new Boost(
                 "",
                 "<font color=red>(hit combination limit, optimality not guaranteed)</font>",
@@ -171,40 +277,43 @@ public class Maximizer {
                 0.0));
       } catch (MaximizerInterruptedException e) {
         KoLmafia.forceContinue();
-        Maximizer.boosts.add(
+        complete = false;
+        state.boosts.add(
             new Boost(
                 "",
                 "<font color=red>(interrupted, optimality not guaranteed)</font>",
                 Slot.NONE,
                 null,
                 0.0));
+      } finally {
+        state.adjustments = null;
       }
-      MaximizerSpeculation.showProgress();
+      state.showProgress();
 
       EnumSet<Slot> alreadyDone = EnumSet.noneOf(Slot.class);
 
       for (Slot slot : SlotSet.ACCESSORY_SLOTS) {
-        if (Maximizer.best.equipment.get(slot).getItemId() == ItemPool.SPECIAL_SAUCE_GLOVE
+        if (state.best.equipment.get(slot).getItemId() == ItemPool.SPECIAL_SAUCE_GLOVE
             && EquipmentManager.getEquipment(slot).getItemId() != ItemPool.SPECIAL_SAUCE_GLOVE) {
-          equipScope = Maximizer.emitSlot(slot, equipScope, maxPrice, priceLevel, current);
+          equipScope = Maximizer.emitSlot(state, slot, equipScope, maxPrice, priceLevel, current);
           alreadyDone.add(slot);
         }
       }
 
       for (var slot : SlotSet.ALL_SLOTS) {
         if (!alreadyDone.contains(slot)) {
-          equipScope = Maximizer.emitSlot(slot, equipScope, maxPrice, priceLevel, current);
+          equipScope = Maximizer.emitSlot(state, slot, equipScope, maxPrice, priceLevel, current);
         }
       }
     }
 
     current =
-        Maximizer.eval.getScore(
+        state.eval.getScore(
             KoLCharacter.getCurrentModifiers(), EquipmentManager.currentEquipment());
 
     // Show only equipment
     if (filter.contains(filterType.EQUIP) && filterCount == 1) {
-      return;
+      return complete;
     }
 
     // Include skills from absorbing items in Noobcore
@@ -246,7 +355,7 @@ public class Maximizer {
           if (count > 0) {
             text = "  or " + text;
           }
-          Maximizer.boosts.add(new Boost(cmd, text, ItemPool.get(itemId), delta));
+          state.boosts.add(new Boost(cmd, text, ItemPool.get(itemId), delta));
           count++;
         }
       }
@@ -319,7 +428,7 @@ public class Maximizer {
           text = text + ", " + checkedItem.pullable + " pullable";
         }
         text = text + "]";
-        Maximizer.boosts.add(new Boost(cmd, text, ItemPool.get(itemId), delta));
+        state.boosts.add(new Boost(cmd, text, ItemPool.get(itemId), delta));
       }
     }
 
@@ -358,7 +467,7 @@ public class Maximizer {
         if (Preferences.getBoolean("verboseMaximizer")) {
           text += " [" + price + " meat]";
         }
-        Maximizer.boosts.add(new Boost(cmd, text, name, delta));
+        state.boosts.add(new Boost(cmd, text, name, delta));
       }
 
       for (Map.Entry<IntOrString, String> entry :
@@ -392,10 +501,11 @@ public class Maximizer {
         if (usesRemaining < 1) {
           cmd = "";
         }
-        Maximizer.boosts.add(new Boost(cmd, text, (AdventureResult) null, delta));
+        state.boosts.add(new Boost(cmd, text, (AdventureResult) null, delta));
       }
     }
 
+    List<EffectBoost> effectBoosts = new ArrayList<>();
     for (Map.Entry<IntOrString, String> entry :
         ModifierDatabase.getAllModifiersOfType(ModifierType.EFFECT)) {
       if (!entry.getKey().isInt()) continue;
@@ -422,7 +532,7 @@ public class Maximizer {
           // uneffecting the conflicting effect, but for now just skip.
           continue;
         }
-        switch (Maximizer.eval.checkConstraints(ModifierDatabase.getEffectModifiers(effectId))) {
+        switch (state.eval.checkConstraints(ModifierDatabase.getEffectModifiers(effectId))) {
           case VIOLATES:
             continue;
           case IRRELEVANT:
@@ -443,7 +553,7 @@ public class Maximizer {
       } else {
         spec.removeEffect(effect);
         delta = spec.getScore() - current;
-        switch (Maximizer.eval.checkConstraints(ModifierDatabase.getEffectModifiers(effectId))) {
+        switch (state.eval.checkConstraints(ModifierDatabase.getEffectModifiers(effectId))) {
           case MEETS:
             continue;
           case IRRELEVANT:
@@ -461,11 +571,30 @@ public class Maximizer {
         sources = Collections.singletonList(cmd).iterator();
       }
 
+      List<String> actions = new ArrayList<>();
+      sources.forEachRemaining(actions::add);
+      effectBoosts.add(new EffectBoost(effectId, effect, hasEffect, delta, isSpecial, actions));
+    }
+
+    // Look up every stale price we may need at once, rather than one search at a time below
+    if (priceLevel != PriceLevel.DONT_CHECK) {
+      Maximizer.prefetchMallPrices(effectBoosts, equipScope, maxPrice, priceLevel, filter);
+    }
+
+    for (EffectBoost effectBoost : effectBoosts) {
+      int effectId = effectBoost.effectId();
+      AdventureResult effect = effectBoost.effect();
+      String name = effect.getName();
+      boolean hasEffect = effectBoost.hasEffect();
+      double delta = effectBoost.delta();
+      boolean isSpecial = effectBoost.isSpecial();
+      Iterator<String> sources = effectBoost.sources().iterator();
+
       boolean haveVipKey = InventoryManager.getCount(ItemPool.VIP_LOUNGE_KEY) > 0;
       boolean orFlag = false;
       while (sources.hasNext()) {
         if (!KoLmafia.permitsContinue()) {
-          return;
+          return false;
         }
 
         String cmd, text;
@@ -537,59 +666,17 @@ public class Maximizer {
             || cmd.startsWith("chew ")
             || cmd.startsWith("drink ")
             || cmd.startsWith("eat ")) {
-          // Hardcoded exception for "Trivia Master", which has a non-standard use command.
-          if (cmd.contains("use 1 Trivial Avocations Card: What?, 1 Trivial Avocations Card: When?")
-              && !MoodManager.canMasterTrivia()) {
-            continue;
-          }
+          String iName = cmd.substring(cmd.indexOf(" ") + 3).trim();
+          item = Maximizer.getSourceItem(cmd);
 
-          // Can get Box of Sunshine in hardcore/ronin, but can't use it
-          if (!KoLCharacter.canInteract() && cmd.startsWith("use 1 box of sunshine")) {
+          if (Maximizer.excludedItemSource(cmd, item, name)) {
             continue;
           }
 
-          String iName = cmd.substring(cmd.indexOf(" ") + 3).trim();
-          if (cmd.startsWith("use ")) {
-            item = ItemFinder.getFirstMatchingItem(iName, false, Match.USE);
-          } else if (cmd.startsWith("chew ")) {
-            item = ItemFinder.getFirstMatchingItem(iName, false, Match.SPLEEN);
-          } else if (cmd.startsWith("drink ")) {
-            item = ItemFinder.getFirstMatchingItem(iName, false, Match.BOOZE);
-          } else if (cmd.startsWith("eat ")) {
-            item = ItemFinder.getFirstMatchingItem(iName, false, Match.FOOD);
-          }
-
           if (item != null) {
             int itemId = item.getItemId();
 
-            // Certain items with side-effects have enchantments only in TCRS,
-            // Perhaps we should let the user accept the item - and suffer the
-            // side-effect. Perhaps we should simply exclude the item.
-            if (Maximizer.excludedTCRSItem(itemId)) {
-              continue;
-            }
-
-            // Cannot use/eat/drink items without G's in them in G-Lover except from restaurants
-            if (KoLCharacter.inGLover()
-                && !KoLCharacter.hasGs(iName)
-                && !KoLConstants.restaurantItems.contains(iName)
-                && !KoLConstants.microbreweryItems.contains(iName)
-                && !KoLConstants.cafeItems.contains(iName)) {
-              continue;
-            }
-
             if (itemId == ItemPool.VAMPIRE_VINTNER_WINE) {
-              // 1950 Vampire Vintner wine is a quest item.
-              // If you don't have it, you must adventure to get one.
-              if (!InventoryManager.hasItem(itemId)) {
-                continue;
-              }
-              // 1950 Vampire Vintner wine can provide any of seven
-              // effects.  Only consider using one if the wine you
-              // currently have provides this effect.
-              if (!Preferences.getString("vintnerWineEffect").equals(name)) {
-                continue;
-              }
               duration = 12;
             }
 
@@ -1274,31 +1361,18 @@ public class Maximizer {
         if (item != null) {
           String iname = item.getName();
 
-          if (KoLCharacter.inBeecore() && KoLCharacter.hasBeeosity(iname)) {
-            continue;
-          }
-
-          if (!StandardRequest.isAllowed(RestrictedItemType.ITEMS, iname)) {
+          if (Maximizer.excludedItem(iname)) {
             continue;
           }
 
           fullCost = ConsumablesDatabase.getFullness(iname);
-          if (fullCost != 0
-              && KoLCharacter.getFullness() + fullCost > KoLCharacter.getStomachCapacity()) {
-            cmd = "";
-          }
           drunkCost = ConsumablesDatabase.getInebriety(iname);
-          if (drunkCost != 0
-              && KoLCharacter.getInebriety() + drunkCost > KoLCharacter.getLiverCapacity()) {
-            cmd = "";
-          }
           spleenCost = ConsumablesDatabase.getSpleenHit(iname);
           if (spleenCost != 0 && !cmd.contains("chew")) {
             RequestLogger.printLine(
                 "(Note: extender for " + name + " is a spleen item that doesn't use 'chew')");
           }
-          if (spleenCost != 0
-              && KoLCharacter.getSpleenUse() + spleenCost > KoLCharacter.getSpleenLimit()) {
+          if (Maximizer.exceedsOrganCapacity(iname)) {
             cmd = "";
           }
           if (!ConsumablesDatabase.meetsLevelRequirement(iname)) {
@@ -1342,34 +1416,18 @@ public class Maximizer {
             } else if (checkedItem.pullable > 0) {
               text = "pull & " + text;
               cmd = "pull \u00B6" + itemId + ";" + cmd;
-            } else if (checkedItem.mallBuyable > 0) {
-              text = "acquire & " + text;
-              if (priceLevel != PriceLevel.DONT_CHECK) {
-                if (MallPriceDatabase.getPrice(itemId) > maxPrice * 2) {
-                  continue;
-                }
-
-                // Depending on preference, either get historical mall price or look it up
-                if (Preferences.getBoolean("maximizerCurrentMallPrices")) {
-                  price = MallPriceManager.getMallPrice(itemId);
-                } else {
-                  price = MallPriceManager.getMallPrice(itemId, 7.0f);
-                }
+            } else if (checkedItem.onlyFromMall()) {
+              if (checkedItem.mallBuyable > 0) {
+                text = "acquire & " + text;
+              } else {
+                text = "buy & pull & " + text;
+                cmd = "buy using storage 1 \u00B6" + itemId + ";pull \u00B6" + itemId + ";" + cmd;
               }
-            } else if (checkedItem.pullBuyable > 0) {
-              text = "buy & pull & " + text;
-              cmd = "buy using storage 1 \u00B6" + itemId + ";pull \u00B6" + itemId + ";" + cmd;
               if (priceLevel != PriceLevel.DONT_CHECK) {
-                if (MallPriceDatabase.getPrice(itemId) > maxPrice * 2) {
+                if (Maximizer.overPriceLimit(itemId, maxPrice)) {
                   continue;
                 }
-
-                // Depending on preference, either get historical mall price or look it up
-                if (Preferences.getBoolean("maximizerCurrentMallPrices")) {
-                  price = MallPriceManager.getMallPrice(itemId);
-                } else {
-                  price = MallPriceManager.getMallPrice(itemId, 7.0f);
-                }
+                price = Maximizer.lookUpMallPrice(itemId);
               }
             } else {
               continue;
@@ -1383,16 +1441,10 @@ public class Maximizer {
                     || checkedItem.npcBuyable > 0)) {
               // Only check mall prices on tradeable items.
               if (ItemDatabase.isTradeable(itemId) && !ClanLoungeRequest.isSpeakeasyDrink(iname)) {
-                if (MallPriceDatabase.getPrice(itemId) > maxPrice * 2) {
+                if (Maximizer.overPriceLimit(itemId, maxPrice)) {
                   continue;
                 }
-
-                // Depending on preference, either get historical mall price or look it up
-                if (Preferences.getBoolean("maximizerCurrentMallPrices")) {
-                  price = MallPriceManager.getMallPrice(itemId);
-                } else {
-                  price = MallPriceManager.getMallPrice(itemId, 7.0f);
-                }
+                price = Maximizer.lookUpMallPrice(itemId);
               }
             }
           } else if (item.getCount(KoLConstants.inventory) == 0) {
@@ -1529,22 +1581,227 @@ public class Maximizer {
         if (orFlag) {
           text = "...or " + text;
         }
-        Maximizer.boosts.add(new Boost(cmd, text, effect, hasEffect, item, delta, isSpecial));
+        state.boosts.add(new Boost(cmd, text, effect, hasEffect, item, delta, isSpecial));
         orFlag = true;
       }
     }
 
-    if (Maximizer.boosts.size() == 0) {
-      Maximizer.boosts.add(new Boost("", "(nothing useful found)", Slot.HAT, null, 0.0));
+    if (state.boosts.size() == 0) {
+      state.boosts.add(new Boost("", "(nothing useful found)", Slot.HAT, null, 0.0));
+    }
+
+    Collections.sort(state.boosts);
+    return complete;
+  }
+
+  // An effect worth suggesting, and the ways to get (or remove) it
+  private record EffectBoost(
+      int effectId,
+      AdventureResult effect,
+      boolean hasEffect,
+      double delta,
+      boolean isSpecial,
+      List<String> sources) {}
+
+  private static AdventureResult getSourceItem(String cmd) {
+    String iName = cmd.substring(cmd.indexOf(" ") + 3).trim();
+    if (cmd.startsWith("use ")) {
+      return ItemFinder.getFirstMatchingItem(iName, false, Match.USE);
+    } else if (cmd.startsWith("chew ")) {
+      return ItemFinder.getFirstMatchingItem(iName, false, Match.SPLEEN);
+    } else if (cmd.startsWith("drink ")) {
+      return ItemFinder.getFirstMatchingItem(iName, false, Match.BOOZE);
+    } else if (cmd.startsWith("eat ")) {
+      return ItemFinder.getFirstMatchingItem(iName, false, Match.FOOD);
+    }
+    return null;
+  }
+
+  private static filterType getSourceFilter(String cmd) {
+    if (cmd.startsWith("use ")) {
+      return filterType.USABLE;
+    } else if (cmd.startsWith("chew ")) {
+      return filterType.SPLEEN;
+    } else if (cmd.startsWith("drink ")) {
+      return filterType.BOOZE;
+    } else if (cmd.startsWith("eat ")) {
+      return filterType.FOOD;
+    }
+    return null;
+  }
+
+  /**
+   * Makes a single pass of mall searches for the items which the loop building boosts would
+   * otherwise price one at a time, writing the price database once at the end rather than after
+   * every search. Only items which the loop would offer to buy from the mall are included, so this
+   * searches for nothing the loop would not.
+   */
+  private static void prefetchMallPrices(
+      List<EffectBoost> effectBoosts,
+      EquipScope equipScope,
+      int maxPrice,
+      PriceLevel priceLevel,
+      Set<filterType> filter) {
+    // Outside Ronin/Hardcore, the loop always shows all purchasable items
+    EquipScope showScope = KoLCharacter.canInteract() ? EquipScope.SPECULATE_ANY : equipScope;
+    if (showScope != EquipScope.SPECULATE_ANY) {
+      return;
+    }
+
+    Set<Integer> seen = new HashSet<>();
+    List<AdventureResult> items = new ArrayList<>();
+    for (EffectBoost effectBoost : effectBoosts) {
+      String name = effectBoost.effect().getName();
+      for (String cmd : effectBoost.sources()) {
+        if (!filter.contains(Maximizer.getSourceFilter(cmd))) continue;
+        AdventureResult item = Maximizer.getSourceItem(cmd);
+        if (item == null) continue;
+        int itemId = item.getItemId();
+        if (itemId <= 0 || !seen.add(itemId)) continue;
+        if (!Maximizer.wouldBuyFromMall(item, cmd, name, showScope, maxPrice, priceLevel)) continue;
+        items.add(item);
+      }
+    }
+    if (items.isEmpty()) {
+      return;
+    }
+
+    float maxAge = Preferences.getBoolean("maximizerCurrentMallPrices") ? 0.0f : 7.0f;
+    MallPriceManager.getMallPrices(items.toArray(new AdventureResult[0]), maxAge, true);
+  }
+
+  /**
+   * Whether the loop building boosts would look up the mall price of an item source: whether the
+   * item passes the same checks there, and would be bought, or bought and pulled, rather than taken
+   * from inventory, made, bought from an NPC or pulled.
+   */
+  private static boolean wouldBuyFromMall(
+      AdventureResult item,
+      String cmd,
+      String effectName,
+      EquipScope showScope,
+      int maxPrice,
+      PriceLevel priceLevel) {
+    int itemId = item.getItemId();
+    String iname = item.getName();
+
+    if (Maximizer.excludedItemSource(cmd, item, effectName)
+        || UseItemRequest.maximumUses(itemId) <= 0
+        || Maximizer.excludedItem(iname)
+        || Maximizer.exceedsOrganCapacity(iname)
+        || !ConsumablesDatabase.meetsLevelRequirement(iname)) {
+      return false;
+    }
+
+    CheckedItem checkedItem = new CheckedItem(itemId, showScope, maxPrice, priceLevel);
+    return checkedItem.onlyFromMall() && !Maximizer.overPriceLimit(itemId, maxPrice);
+  }
+
+  /**
+   * @return whether a use, chew, drink or eat source cannot be used to get the effect, whatever
+   *     the character has of the item
+   */
+  private static boolean excludedItemSource(String cmd, AdventureResult item, String effectName) {
+    // Hardcoded exception for "Trivia Master", which has a non-standard use command.
+    if (cmd.contains("use 1 Trivial Avocations Card: What?, 1 Trivial Avocations Card: When?")
+        && !MoodManager.canMasterTrivia()) {
+      return true;
+    }
+
+    // Can get Box of Sunshine in hardcore/ronin, but can't use it
+    if (!KoLCharacter.canInteract() && cmd.startsWith("use 1 box of sunshine")) {
+      return true;
+    }
+
+    if (item == null) {
+      return false;
+    }
+
+    int itemId = item.getItemId();
+    String iName = cmd.substring(cmd.indexOf(" ") + 3).trim();
+
+    // Certain items with side-effects have enchantments only in TCRS,
+    // Perhaps we should let the user accept the item - and suffer the
+    // side-effect. Perhaps we should simply exclude the item.
+    if (Maximizer.excludedTCRSItem(itemId)) {
+      return true;
+    }
+
+    // Cannot use/eat/drink items without G's in them in G-Lover except from restaurants
+    if (KoLCharacter.inGLover()
+        && !KoLCharacter.hasGs(iName)
+        && !KoLConstants.restaurantItems.contains(iName)
+        && !KoLConstants.microbreweryItems.contains(iName)
+        && !KoLConstants.cafeItems.contains(iName)) {
+      return true;
+    }
+
+    if (itemId == ItemPool.VAMPIRE_VINTNER_WINE) {
+      // 1950 Vampire Vintner wine is a quest item.
+      // If you don't have it, you must adventure to get one.
+      if (!InventoryManager.hasItem(itemId)) {
+        return true;
+      }
+      // 1950 Vampire Vintner wine can provide any of seven
+      // effects.  Only consider using one if the wine you
+      // currently have provides this effect.
+      return !Preferences.getString("vintnerWineEffect").equals(effectName);
+    }
+
+    return false;
+  }
+
+  /**
+   * @return whether an item cannot be used in the current path
+   */
+  private static boolean excludedItem(String iname) {
+    if (KoLCharacter.inBeecore() && KoLCharacter.hasBeeosity(iname)) {
+      return true;
     }
+    return !StandardRequest.isAllowed(RestrictedItemType.ITEMS, iname);
+  }
 
-    Maximizer.boosts.sort();
+  /**
+   * @return whether consuming an item would overfill the character's stomach, liver or spleen
+   */
+  private static boolean exceedsOrganCapacity(String iname) {
+    int fullCost = ConsumablesDatabase.getFullness(iname);
+    if (fullCost != 0
+        && KoLCharacter.getFullness() + fullCost > KoLCharacter.getStomachCapacity()) {
+      return true;
+    }
+    int drunkCost = ConsumablesDatabase.getInebriety(iname);
+    if (drunkCost != 0
+        && KoLCharacter.getInebriety() + drunkCost > KoLCharacter.getLiverCapacity()) {
+      return true;
+    }
+    int spleenCost = ConsumablesDatabase.getSpleenHit(iname);
+    return spleenCost != 0
+        && KoLCharacter.getSpleenUse() + spleenCost > KoLCharacter.getSpleenLimit();
+  }
+
+  // Items last seen in the mall at more than twice the limit are not worth a search
+  private static boolean overPriceLimit(int itemId, int maxPrice) {
+    return MallPriceDatabase.getPrice(itemId) > maxPrice * 2;
+  }
+
+  private static int lookUpMallPrice(int itemId) {
+    // Depending on preference, either get historical mall price or look it up
+    if (Preferences.getBoolean("maximizerCurrentMallPrices")) {
+      return MallPriceManager.getMallPrice(itemId);
+    }
+    return MallPriceManager.getMallPrice(itemId, 7.0f);
   }
 
   private static EquipScope emitSlot(
-      Slot slot, EquipScope equipScope, int maxPrice, PriceLevel priceLevel, double current) {
+      SearchState state,
+      Slot slot,
+      EquipScope equipScope,
+      int maxPrice,
+      PriceLevel priceLevel,
+      double current) {
     if (slot == Slot.FAMILIAR) { // Insert any familiar switch at this point
-      FamiliarData fam = Maximizer.best.getFamiliar();
+      FamiliarData fam = state.best.getFamiliar();
       if (!fam.equals(KoLCharacter.getFamiliar())) {
         MaximizerSpeculation spec = new MaximizerSpeculation();
         spec.setFamiliar(fam);
@@ -1558,17 +1815,17 @@ public class Maximizer {
           boost.execute(true);
           if (!KoLmafia.permitsContinue()) equipScope = EquipScope.SPECULATE_INVENTORY;
         } else {
-          Maximizer.boosts.add(boost);
+          state.boosts.add(boost);
         }
       }
     }
 
     String slotname = slot.name;
-    AdventureResult item = Maximizer.best.equipment.get(slot);
+    AdventureResult item = state.best.equipment.get(slot);
     int itemId = -1;
-    FamiliarData enthroned = Maximizer.best.getEnthroned();
-    FamiliarData bjorned = Maximizer.best.getBjorned();
-    var modeables = Maximizer.best.getModeables();
+    FamiliarData enthroned = state.best.getEnthroned();
+    FamiliarData bjorned = state.best.getBjorned();
+    var modeables = state.best.getModeables();
     AdventureResult curr = EquipmentManager.getEquipment(slot);
     FamiliarData currEnthroned = KoLCharacter.getEnthroned();
     FamiliarData currBjorned = KoLCharacter.getBjorned();
@@ -1601,7 +1858,7 @@ public class Maximizer {
           || equipScope == EquipScope.EQUIP_NOW) {
         return equipScope;
       }
-      Maximizer.boosts.add(
+      state.boosts.add(
           new Boost("", "keep " + slotname + ": " + item.getName(), Slot.NONE, item, 0.0));
       return equipScope;
     }
@@ -1661,7 +1918,7 @@ public class Maximizer {
         }
       } else {
         // Otherwise we iterate through the maximization set so far
-        for (Boost boost : Maximizer.boosts) {
+        for (Boost boost : state.boosts) {
           if (item.equals(boost.getItem())) {
             count++;
           }
@@ -1773,10 +2030,10 @@ public class Maximizer {
       boost.execute(true);
       if (!KoLmafia.permitsContinue()) {
         equipScope = EquipScope.SPECULATE_INVENTORY;
-        Maximizer.boosts.add(boost);
+        state.boosts.add(boost);
       }
     } else {
-      Maximizer.boosts.add(boost);
+      state.boosts.add(boost);
     }
     return equipScope;
   }
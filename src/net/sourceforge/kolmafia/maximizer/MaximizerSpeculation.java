@@ -1,8 +1,10 @@
 package net.sourceforge.kolmafia.maximizer;
 
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import net.sourceforge.kolmafia.AdjustmentCache;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.FamiliarData;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -39,12 +41,20 @@ public class MaximizerSpeculation extends Speculation
   public boolean failed = false;
   public CheckedItem attachment;
   private boolean foldables = false;
+  // The maximization this speculation was made for, if any
+  final SearchState search = SearchState.current();
+  // Set when this speculation is one task of a parallel search
+  ParallelSearch.Worker worker = null;
+  // The score of the partial loadout last bounded by canImprove, and the slots it left undecided
+  private double partialScore = Double.NaN;
+  private EnumSet<Slot> partialOpen = EnumSet.noneOf(Slot.class);
 
   @Override
   public MaximizerSpeculation clone() {
     try {
       MaximizerSpeculation copy = (MaximizerSpeculation) super.clone();
       copy.equipment = this.equipment.clone();
+      copy.partialOpen = this.partialOpen.clone();
       return copy;
     } catch (CloneNotSupportedException e) {
       return null;
@@ -59,6 +69,16 @@ public class MaximizerSpeculation extends Speculation
     return super.toString();
   }
 
+  @Override
+  protected AdjustmentCache getAdjustmentCache() {
+    return this.search != null ? this.search.adjustments : null;
+  }
+
+  // Outside a maximization, speculations are scored by the last one to finish
+  private Evaluator eval() {
+    return this.search != null ? this.search.eval : Maximizer.eval;
+  }
+
   public void setUnscored() {
     this.scored = false;
     this.calculated = false;
@@ -67,19 +87,21 @@ public class MaximizerSpeculation extends Speculation
   public double getScore() {
     if (this.scored) return this.score;
     if (!this.calculated) this.calculate();
-    this.score = Maximizer.eval.getScore(this.mods, this.equipment);
+    Evaluator eval = this.eval();
+    Evaluator.Outcome outcome = new Evaluator.Outcome();
+    this.score = eval.getScore(this.mods, this.equipment, outcome);
     if (KoLCharacter.inBeecore()) {
       this.beeosity = KoLCharacter.getBeeosity(this.equipment);
     }
-    Maximizer.eval.checkEquipment(this.mods, this.equipment, this.beeosity);
-    this.failed = Maximizer.eval.failed;
+    eval.checkEquipment(this.mods, this.equipment, this.beeosity, outcome);
+    this.failed = outcome.failed;
     if ((this.mods.getRawBitmap(BitmapModifier.MUTEX_VIOLATIONS)
             & ~KoLCharacter.currentRawBitmapModifier(BitmapModifier.MUTEX_VIOLATIONS))
         != 0) { // We're speculating about something that would create a
       // mutex problem that the player didn't already have.
       this.failed = true;
     }
-    this.exceeded = Maximizer.eval.exceeded;
+    this.exceeded = outcome.exceeded;
     this.scored = true;
     return this.score;
   }
@@ -87,7 +109,7 @@ public class MaximizerSpeculation extends Speculation
   public double getTiebreaker() {
     if (this.tiebreakered) return this.tiebreaker;
     if (!this.calculated) this.calculate();
-    this.tiebreaker = Maximizer.eval.getTiebreaker(this.mods);
+    this.tiebreaker = this.eval().getTiebreaker(this.mods);
     this.tiebreakered = true;
     this.simplicity = 0;
     for (var slot : SlotSet.ALL_SLOTS) {
@@ -146,18 +168,18 @@ public class MaximizerSpeculation extends Speculation
       if (mods.getBoolean(BooleanModifier.DROPS_MEAT)) countOtherDropsMeat++;
     }
     // Prefer item droppers
-    if (Maximizer.eval.isUsingTiebreaker() && countThisDropsItems != countOtherDropsItems) {
+    if (this.eval().isUsingTiebreaker() && countThisDropsItems != countOtherDropsItems) {
       return countThisDropsItems > countOtherDropsItems ? 1 : -1;
     }
     // Prefer meat droppers
-    if (Maximizer.eval.isUsingTiebreaker() && countThisDropsMeat != countOtherDropsMeat) {
+    if (this.eval().isUsingTiebreaker() && countThisDropsMeat != countOtherDropsMeat) {
       return countThisDropsMeat > countOtherDropsMeat ? 1 : -1;
     }
     // Prefer higher tiebreaker account (unless -tie used)
     rv = Double.compare(this.getTiebreaker(), other.getTiebreaker());
     if (rv != 0) return rv;
     // Prefer rollover effects
-    if (Maximizer.eval.isUsingTiebreaker() && countThisEffects != countOtherEffects) {
+    if (this.eval().isUsingTiebreaker() && countThisEffects != countOtherEffects) {
       return countThisEffects > countOtherEffects ? 1 : -1;
     }
     // Prefer unbreakables
@@ -211,6 +233,21 @@ public class MaximizerSpeculation extends Speculation
       FamiliarData useBjornFamiliar)
       throws MaximizerInterruptedException {
     this.foldables = Preferences.getBoolean("maximizerFoldables");
+    int threads = ParallelSearch.threadCount();
+    if (threads > 1) {
+      ParallelSearch.tryAll(
+          threads,
+          this,
+          familiars,
+          enthronedFamiliars,
+          usefulOutfits,
+          outfitPieces,
+          possibles,
+          bestCard,
+          useCrownFamiliar,
+          useBjornFamiliar);
+      return;
+    }
     this.tryOutfits(
         enthronedFamiliars,
         usefulOutfits,
@@ -242,74 +279,93 @@ public class MaximizerSpeculation extends Speculation
       FamiliarData useCrownFamiliar,
       FamiliarData useBjornFamiliar)
       throws MaximizerInterruptedException {
-    var mark = this.mark();
     for (Integer outfit : usefulOutfits.keySet()) {
       if (!usefulOutfits.get(outfit)) continue;
-      AdventureResult[] pieces = EquipmentDatabase.getOutfit(outfit).getPieces();
-      pieceloop:
-      for (int idx = pieces.length - 1; ; --idx) {
-        if (idx == -1) { // all pieces successfully put on
-          this.tryFamiliarItems(
-              enthronedFamiliars, possibles, bestCard, useCrownFamiliar, useBjornFamiliar);
-          break;
-        }
-        AdventureResult item = outfitPieces.get(pieces[idx]);
-        if (item == null) break; // not available
-        int count = item.getCount();
-        Slot slot = EquipmentManager.itemIdToEquipmentType(item.getItemId());
-
-        switch (slot) {
-          case HAT:
-          case PANTS:
-          case SHIRT:
-          case CONTAINER:
-            if (item.equals(this.equipment.get(slot))) { // already worn
-              continue pieceloop;
-            }
-            if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
-              --count;
-            }
-            break;
-          case WEAPON:
-          case OFFHAND:
-            if (item.equals(this.equipment.get(Slot.WEAPON))
-                || item.equals(this.equipment.get(Slot.OFFHAND))) { // already worn
-              continue pieceloop;
-            }
-            if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
-              --count;
-            }
-            break;
-          case ACCESSORY1:
-            if (item.equals(this.equipment.get(Slot.ACCESSORY1))
-                || item.equals(this.equipment.get(Slot.ACCESSORY2))
-                || item.equals(this.equipment.get(Slot.ACCESSORY3))) { // already worn
-              continue pieceloop;
-            }
-            if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
-              --count;
-            }
-            if (this.equipment.get(Slot.ACCESSORY3) == null) {
-              slot = Slot.ACCESSORY3;
-            } else if (this.equipment.get(Slot.ACCESSORY2) == null) {
-              slot = Slot.ACCESSORY2;
-            }
-            break;
-          default:
-            break pieceloop; // don't know how to wear that
-        }
-
-        if (count <= 0) break; // none available
-        if (this.equipment.get(slot) != null) break; // slot taken
-        this.equipment.put(slot, item);
-      }
-      this.restore(mark);
+      this.tryOutfit(
+          outfit,
+          enthronedFamiliars,
+          outfitPieces,
+          possibles,
+          bestCard,
+          useCrownFamiliar,
+          useBjornFamiliar);
     }
 
     this.tryFamiliarItems(
         enthronedFamiliars, possibles, bestCard, useCrownFamiliar, useBjornFamiliar);
   }
 
+  public void tryOutfit(
+      int outfit,
+      List<FamiliarData> enthronedFamiliars,
+      Map<AdventureResult, AdventureResult> outfitPieces,
+      SlotList<CheckedItem> possibles,
+      AdventureResult bestCard,
+      FamiliarData useCrownFamiliar,
+      FamiliarData useBjornFamiliar)
+      throws MaximizerInterruptedException {
+    var mark = this.mark();
+    AdventureResult[] pieces = EquipmentDatabase.getOutfit(outfit).getPieces();
+    pieceloop:
+    for (int idx = pieces.length - 1; ; --idx) {
+      if (idx == -1) { // all pieces successfully put on
+        this.tryFamiliarItems(
+            enthronedFamiliars, possibles, bestCard, useCrownFamiliar, useBjornFamiliar);
+        break;
+      }
+      AdventureResult item = outfitPieces.get(pieces[idx]);
+      if (item == null) break; // not available
+      int count = item.getCount();
+      Slot slot = EquipmentManager.itemIdToEquipmentType(item.getItemId());
+
+      switch (slot) {
+        case HAT:
+        case PANTS:
+        case SHIRT:
+        case CONTAINER:
+          if (item.equals(this.equipment.get(slot))) { // already worn
+            continue pieceloop;
+          }
+          if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
+            --count;
+          }
+          break;
+        case WEAPON:
+        case OFFHAND:
+          if (item.equals(this.equipment.get(Slot.WEAPON))
+              || item.equals(this.equipment.get(Slot.OFFHAND))) { // already worn
+            continue pieceloop;
+          }
+          if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
+            --count;
+          }
+          break;
+        case ACCESSORY1:
+          if (item.equals(this.equipment.get(Slot.ACCESSORY1))
+              || item.equals(this.equipment.get(Slot.ACCESSORY2))
+              || item.equals(this.equipment.get(Slot.ACCESSORY3))) { // already worn
+            continue pieceloop;
+          }
+          if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
+            --count;
+          }
+          if (this.equipment.get(Slot.ACCESSORY3) == null) {
+            slot = Slot.ACCESSORY3;
+          } else if (this.equipment.get(Slot.ACCESSORY2) == null) {
+            slot = Slot.ACCESSORY2;
+          }
+          break;
+        default:
+          break pieceloop; // don't know how to wear that
+      }
+
+      if (count <= 0) break; // none available
+      if (this.equipment.get(slot) != null) break; // slot taken
+      this.equipment.put(slot, item);
+    }
+    this.restore(mark);
+  }
+
   public void tryFamiliarItems(
       List<FamiliarData> enthronedFamiliars,
       SlotList<CheckedItem> possibles,
@@ -372,6 +428,7 @@ public class MaximizerSpeculation extends Speculation
       FamiliarData useCrownFamiliar,
       FamiliarData useBjornFamiliar)
       throws MaximizerInterruptedException {
+    if (!this.canImprove()) return;
     var mark = this.mark();
     if (this.equipment.get(Slot.CONTAINER) == null) {
       List<CheckedItem> possible = possibles.get(Slot.CONTAINER);
@@ -430,6 +487,7 @@ public class MaximizerSpeculation extends Speculation
       AdventureResult bestCard,
       FamiliarData useCrownFamiliar)
       throws MaximizerInterruptedException {
+    if (pos == 0 && !this.canImprove()) return;
     var mark = this.mark();
     int free = 0;
     if (this.equipment.get(Slot.ACCESSORY1) == null) ++free;
@@ -509,6 +567,7 @@ public class MaximizerSpeculation extends Speculation
       AdventureResult bestCard,
       FamiliarData useCrownFamiliar)
       throws MaximizerInterruptedException {
+    if (!this.canImprove()) return;
     var mark = this.mark();
     if (this.equipment.get(Slot.HAT) == null) {
       List<CheckedItem> possible = possibles.get(Slot.HAT);
@@ -568,6 +627,7 @@ public class MaximizerSpeculation extends Speculation
 
   public void tryShirts(SlotList<CheckedItem> possibles, AdventureResult bestCard)
       throws MaximizerInterruptedException {
+    if (!this.canImprove()) return;
     var mark = this.mark();
     if (this.equipment.get(Slot.SHIRT) == null) {
       boolean any = false;
@@ -610,6 +670,7 @@ public class MaximizerSpeculation extends Speculation
 
   public void tryPants(SlotList<CheckedItem> possibles, AdventureResult bestCard)
       throws MaximizerInterruptedException {
+    if (!this.canImprove()) return;
     var mark = this.mark();
     if (this.equipment.get(Slot.PANTS) == null) {
       List<CheckedItem> possible = possibles.get(Slot.PANTS);
@@ -674,6 +735,7 @@ public class MaximizerSpeculation extends Speculation
 
   public void tryWeapons(SlotList<CheckedItem> possibles, AdventureResult bestCard)
       throws MaximizerInterruptedException {
+    if (!this.canImprove()) return;
     var mark = this.mark();
     boolean chefstaffable =
         KoLCharacter.hasSkill(SkillPool.SPIRIT_OF_RIGATONI) || KoLCharacter.isJarlsberg();
@@ -719,7 +781,7 @@ public class MaximizerSpeculation extends Speculation
       }
 
       // if ( any && <no unarmed items in shortlists> ) return;
-      if (Maximizer.eval.melee < -1 || Maximizer.eval.melee > 1) {
+      if (this.eval().melee < -1 || this.eval().melee > 1) {
         return;
       }
       this.equipment.put(Slot.WEAPON, EquipmentRequest.UNEQUIP);
@@ -792,23 +854,33 @@ public class MaximizerSpeculation extends Speculation
     }
 
     // doit
+    if (!this.mayBeat()) {
+      this.restore(mark);
+      return;
+    }
     this.calculated = false;
     this.scored = false;
     this.tiebreakered = false;
-    if (Maximizer.best == null) {
+    if (this.worker != null) {
+      this.worker.consider(this);
+      this.restore(mark);
+      this.worker.checkContinue(this.exceeded);
+      return;
+    }
+    if (this.search.best == null) {
       RequestLogger.updateSessionLog(
           "Maximizer about to throw LimitExceeded because of null best.");
       // this isn't really what is happening but trying to understand why this is happening, first.
       throw new MaximizerLimitException();
     }
-    if (this.compareTo(Maximizer.best) > 0) {
-      Maximizer.best = this.clone();
+    if (this.compareTo(this.search.best) > 0) {
+      this.search.best = this.clone();
     }
-    Maximizer.bestChecked++;
+    this.search.bestChecked++;
     long t = System.currentTimeMillis();
-    if (t > Maximizer.bestUpdate) {
-      MaximizerSpeculation.showProgress();
-      Maximizer.bestUpdate = t + 5000;
+    if (t > this.search.bestUpdate) {
+      this.search.showProgress();
+      this.search.bestUpdate = t + 5000;
     }
     this.restore(mark);
     if (!KoLmafia.permitsContinue()) {
@@ -818,11 +890,68 @@ public class MaximizerSpeculation extends Speculation
       throw new MaximizerExceededException();
     }
     long comboLimit = Preferences.getLong("maximizerCombinationLimit");
-    if (comboLimit != 0 && Maximizer.bestChecked >= comboLimit) {
+    if (comboLimit != 0 && this.search.bestChecked >= comboLimit) {
       throw new MaximizerLimitException();
     }
   }
 
+  /**
+   * Checks whether any loadout below this partial one could beat the best found so far, by scoring
+   * it with every undecided slot empty and adding the upper bound of each undecided slot.
+   */
+  private boolean canImprove() {
+    this.partialScore = Double.NaN;
+    SlotBounds bounds = this.eval().bounds;
+    MaximizerSpeculation best = this.worker != null ? this.worker.best : this.search.best;
+    if (bounds == null || best == null || best.failed) return true;
+    double remaining = bounds.remaining(this.equipment);
+    if (remaining == Double.POSITIVE_INFINITY) return true;
+
+    MaximizerSpeculation partial = this.clone();
+    partial.worker = null;
+    this.partialOpen.clear();
+    for (var slot : SlotSet.SLOTS) {
+      if (partial.equipment.get(slot) == null) {
+        partial.equipment.put(slot, EquipmentRequest.UNEQUIP);
+        this.partialOpen.add(slot);
+      }
+    }
+    partial.setUnscored();
+    double score = partial.getScore();
+    this.partialScore = score;
+    return !this.bounded(SlotBounds.cannotBeat(score + remaining, best.getScore()));
+  }
+
+  /**
+   * Checks whether this complete loadout could beat the best found so far without calculating its
+   * modifiers, by adding the upper bound of each item chosen since the last partial loadout scored
+   * by {@link #canImprove} to that partial score.
+   */
+  private boolean mayBeat() {
+    if (Double.isNaN(this.partialScore)) return true;
+    MaximizerSpeculation best = this.worker != null ? this.worker.best : this.search.best;
+    if (best == null || best.failed) return true;
+
+    double bound = this.partialScore;
+    for (var slot : this.partialOpen) {
+      AdventureResult item = this.equipment.get(slot);
+      if (item == null || item.equals(EquipmentRequest.UNEQUIP)) continue;
+      if (!(item instanceof CheckedItem checked)) return true;
+      bound += checked.upperBound;
+    }
+    return !this.bounded(SlotBounds.cannotBeat(bound, best.getScore()));
+  }
+
+  private boolean bounded(boolean prune) {
+    if (this.worker != null) {
+      this.worker.bounded(prune);
+    } else {
+      this.search.visited++;
+      if (prune) this.search.pruned++;
+    }
+    return prune;
+  }
+
   private static int getMutex(AdventureResult item) {
     Modifiers mods = ModifierDatabase.getItemModifiers(item.getItemId());
     if (mods == null) {
@@ -864,13 +993,20 @@ public class MaximizerSpeculation extends Speculation
     }
   }
 
-  public static void showProgress() {
+  static void showProgress(int checked, int visited, int pruned, MaximizerSpeculation best) {
     StringBuilder msg = new StringBuilder();
-    msg.append(Maximizer.bestChecked);
-    msg.append(" combinations checked, best score ");
-    double score = Maximizer.best.getScore();
+    msg.append(checked);
+    msg.append(" combinations checked, ");
+    if (visited > 0) {
+      msg.append(pruned);
+      msg.append(" of ");
+      msg.append(visited);
+      msg.append(" bounded combinations pruned, ");
+    }
+    msg.append("best score ");
+    double score = best.getScore();
     msg.append(KoLConstants.FLOAT_FORMAT.format(score));
-    if (Maximizer.best.failed) {
+    if (best.failed) {
       msg.append(" (FAIL)");
     }
     // if ( MaximizerFrame.best.tiebreakered )
@@ -0,0 +1,263 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.FamiliarData;
+import net.sourceforge.kolmafia.KoLmafia;
+import net.sourceforge.kolmafia.RequestLogger;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.preferences.Preferences;
+
+/**
+ * Fork-join mode for the equipment enumeration in {@link MaximizerSpeculation#tryAll}.
+ *
+ * <p>The search space is split by familiar and by outfit, which are the two outermost loops of
+ * the serial search. Each task works on its own copy of the speculation and of the candidate
+ * lists, and keeps its own best-so-far. Once every task has finished, the per-task results are
+ * merged in the same order the serial search would have visited them, so ties are broken exactly
+ * as before.
+ *
+ * <p>Tasks score their loadouts concurrently. Speculations do not write the character's static
+ * state, the modifier database and the passive skill cache publish snapshots which are never
+ * changed, and the evaluator reports each score's outcome to the speculation which asked for it.
+ *
+ * <p>The combination limit is shared between all tasks. The first task to be interrupted, to hit
+ * the combination limit or to reach the maximum possible score stops the others, and that reason
+ * is rethrown once the results have been merged.
+ */
+class ParallelSearch {
+  private final SearchState state;
+  private final long comboLimit;
+  private final List<Worker> workers = new ArrayList<>();
+  private final AtomicInteger checked = new AtomicInteger();
+  private final AtomicInteger visited = new AtomicInteger();
+  private final AtomicInteger pruned = new AtomicInteger();
+  private final AtomicReference<MaximizerInterruptedException> stopReason =
+      new AtomicReference<>();
+  private long nextUpdate;
+
+  private ParallelSearch(SearchState state) {
+    this.state = state;
+    this.comboLimit = Preferences.getLong("maximizerCombinationLimit");
+    this.checked.set(state.bestChecked);
+    this.visited.set(state.visited);
+    this.pruned.set(state.pruned);
+    this.nextUpdate = state.bestUpdate;
+  }
+
+  /**
+   * @return the number of threads to search with, or 1 if the search should be run serially
+   */
+  static int threadCount() {
+    int threads = Preferences.getInteger("maximizerThreads");
+    if (threads <= 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    return Math.max(1, threads);
+  }
+
+  static void tryAll(
+      int threads,
+      MaximizerSpeculation spec,
+      List<FamiliarData> familiars,
+      List<FamiliarData> enthronedFamiliars,
+      Map<Integer, Boolean> usefulOutfits,
+      Map<AdventureResult, AdventureResult> outfitPieces,
+      SlotList<CheckedItem> possibles,
+      AdventureResult bestCard,
+      FamiliarData useCrownFamiliar,
+      FamiliarData useBjornFamiliar)
+      throws MaximizerInterruptedException {
+    if (spec.search.best == null) {
+      RequestLogger.updateSessionLog(
+          "Maximizer about to throw LimitExceeded because of null best.");
+      throw new MaximizerLimitException();
+    }
+
+    ParallelSearch search = new ParallelSearch(spec.search);
+    List<Callable<Void>> tasks = new ArrayList<>();
+
+    // Same order as the serial search: current familiar first, then each candidate familiar.
+    for (int fam = -1; fam < familiars.size(); ++fam) {
+      FamiliarData familiar = fam < 0 ? null : familiars.get(fam);
+      List<CheckedItem> familiarItems =
+          fam < 0 ? possibles.get(Slot.FAMILIAR) : possibles.getFamiliar(fam);
+
+      for (Integer outfit : usefulOutfits.keySet()) {
+        if (!usefulOutfits.get(outfit)) continue;
+        Worker worker = search.newWorker(spec, familiar, possibles, familiarItems);
+        tasks.add(
+            worker.task(
+                () ->
+                    worker.spec.tryOutfit(
+                        outfit,
+                        enthronedFamiliars,
+                        outfitPieces,
+                        worker.possibles,
+                        bestCard,
+                        useCrownFamiliar,
+                        useBjornFamiliar)));
+      }
+
+      Worker worker = search.newWorker(spec, familiar, possibles, familiarItems);
+      tasks.add(
+          worker.task(
+              () ->
+                  worker.spec.tryFamiliarItems(
+                      enthronedFamiliars,
+                      worker.possibles,
+                      bestCard,
+                      useCrownFamiliar,
+                      useBjornFamiliar)));
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(Math.min(threads, tasks.size()));
+    try {
+      for (Future<Void> future : pool.invokeAll(tasks)) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      search.stop(new MaximizerInterruptedException());
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+
+    search.merge();
+
+    MaximizerInterruptedException reason = search.stopReason.get();
+    if (reason != null) {
+      throw reason;
+    }
+  }
+
+  private Worker newWorker(
+      MaximizerSpeculation spec,
+      FamiliarData familiar,
+      SlotList<CheckedItem> possibles,
+      List<CheckedItem> familiarItems) {
+    Worker worker = new Worker(spec.clone(), new SlotList<>(possibles));
+    if (familiar != null) {
+      worker.spec.setFamiliar(familiar);
+    }
+    worker.possibles.set(Slot.FAMILIAR, familiarItems);
+    worker.spec.worker = worker;
+    this.workers.add(worker);
+    return worker;
+  }
+
+  private void merge() {
+    SearchState state = this.state;
+    for (Worker worker : this.workers) {
+      if (worker.best.compareTo(state.best) > 0) {
+        state.best = worker.best;
+      }
+    }
+    state.best.worker = null;
+    state.bestChecked = this.checked.get();
+    state.visited = this.visited.get();
+    state.pruned = this.pruned.get();
+    state.bestUpdate = this.nextUpdate;
+  }
+
+  private void stop(MaximizerInterruptedException reason) {
+    this.stopReason.compareAndSet(null, reason);
+  }
+
+  private void showProgress() {
+    MaximizerSpeculation best = this.state.best;
+    for (Worker worker : this.workers) {
+      if (worker.best.compareTo(best) > 0) {
+        best = worker.best;
+      }
+    }
+    MaximizerSpeculation.showProgress(
+        this.checked.get(), this.visited.get(), this.pruned.get(), best);
+  }
+
+  interface SearchTask {
+    void run() throws MaximizerInterruptedException;
+  }
+
+  class Worker {
+    final MaximizerSpeculation spec;
+    final SlotList<CheckedItem> possibles;
+    // Read by other tasks to show progress
+    volatile MaximizerSpeculation best;
+
+    Worker(MaximizerSpeculation spec, SlotList<CheckedItem> possibles) {
+      this.spec = spec;
+      this.possibles = possibles;
+      this.best = ParallelSearch.this.state.best;
+    }
+
+    Callable<Void> task(SearchTask task) {
+      return () -> {
+        if (ParallelSearch.this.stopReason.get() != null) {
+          return null;
+        }
+        try {
+          task.run();
+        } catch (MaximizerInterruptedException e) {
+          ParallelSearch.this.stop(e);
+        }
+        return null;
+      };
+    }
+
+    /** Scores a complete loadout. Equivalent to the end of the serial search in tryOffhands. */
+    void consider(MaximizerSpeculation candidate) {
+      if (candidate.compareTo(this.best) > 0) {
+        MaximizerSpeculation best = candidate.clone();
+        best.worker = null;
+        this.best = best;
+      }
+      ParallelSearch.this.checked.incrementAndGet();
+      long t = System.currentTimeMillis();
+      synchronized (ParallelSearch.this) {
+        if (t > ParallelSearch.this.nextUpdate) {
+          ParallelSearch.this.showProgress();
+          ParallelSearch.this.nextUpdate = t + 5000;
+        }
+      }
+    }
+
+    /** Counts a partial loadout checked against its upper bound, and whether it was pruned. */
+    void bounded(boolean pruned) {
+      ParallelSearch.this.visited.incrementAndGet();
+      if (pruned) {
+        ParallelSearch.this.pruned.incrementAndGet();
+      }
+    }
+
+    void checkContinue(boolean exceeded) throws MaximizerInterruptedException {
+      if (ParallelSearch.this.stopReason.get() != null) {
+        // Another task has already decided the outcome.
+        throw new MaximizerInterruptedException();
+      }
+      if (!KoLmafia.permitsContinue()) {
+        throw new MaximizerInterruptedException();
+      }
+      if (exceeded) {
+        throw new MaximizerExceededException();
+      }
+      long comboLimit = ParallelSearch.this.comboLimit;
+      if (comboLimit != 0 && ParallelSearch.this.checked.get() >= comboLimit) {
+        throw new MaximizerLimitException();
+      }
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.AscensionClass;
+import net.sourceforge.kolmafia.AscensionPath.Path;
+import net.sourceforge.kolmafia.FamiliarData;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.KoLConstants.filterType;
+import net.sourceforge.kolmafia.Modifiers;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.session.EquipmentManager;
+import net.sourceforge.kolmafia.session.LimitMode;
+
+/**
+ * Least recently used cache of maximizer results, so that asking for the same expression again
+ * while nothing about the character has changed does not search again. Results are keyed by the
+ * arguments of the maximization and by a snapshot of everything the maximizer reads from the
+ * character.
+ */
+class ResultCache {
+  record Key(
+      String expression,
+      EquipScope equipScope,
+      int maxPrice,
+      PriceLevel priceLevel,
+      boolean includeAll,
+      Set<filterType> filter,
+      State state) {}
+
+  record Result(Evaluator eval, MaximizerSpeculation best, List<Boost> boosts) {}
+
+  // Rewritten by every maximization, without changing what it finds
+  private static final Set<String> IGNORED_PREFERENCES = Set.of("maximizerMRUList");
+
+  private final Map<Key, Result> results = new LinkedHashMap<>(16, 0.75f, true);
+  private int hits = 0;
+  private int misses = 0;
+
+  static Key key(
+      String expression,
+      EquipScope equipScope,
+      int maxPrice,
+      PriceLevel priceLevel,
+      boolean includeAll,
+      Set<filterType> filter) {
+    return new Key(
+        expression,
+        equipScope,
+        maxPrice,
+        priceLevel,
+        includeAll,
+        Set.copyOf(filter),
+        State.current());
+  }
+
+  synchronized Result get(Key key) {
+    Result result = this.results.get(key);
+    if (result != null) {
+      this.hits++;
+    } else {
+      this.misses++;
+    }
+    return result;
+  }
+
+  synchronized void put(Key key, Result result, int size) {
+    this.results.put(key, result);
+    Iterator<Key> eldest = this.results.keySet().iterator();
+    while (this.results.size() > size) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  synchronized void clear() {
+    this.results.clear();
+    this.hits = 0;
+    this.misses = 0;
+  }
+
+  synchronized int getHits() {
+    return this.hits;
+  }
+
+  synchronized int getMisses() {
+    return this.misses;
+  }
+
+  /**
+   * A copy of everything the maximizer reads from the character, compared in full so that two
+   * states match only if they are the same.
+   */
+  record State(
+      List<Stack> inventory,
+      List<Stack> closet,
+      List<Stack> storage,
+      List<Stack> freepulls,
+      List<Stack> effects,
+      List<Integer> equipment,
+      Set<Integer> skills,
+      List<Familiar> familiars,
+      Familiar familiar,
+      Familiar enthroned,
+      Familiar bjorned,
+      String location,
+      String zone,
+      String environment,
+      double monsterLevel,
+      AscensionClass ascensionClass,
+      Path path,
+      LimitMode limitMode,
+      int level,
+      int currentRun,
+      int turnsPlayed,
+      int adventuresLeft,
+      long availableMeat,
+      long storageMeat,
+      int fullness,
+      int inebriety,
+      int spleenUse,
+      long currentHP,
+      long maximumHP,
+      long currentMP,
+      long maximumMP,
+      boolean canInteract,
+      boolean inRonin,
+      boolean hardcore,
+      Map<String, String> preferences) {
+    static State current() {
+      List<Integer> equipment = new ArrayList<>();
+      for (AdventureResult item : EquipmentManager.allEquipment().values()) {
+        equipment.add(item == null ? 0 : item.getItemId());
+      }
+
+      List<Familiar> familiars = new ArrayList<>();
+      for (FamiliarData familiar : KoLCharacter.usableFamiliars()) {
+        familiars.add(Familiar.of(familiar));
+      }
+
+      Map<String, String> preferences = Preferences.getMap(false, true);
+      preferences.keySet().removeAll(IGNORED_PREFERENCES);
+
+      return new State(
+          Stack.of(KoLConstants.inventory),
+          Stack.of(KoLConstants.closet),
+          Stack.of(KoLConstants.storage),
+          Stack.of(KoLConstants.freepulls),
+          Stack.of(KoLConstants.activeEffects),
+          equipment,
+          Set.copyOf(KoLCharacter.getAvailableSkillIds()),
+          familiars,
+          Familiar.of(KoLCharacter.getFamiliar()),
+          Familiar.of(KoLCharacter.getEnthroned()),
+          Familiar.of(KoLCharacter.getBjorned()),
+          Modifiers.currentLocation,
+          Modifiers.currentZone,
+          Modifiers.currentEnvironment,
+          Modifiers.currentML,
+          KoLCharacter.getAscensionClass(),
+          KoLCharacter.getPath(),
+          KoLCharacter.getLimitMode(),
+          KoLCharacter.getLevel(),
+          KoLCharacter.getCurrentRun(),
+          KoLCharacter.getTurnsPlayed(),
+          KoLCharacter.getAdventuresLeft(),
+          KoLCharacter.getAvailableMeat(),
+          KoLCharacter.getStorageMeat(),
+          KoLCharacter.getFullness(),
+          KoLCharacter.getInebriety(),
+          KoLCharacter.getSpleenUse(),
+          KoLCharacter.getCurrentHP(),
+          KoLCharacter.getMaximumHP(),
+          KoLCharacter.getCurrentMP(),
+          KoLCharacter.getMaximumMP(),
+          KoLCharacter.canInteract(),
+          KoLCharacter.inRonin(),
+          KoLCharacter.isHardcore(),
+          preferences);
+    }
+  }
+
+  // AdventureResult only compares names, but the count matters here
+  record Stack(String name, int count) {
+    static List<Stack> of(List<AdventureResult> list) {
+      List<Stack> stacks = new ArrayList<>(list.size());
+      for (AdventureResult result : list) {
+        stacks.add(new Stack(result.getName(), result.getCount()));
+      }
+      return stacks;
+    }
+  }
+
+  record Familiar(int id, int experience, int itemId) {
+    static Familiar of(FamiliarData familiar) {
+      if (familiar == null) {
+        return null;
+      }
+      AdventureResult item = familiar.getItem();
+      return new Familiar(
+          familiar.getId(), familiar.getTotalExperience(), item == null ? 0 : item.getItemId());
+    }
+  }
+}
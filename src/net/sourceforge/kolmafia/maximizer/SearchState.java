@@ -0,0 +1,64 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.sourceforge.kolmafia.AdjustmentCache;
+
+/**
+ * The state of one maximization: the evaluator for its expression, the boosts it suggests and the
+ * best loadout found so far, with the progress of the search for it. Each maximization makes its
+ * own, so that two can run at once. It is active on the thread running the maximization while it
+ * runs, and each {@link MaximizerSpeculation} made there keeps it, so that the speculations a
+ * {@link ParallelSearch} clones onto other threads report to the same search.
+ */
+class SearchState {
+  private static final ThreadLocal<SearchState> active = new ThreadLocal<>();
+
+  final Evaluator eval;
+  final List<Boost> boosts = new ArrayList<>();
+
+  MaximizerSpeculation best;
+  int bestChecked;
+  long bestUpdate;
+  // Partial loadouts checked against the upper bound of their slots, and how many were pruned
+  int visited;
+  int pruned;
+  // Parts of each speculation which do not depend on equipment, while enumerating equipment
+  AdjustmentCache adjustments;
+  // Whether the search ran to completion, so that its result may be reused
+  boolean complete;
+
+  SearchState(Evaluator eval) {
+    this.eval = eval;
+  }
+
+  /**
+   * @return the maximization running on this thread, or null if there is none
+   */
+  static SearchState current() {
+    return active.get();
+  }
+
+  /**
+   * Makes this the maximization running on this thread.
+   *
+   * @return the maximization it replaces, to be passed to {@link #restore}
+   */
+  SearchState enter() {
+    SearchState previous = active.get();
+    active.set(this);
+    return previous;
+  }
+
+  static void restore(SearchState previous) {
+    if (previous == null) {
+      active.remove();
+    } else {
+      active.set(previous);
+    }
+  }
+
+  void showProgress() {
+    MaximizerSpeculation.showProgress(this.bestChecked, this.visited, this.pruned, this.best);
+  }
+}
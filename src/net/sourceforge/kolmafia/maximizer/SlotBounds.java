@@ -0,0 +1,64 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.equipment.SlotSet;
+
+/**
+ * Upper bounds on how much the undecided slots of a partial loadout can add to its score, used to
+ * prune the equipment enumeration in {@link MaximizerSpeculation}. Built by {@link
+ * Evaluator#getSlotBounds} from the bound of each candidate.
+ */
+class SlotBounds {
+  // Scores are sums of doubles, so leave some room for rounding before pruning
+  private static final double SLACK = 0.001;
+
+  private final Map<Slot, Double> slots = new EnumMap<>(Slot.class);
+  // The best total for each number of free accessory slots
+  private final double[] accessories = new double[SlotSet.ACCESSORY_SLOTS.size() + 1];
+
+  void put(Slot slot, double bound) {
+    this.slots.merge(slot, bound, Math::max);
+  }
+
+  void putAccessories(List<Double> bounds) {
+    List<Double> sorted = new ArrayList<>(bounds);
+    sorted.sort(Collections.reverseOrder());
+    for (int free = 1; free < this.accessories.length; ++free) {
+      double bound = free <= sorted.size() ? sorted.get(free - 1) : 0.0;
+      this.accessories[free] = this.accessories[free - 1] + bound;
+    }
+  }
+
+  /**
+   * @return the most that filling every undecided slot of this equipment can add to its score
+   */
+  double remaining(Map<Slot, AdventureResult> equipment) {
+    double total = 0.0;
+    int free = 0;
+    for (var slot : SlotSet.SLOTS) {
+      if (equipment.get(slot) != null) continue;
+      if (SlotSet.ACCESSORY_SLOTS.contains(slot)) {
+        ++free;
+        continue;
+      }
+      Double bound = this.slots.get(slot);
+      if (bound == null) return Double.POSITIVE_INFINITY;
+      total += bound;
+    }
+    return total + this.accessories[free];
+  }
+
+  /**
+   * @return whether a loadout scoring at most this bound cannot beat a successful loadout with
+   *     this score
+   */
+  static boolean cannotBeat(double bound, double score) {
+    return bound + SLACK < score;
+  }
+}
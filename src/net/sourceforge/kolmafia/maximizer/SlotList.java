@@ -32,6 +32,13 @@ public class SlotList<T> {
     }
   }
 
+  /** Shallow copy: the interior lists are shared, but each copy can reassign them. */
+  public SlotList(SlotList<T> copy) {
+    slotList = new EnumMap<>(Slot.class);
+    slotList.putAll(copy.slotList);
+    familiarList = new ArrayList<>(copy.familiarList);
+  }
+
   public List<T> get(Slot key) {
     return slotList.computeIfAbsent(key, k -> new ArrayList<>());
   }
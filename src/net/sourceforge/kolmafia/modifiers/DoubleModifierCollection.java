@@ -1,50 +1,155 @@
 package net.sourceforge.kolmafia.modifiers;
 
-import java.util.EnumMap;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.function.BiConsumer;
 
 public class DoubleModifierCollection {
-  public static final int SPARSE_DOUBLES_MAX_SIZE = 32;
+  private static final DoubleModifier[] MODIFIERS = DoubleModifier.values();
 
-  // If only a few values are set in doubles, we instead store all modifiers in a sparse TreeMap.
-  // When that map gets bigger than SPARSE_DOUBLES_MAX_SIZE, we copy it over to the dense EnumMap.
-  private Map<DoubleModifier, Double> doubles = new TreeMap<>();
+  // Values are stored unboxed, indexed by DoubleModifier.ordinal(). The presence bitset records
+  // which entries have been set, so that iteration over a sparse collection (most items and
+  // effects have only a handful of modifiers) only visits those entries, in ordinal order.
+  private double[] doubles;
+  private final BitSet present;
 
-  public void reset() {
-    this.doubles = new TreeMap<>();
+  // An overlay reads its values from the collection it was made from, except for the few entries
+  // set since, which are kept here. The base must not change while the overlay is in use.
+  private DoubleModifierCollection base = null;
+  private int[] overlayIndex = null;
+  private double[] overlayValue = null;
+  private int overlaySize = 0;
+
+  public DoubleModifierCollection() {
+    this.doubles = new double[MODIFIERS.length];
+    this.present = new BitSet(MODIFIERS.length);
+  }
+
+  private DoubleModifierCollection(final DoubleModifierCollection base) {
+    this.doubles = null;
+    this.present = (BitSet) base.present.clone();
+    this.base = base;
+    this.overlayIndex = new int[4];
+    this.overlayValue = new double[4];
   }
 
-  public void densify() {
-    if (this.doubles instanceof EnumMap) return;
-    Map<DoubleModifier, Double> newDoubles = new EnumMap<>(DoubleModifier.class);
-    newDoubles.putAll(this.doubles);
-    this.doubles = newDoubles;
+  public static DoubleModifier modifier(final int index) {
+    return MODIFIERS[index];
+  }
+
+  /**
+   * @return a collection which starts with the same values as this one, but which only stores the
+   *     values set in it afterwards. This collection must not change while the overlay is in use.
+   */
+  public DoubleModifierCollection overlay() {
+    if (this.base == null) {
+      return new DoubleModifierCollection(this);
+    }
+
+    // Overlays are not layered; copy this one instead
+    DoubleModifierCollection copy = new DoubleModifierCollection();
+    for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+      copy.doubles[i] = this.getAt(i);
+    }
+    copy.present.or(this.present);
+    return copy;
+  }
+
+  public void reset() {
+    if (this.base != null) {
+      this.doubles = new double[MODIFIERS.length];
+      this.base = null;
+      this.overlayIndex = null;
+      this.overlayValue = null;
+      this.overlaySize = 0;
+      this.present.clear();
+      return;
+    }
+
+    for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+      this.doubles[i] = 0.0;
+    }
+    this.present.clear();
   }
 
   public double get(final DoubleModifier mod) {
-    return this.doubles.getOrDefault(mod, 0.0);
+    return this.getAt(mod.ordinal());
   }
 
   public boolean set(final DoubleModifier mod, final double value) {
-    Double oldValue = value == 0.0 ? this.doubles.remove(mod) : this.doubles.put(mod, value);
+    int index = mod.ordinal();
+    boolean wasPresent = this.present.get(index);
+    double oldValue = this.getAt(index);
 
-    if (this.doubles.size() >= DoubleModifierCollection.SPARSE_DOUBLES_MAX_SIZE) {
-      this.densify();
+    this.store(index, value);
+    if (value == 0.0) {
+      this.present.clear(index);
+    } else {
+      this.present.set(index);
     }
 
     // TODO: does anything use this return value, or can we save ourselves a check?
-    return oldValue == null || oldValue != value;
+    return !wasPresent || oldValue != value;
   }
 
   public double add(final DoubleModifier mod, final double value) {
-    // Anything being accumulated onto should be dense.
-    this.densify();
-    return this.doubles.merge(mod, value, Double::sum);
+    int index = mod.ordinal();
+    this.present.set(index);
+    if (this.base == null) {
+      return this.doubles[index] += value;
+    }
+    double sum = this.getAt(index) + value;
+    this.store(index, sum);
+    return sum;
+  }
+
+  /**
+   * Returns the ordinal of the first modifier set at or after {@code fromIndex}, or -1 if there is
+   * none. Together with {@link #getAt(int)} this allows iteration without allocating a lambda.
+   */
+  public int nextIndex(final int fromIndex) {
+    return this.present.nextSetBit(fromIndex);
+  }
+
+  public double getAt(final int index) {
+    if (this.base == null) {
+      return this.doubles[index];
+    }
+    int slot = this.overlaySlot(index);
+    return slot >= 0 ? this.overlayValue[slot] : this.base.doubles[index];
   }
 
   public void forEach(BiConsumer<? super DoubleModifier, ? super Double> action) {
-    this.doubles.forEach(action);
+    for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+      action.accept(MODIFIERS[i], this.getAt(i));
+    }
+  }
+
+  private void store(final int index, final double value) {
+    if (this.base == null) {
+      this.doubles[index] = value;
+      return;
+    }
+
+    int slot = this.overlaySlot(index);
+    if (slot < 0) {
+      if (this.overlaySize == this.overlayIndex.length) {
+        this.overlayIndex = Arrays.copyOf(this.overlayIndex, this.overlaySize * 2);
+        this.overlayValue = Arrays.copyOf(this.overlayValue, this.overlaySize * 2);
+      }
+      slot = this.overlaySize++;
+      this.overlayIndex[slot] = index;
+    }
+    this.overlayValue[slot] = value;
+  }
+
+  // Overlays hold only the few values their expressions set, so a linear search is enough
+  private int overlaySlot(final int index) {
+    for (int i = 0; i < this.overlaySize; i++) {
+      if (this.overlayIndex[i] == index) {
+        return i;
+      }
+    }
+    return -1;
   }
 }
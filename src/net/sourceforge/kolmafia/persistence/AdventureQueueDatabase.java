@@ -15,6 +15,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 import net.sourceforge.kolmafia.AreaCombatData;
 import net.sourceforge.kolmafia.KoLAdventure;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -41,6 +42,10 @@ public class AdventureQueueDatabase implements Serializable {
   // for testing only, otherwise leave at true;
   public static boolean allowSerializationWrite = true;
 
+  // Counts changes to the queues, so that encounter chances computed from them can be kept until
+  // they change
+  private static final AtomicLong changes = new AtomicLong();
+
   // debugging tool
   public static void showQueue() {
     Set<String> keys = COMBAT_QUEUE.keySet();
@@ -84,6 +89,7 @@ public class AdventureQueueDatabase implements Serializable {
   }
 
   private static void resetQueue(boolean serializeAfterwards) {
+    AdventureQueueDatabase.changes.incrementAndGet();
     AdventureQueueDatabase.COMBAT_QUEUE = new TreeMap<>();
     AdventureQueueDatabase.NONCOMBAT_QUEUE = new TreeMap<>();
 
@@ -159,6 +165,7 @@ public class AdventureQueueDatabase implements Serializable {
     }
 
     zoneQueue.add(mon.getName());
+    AdventureQueueDatabase.changes.incrementAndGet();
   }
 
   public static void enqueueNoncombat(String noncombatAdventureName, String name) {
@@ -169,6 +176,14 @@ public class AdventureQueueDatabase implements Serializable {
     if (zoneQueue == null) return;
 
     zoneQueue.add(name);
+    AdventureQueueDatabase.changes.incrementAndGet();
+  }
+
+  /**
+   * @return a number which changes whenever any queue does
+   */
+  public static long getChangeCount() {
+    return AdventureQueueDatabase.changes.get();
   }
 
   public static RollingLinkedList<String> getZoneQueue(KoLAdventure adv) {
@@ -229,6 +244,7 @@ public class AdventureQueueDatabase implements Serializable {
       // Combat queue is first
       COMBAT_QUEUE = queues.get(0);
       NONCOMBAT_QUEUE = queues.get(1);
+      AdventureQueueDatabase.changes.incrementAndGet();
 
       in.close();
 
@@ -14,7 +14,12 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import javax.swing.SwingUtilities;
 import net.java.dev.spellcast.utilities.LockableListModel;
 import net.java.dev.spellcast.utilities.SortedListModel;
 import net.sourceforge.kolmafia.AdventureResult;
@@ -65,6 +70,7 @@ import net.sourceforge.kolmafia.session.ClanManager;
 import net.sourceforge.kolmafia.session.InventoryManager;
 import net.sourceforge.kolmafia.swingui.ItemManageFrame;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
+import net.sourceforge.kolmafia.utilities.ItemListModel;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class ConcoctionDatabase {
@@ -78,6 +84,24 @@ public class ConcoctionDatabase {
 
   private static boolean refreshNeeded = true;
   private static boolean recalculateAdventureRange = false;
+
+  // Items whose quantity is all that changed since the last refresh. If nothing else has changed,
+  // only the concoctions made from them, directly or indirectly, need to be recalculated.
+  private static final Set<Integer> changedItems = new HashSet<>();
+  // The concoctions which use each item as an ingredient, built as needed after a full refresh
+  private static Map<Integer, List<Concoction>> consumers = null;
+  // What the last full refresh found could be made, and how
+  private static Permissions permissions = null;
+  // The counts as of the end of the last refresh, for readers on other threads
+  private static volatile ConcoctionSnapshot snapshot = ConcoctionSnapshot.EMPTY;
+  // Guards replacing the snapshot and the state of the worker
+  private static final Object pendingLock = new Object();
+  private static ScheduledExecutorService refreshWorker = null;
+  private static volatile Thread refreshThread = null;
+  // The refresh waiting to run on the worker, which any others requested before it runs join
+  private static ScheduledFuture<?> pendingRefresh = null;
+  // Whether the worker is running a refresh now
+  private static boolean refreshing = false;
   public static int refreshLevel = 0;
 
   public static int queuedAdventuresUsed = 0;
@@ -1071,7 +1095,7 @@ public class ConcoctionDatabase {
       return KoLConstants.inventory;
     }
 
-    SortedListModel<AdventureResult> availableIngredients = new SortedListModel<>();
+    SortedListModel<AdventureResult> availableIngredients = new ItemListModel();
     availableIngredients.addAll(KoLConstants.inventory);
 
     if (includeCloset) {
@@ -1132,7 +1156,7 @@ public class ConcoctionDatabase {
   public static final void setRefreshNeeded(int itemId) {
     switch (ItemDatabase.getConsumptionType(itemId)) {
       case EAT, DRINK, SPLEEN, USE, USE_MULTIPLE, FOOD_HELPER, DRINK_HELPER -> {
-        ConcoctionDatabase.setRefreshNeeded(false);
+        ConcoctionDatabase.setItemChanged(itemId);
         return;
       }
     }
@@ -1143,6 +1167,8 @@ public class ConcoctionDatabase {
       case ItemPool.WORTHLESS_TRINKET:
       case ItemPool.WORTHLESS_GEWGAW:
       case ItemPool.WORTHLESS_KNICK_KNACK:
+        ConcoctionDatabase.setRefreshNeeded(false);
+        return;
 
         // Interchangeable ingredients, which might have been missed
         // by the getKnownUses check because the recipes are set to
@@ -1155,7 +1181,7 @@ public class ConcoctionDatabase {
       case ItemPool.CLOACA_COLA:
       case ItemPool.TITANIUM_UMBRELLA:
       case ItemPool.GOATSKIN_UMBRELLA:
-        ConcoctionDatabase.setRefreshNeeded(false);
+        ConcoctionDatabase.setItemChanged(itemId);
         return;
     }
 
@@ -1165,7 +1191,7 @@ public class ConcoctionDatabase {
           ConcoctionDatabase.getRequirements(use.getItemId());
 
       if (ConcoctionDatabase.isPermittedMethod(method, requirements)) {
-        ConcoctionDatabase.setRefreshNeeded(false);
+        ConcoctionDatabase.setItemChanged(itemId);
         return;
       }
     }
@@ -1179,6 +1205,20 @@ public class ConcoctionDatabase {
     }
   }
 
+  private static void setItemChanged(final int itemId) {
+    synchronized (ConcoctionDatabase.changedItems) {
+      ConcoctionDatabase.changedItems.add(itemId);
+    }
+  }
+
+  private static Set<Integer> takeChangedItems() {
+    synchronized (ConcoctionDatabase.changedItems) {
+      Set<Integer> changed = new HashSet<>(ConcoctionDatabase.changedItems);
+      ConcoctionDatabase.changedItems.clear();
+      return changed;
+    }
+  }
+
   public static final void setRefreshNeeded(boolean recalculateAdventureRange) {
     ConcoctionDatabase.refreshNeeded = true;
 
@@ -1195,13 +1235,123 @@ public class ConcoctionDatabase {
     ConcoctionDatabase.refreshConcoctions(true);
   }
 
+  /**
+   * Refreshes the concoctions, if anything has changed. A refresh which is not forced, such as the
+   * one after each request, runs on the refresh worker instead, if the global preference
+   * "concoctionRefreshDelay" is set: it waits that many milliseconds, so that one refresh covers
+   * everything which changes meanwhile, and does not hold up the thread which asked for it.
+   */
   public static final void refreshConcoctions(boolean force) {
     if (force) {
       // Remember that refresh is forced, even if deferred
       ConcoctionDatabase.refreshNeeded = true;
+    } else {
+      int delay = Preferences.getInteger("concoctionRefreshDelay");
+      if (delay > 0) {
+        if (ConcoctionDatabase.isRefreshPending()) {
+          ConcoctionDatabase.scheduleRefresh(delay);
+        }
+        return;
+      }
     }
 
-    if (!ConcoctionDatabase.refreshNeeded) {
+    ConcoctionDatabase.refreshIfNeeded();
+  }
+
+  private static boolean isRefreshPending() {
+    synchronized (ConcoctionDatabase.changedItems) {
+      return ConcoctionDatabase.refreshNeeded || !ConcoctionDatabase.changedItems.isEmpty();
+    }
+  }
+
+  private static void scheduleRefresh(final int delay) {
+    synchronized (ConcoctionDatabase.pendingLock) {
+      if (ConcoctionDatabase.pendingRefresh != null) {
+        // That one will see this change too
+        return;
+      }
+      if (ConcoctionDatabase.refreshWorker == null) {
+        ConcoctionDatabase.refreshWorker =
+            Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                  Thread thread = new Thread(runnable, "ConcoctionRefresh");
+                  thread.setDaemon(true);
+                  ConcoctionDatabase.refreshThread = thread;
+                  return thread;
+                });
+      }
+      ConcoctionDatabase.pendingRefresh =
+          ConcoctionDatabase.refreshWorker.schedule(
+              ConcoctionDatabase::runScheduledRefresh, delay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void runScheduledRefresh() {
+    synchronized (ConcoctionDatabase.pendingLock) {
+      // Anything which changes from here on needs a refresh of its own
+      ConcoctionDatabase.pendingRefresh = null;
+      ConcoctionDatabase.refreshing = true;
+    }
+    try {
+      ConcoctionDatabase.refreshIfNeeded();
+    } catch (Exception e) {
+      StaticEntity.printStackTrace(e, "Unable to refresh concoctions");
+    } finally {
+      synchronized (ConcoctionDatabase.pendingLock) {
+        ConcoctionDatabase.refreshing = false;
+      }
+    }
+  }
+
+  /**
+   * Waits for any refresh which is running on the refresh worker, and runs any which is waiting to
+   * run there now, on this thread, so that the concoctions are up to date when this returns. This
+   * returns at once if the worker has nothing to do, and does nothing on the worker itself.
+   */
+  public static final void awaitRefresh() {
+    if (Thread.currentThread() == ConcoctionDatabase.refreshThread) {
+      return;
+    }
+    synchronized (ConcoctionDatabase.pendingLock) {
+      if (ConcoctionDatabase.pendingRefresh == null && !ConcoctionDatabase.refreshing) {
+        return;
+      }
+      if (ConcoctionDatabase.pendingRefresh != null) {
+        ConcoctionDatabase.pendingRefresh.cancel(false);
+        ConcoctionDatabase.pendingRefresh = null;
+      }
+    }
+    synchronized (ConcoctionDatabase.class) {
+      ConcoctionDatabase.refreshIfNeeded();
+    }
+  }
+
+  /**
+   * Publishes these concoctions as they are now, for those which are recalculated outside of a
+   * refresh, such as the speakeasy drinks.
+   */
+  public static void updateSnapshot(final Collection<Concoction> concoctions) {
+    synchronized (ConcoctionDatabase.pendingLock) {
+      ConcoctionDatabase.snapshot = ConcoctionDatabase.snapshot.with(concoctions);
+    }
+  }
+
+  /**
+   * @return how many of each concoction could be created, used and pulled, as of the end of the
+   *     last refresh. Unlike the concoctions themselves, this is safe to read while a refresh is
+   *     running on another thread.
+   */
+  public static ConcoctionSnapshot getSnapshot() {
+    return ConcoctionDatabase.snapshot;
+  }
+
+  private static void refreshIfNeeded() {
+    boolean itemsChanged;
+    synchronized (ConcoctionDatabase.changedItems) {
+      itemsChanged = !ConcoctionDatabase.changedItems.isEmpty();
+    }
+
+    if (!ConcoctionDatabase.refreshNeeded && !itemsChanged) {
       // No refresh is currently needed
       return;
     }
@@ -1216,24 +1366,22 @@ public class ConcoctionDatabase {
       return;
     }
 
-    ConcoctionDatabase.refreshConcoctionsNow();
+    if (ConcoctionDatabase.refreshNeeded) {
+      ConcoctionDatabase.refreshConcoctionsNow();
+    } else {
+      ConcoctionDatabase.refreshChangedConcoctions();
+    }
   }
 
   public static final synchronized void refreshConcoctionsNow() {
     Preferences.increment("_concoctionDatabaseRefreshes");
     ConcoctionDatabase.refreshNeeded = false;
+    ConcoctionDatabase.takeChangedItems();
+    ConcoctionDatabase.consumers = null;
 
     List<AdventureResult> availableIngredientsList = ConcoctionDatabase.getAvailableIngredients();
-
-    // In addition to the list, we create a second data structure here for better performance.
-    // Because we do many lookups to the available ingredients to see how many there are,
-    // having an O(1) lookup helps a lot. Initial size is set at list * 2 with default 0.75 load
-    // factor.
     Map<Integer, AdventureResult> availableIngredients =
-        new HashMap<>(availableIngredientsList.size() * 2);
-    for (AdventureResult item : availableIngredientsList) {
-      availableIngredients.put(item.getItemId(), item);
-    }
+        ConcoctionDatabase.byItemId(availableIngredientsList);
 
     // Iterate through the concoction table, Initialize each one
     // appropriately depending on whether it is an NPC item, a Coin
@@ -1243,57 +1391,8 @@ public class ConcoctionDatabase {
     boolean useCoinmasters = InventoryManager.canUseCoinmasters();
 
     for (Concoction item : ConcoctionPool.concoctions()) {
-      // Initialize all the variables
-      item.resetCalculations();
-
-      if (item.speakeasy != null) {
-        // Has an item number, but can't appear in inventory
-        continue;
-      }
-
-      AdventureResult concoction = item.concoction;
-      if (concoction == null) {
-        continue;
-      }
-
-      int itemId = concoction.getItemId();
-
-      if (useNPCStores && NPCStoreDatabase.contains(itemId, true)) {
-        if (itemId != ItemPool.FLAT_DOUGH) {
-          // Don't buy flat dough from Degrassi Knoll Bakery -
-          // buy wads of dough for 20 meat less, instead.
-
-          item.price = NPCStoreDatabase.price(itemId);
-          item.initial = concoction.getCount(availableIngredients);
-          item.creatable = 0;
-          item.total = item.initial;
-          item.visibleTotal = item.total;
-          continue;
-        }
-      }
-
-      PurchaseRequest purchaseRequest = item.getPurchaseRequest();
-      if (purchaseRequest != null) {
-        purchaseRequest.setCanPurchase(useCoinmasters);
-        int acquirable = purchaseRequest.canPurchase() ? purchaseRequest.affordableCount() : 0;
-        item.price = 0;
-        item.initial = concoction.getCount(availableIngredients);
-        item.creatable = acquirable;
-        item.total = item.initial + acquirable;
-        item.visibleTotal = item.total;
-        continue;
-      }
-
-      // Set initial quantity of all remaining items.
-
-      // Switch to the better of any interchangeable ingredients. Only mutates the first argument.
-      ConcoctionDatabase.getIngredients(item, item.getIngredients(), availableIngredientsList);
-
-      item.initial = concoction.getCount(availableIngredients);
-      item.price = 0;
-      item.creatable = 0;
-      item.total = item.initial;
-      item.visibleTotal = item.total;
+      ConcoctionDatabase.initialize(
+          item, availableIngredients, availableIngredientsList, useNPCStores, useCoinmasters);
     }
 
     // Make assessment of availability of mixing methods.
@@ -1302,6 +1401,7 @@ public class ConcoctionDatabase {
     // is not needed.
 
     ConcoctionDatabase.cachePermitted(availableIngredientsList);
+    ConcoctionDatabase.permissions = ConcoctionDatabase.permissions(useNPCStores, useCoinmasters);
 
     // Finally, increment through all of the things which are
     // created any other way, making sure that it's a permitted
@@ -1316,68 +1416,252 @@ public class ConcoctionDatabase {
     // all creatable items.	 We do this by determining the
     // number of items inside of the old list.
 
-    boolean changeDetected = false;
-    boolean considerPulls =
-        !KoLCharacter.canInteract()
-            && !KoLCharacter.isHardcore()
-            && ConcoctionDatabase.getPullsBudgeted() > ConcoctionDatabase.queuedPullsUsed;
+    List<CreateItemRequest> added = new ArrayList<>();
+    List<CreateItemRequest> removed = new ArrayList<>();
+    boolean considerPulls = ConcoctionDatabase.considerPulls();
 
     for (Concoction item : ConcoctionPool.concoctions()) {
-      AdventureResult ar = item.getItem();
-      if (ar == null) {
-        continue;
-      }
-
-      if (considerPulls
-          && ar.getItemId() > 0
-          && item.getPrice() <= 0
-          && ConsumablesDatabase.meetsLevelRequirement(item.getName())
-          && StandardRequest.isAllowed(RestrictedItemType.ITEMS, ar.getName())) {
-        item.setPullable(
-            Math.min(
-                ar.getCount(KoLConstants.storage) - item.queuedPulls,
-                ConcoctionDatabase.getPullsBudgeted() - ConcoctionDatabase.queuedPullsUsed));
-      } else {
-        item.setPullable(0);
-      }
+      ConcoctionDatabase.updateCreatable(item, considerPulls, added, removed);
+    }
 
-      CreateItemRequest instance = CreateItemRequest.getInstance(item, false);
+    ConcoctionSnapshot snapshot = ConcoctionSnapshot.of(ConcoctionPool.concoctions());
+    synchronized (ConcoctionDatabase.pendingLock) {
+      ConcoctionDatabase.snapshot = snapshot;
+    }
 
-      if (instance == null) {
-        continue;
-      }
+    boolean recalculated = ConcoctionDatabase.recalculateAdventureRange;
+    if (recalculated) {
+      ConsumablesDatabase.calculateAllAverageAdventures();
+      ConcoctionDatabase.recalculateAdventureRange = false;
+    }
 
-      int creatable = Math.max(item.creatable, 0);
-      int pullable = Math.max(item.pullable, 0);
+    ConcoctionDatabase.updateLists(
+        () -> {
+          if (recalculated) {
+            ConcoctionDatabase.queuedFood.touch();
+            ConcoctionDatabase.queuedBooze.touch();
+            ConcoctionDatabase.queuedSpleen.touch();
+          }
 
-      instance.setQuantityPossible(creatable);
-      instance.setQuantityPullable(pullable);
+          ConcoctionDatabase.creatableList.removeAll(removed);
+          ConcoctionDatabase.creatableList.addAll(added);
+          ConcoctionDatabase.creatableList.sort();
+          ConcoctionDatabase.usableList.sort();
 
-      if (creatable + pullable == 0) {
-        if (item.wasPossible()) {
-          ConcoctionDatabase.creatableList.remove(instance);
-          item.setPossible(false);
-          changeDetected = true;
-        }
-      } else if (!item.wasPossible()) {
-        ConcoctionDatabase.creatableList.add(instance);
-        item.setPossible(true);
-        changeDetected = true;
+          ConcoctionDatabase.updateFilters(!added.isEmpty() || !removed.isEmpty());
+        });
+  }
+
+  /**
+   * Recalculates only the concoctions made, directly or indirectly, from items whose quantity
+   * changed. If anything else which the calculation depends on has changed too - what can be
+   * made and how, the meat, adventures and other limits, or whether stores and pulls can be used -
+   * this does a full refresh instead.
+   */
+  private static synchronized void refreshChangedConcoctions() {
+    Set<Integer> changed = ConcoctionDatabase.takeChangedItems();
+    if (ConcoctionDatabase.permissions == null || ConcoctionDatabase.refreshNeeded) {
+      ConcoctionDatabase.refreshConcoctionsNow();
+      return;
+    }
+    if (changed.isEmpty()) {
+      return;
+    }
+
+    List<AdventureResult> availableIngredientsList = ConcoctionDatabase.getAvailableIngredients();
+    Map<Integer, AdventureResult> availableIngredients =
+        ConcoctionDatabase.byItemId(availableIngredientsList);
+
+    boolean useNPCStores = InventoryManager.canUseNPCStores();
+    boolean useCoinmasters = InventoryManager.canUseCoinmasters();
+
+    Set<Concoction> affected = ConcoctionDatabase.affectedBy(changed);
+    for (Concoction item : affected) {
+      ConcoctionDatabase.initialize(
+          item, availableIngredients, availableIngredientsList, useNPCStores, useCoinmasters);
+    }
+
+    ConcoctionDatabase.cachePermitted(availableIngredientsList);
+    if (!ConcoctionDatabase.permissions(useNPCStores, useCoinmasters)
+        .equals(ConcoctionDatabase.permissions)) {
+      ConcoctionDatabase.refreshConcoctionsNow();
+      return;
+    }
+
+    Preferences.increment("_concoctionDatabasePartialRefreshes");
+
+    for (Concoction item : affected) {
+      item.calculate2();
+      item.calculate3();
+    }
+
+    List<CreateItemRequest> added = new ArrayList<>();
+    List<CreateItemRequest> removed = new ArrayList<>();
+    boolean considerPulls = ConcoctionDatabase.considerPulls();
+
+    for (Concoction item : affected) {
+      ConcoctionDatabase.updateCreatable(item, considerPulls, added, removed);
+    }
+
+    ConcoctionDatabase.updateSnapshot(affected);
+
+    ConcoctionDatabase.updateLists(
+        () -> {
+          boolean changeDetected = !added.isEmpty() || !removed.isEmpty();
+          if (changeDetected) {
+            ConcoctionDatabase.creatableList.removeAll(removed);
+            ConcoctionDatabase.creatableList.addAll(added);
+            ConcoctionDatabase.creatableList.sort();
+          }
+
+          ConcoctionDatabase.updateFilters(changeDetected);
+        });
+  }
+
+  private static Map<Integer, AdventureResult> byItemId(final List<AdventureResult> ingredients) {
+    // In addition to the list, we create a second data structure here for better performance.
+    // Because we do many lookups to the available ingredients to see how many there are,
+    // having an O(1) lookup helps a lot. Initial size is set at list * 2 with default 0.75 load
+    // factor.
+    Map<Integer, AdventureResult> availableIngredients = new HashMap<>(ingredients.size() * 2);
+    for (AdventureResult item : ingredients) {
+      availableIngredients.put(item.getItemId(), item);
+    }
+    return availableIngredients;
+  }
+
+  private static void initialize(
+      final Concoction item,
+      final Map<Integer, AdventureResult> availableIngredients,
+      final List<AdventureResult> availableIngredientsList,
+      final boolean useNPCStores,
+      final boolean useCoinmasters) {
+    // Initialize all the variables
+    item.resetCalculations();
+
+    if (item.speakeasy != null) {
+      // Has an item number, but can't appear in inventory
+      return;
+    }
+
+    AdventureResult concoction = item.concoction;
+    if (concoction == null) {
+      return;
+    }
+
+    int itemId = concoction.getItemId();
+
+    if (useNPCStores && NPCStoreDatabase.contains(itemId, true)) {
+      if (itemId != ItemPool.FLAT_DOUGH) {
+        // Don't buy flat dough from Degrassi Knoll Bakery -
+        // buy wads of dough for 20 meat less, instead.
+
+        item.price = NPCStoreDatabase.price(itemId);
+        item.initial = concoction.getCount(availableIngredients);
+        item.creatable = 0;
+        item.total = item.initial;
+        item.visibleTotal = item.total;
+        return;
       }
     }
 
-    if (ConcoctionDatabase.recalculateAdventureRange) {
-      ConsumablesDatabase.calculateAllAverageAdventures();
-      ConcoctionDatabase.recalculateAdventureRange = false;
+    PurchaseRequest purchaseRequest = item.getPurchaseRequest();
+    if (purchaseRequest != null) {
+      purchaseRequest.setCanPurchase(useCoinmasters);
+      int acquirable = purchaseRequest.canPurchase() ? purchaseRequest.affordableCount() : 0;
+      item.price = 0;
+      item.initial = concoction.getCount(availableIngredients);
+      item.creatable = acquirable;
+      item.total = item.initial + acquirable;
+      item.visibleTotal = item.total;
+      return;
+    }
 
-      ConcoctionDatabase.queuedFood.touch();
-      ConcoctionDatabase.queuedBooze.touch();
-      ConcoctionDatabase.queuedSpleen.touch();
+    // Set initial quantity of all remaining items.
+
+    // Switch to the better of any interchangeable ingredients. Only mutates the first argument.
+    ConcoctionDatabase.getIngredients(item, item.getIngredients(), availableIngredientsList);
+
+    item.initial = concoction.getCount(availableIngredients);
+    item.price = 0;
+    item.creatable = 0;
+    item.total = item.initial;
+    item.visibleTotal = item.total;
+  }
+
+  private static boolean considerPulls() {
+    return !KoLCharacter.canInteract()
+        && !KoLCharacter.isHardcore()
+        && ConcoctionDatabase.getPullsBudgeted() > ConcoctionDatabase.queuedPullsUsed;
+  }
+
+  /**
+   * Brings the creatable list up to date with this concoction.
+   *
+   * @return whether it was added to or removed from the list
+   */
+  /**
+   * Calculates how many of this concoction could be pulled, and notes whether it should be added
+   * to or removed from the list of creatables.
+   */
+  private static void updateCreatable(
+      final Concoction item,
+      final boolean considerPulls,
+      final List<CreateItemRequest> added,
+      final List<CreateItemRequest> removed) {
+    AdventureResult ar = item.getItem();
+    if (ar == null) {
+      return;
     }
 
-    ConcoctionDatabase.creatableList.sort();
-    ConcoctionDatabase.usableList.sort();
+    if (considerPulls
+        && ar.getItemId() > 0
+        && item.getPrice() <= 0
+        && ConsumablesDatabase.meetsLevelRequirement(item.getName())
+        && StandardRequest.isAllowed(RestrictedItemType.ITEMS, ar.getName())) {
+      item.setPullable(
+          Math.min(
+              ar.getCount(KoLConstants.storage) - item.queuedPulls,
+              ConcoctionDatabase.getPullsBudgeted() - ConcoctionDatabase.queuedPullsUsed));
+    } else {
+      item.setPullable(0);
+    }
+
+    CreateItemRequest instance = CreateItemRequest.getInstance(item, false);
+
+    if (instance == null) {
+      return;
+    }
+
+    int creatable = Math.max(item.creatable, 0);
+    int pullable = Math.max(item.pullable, 0);
+
+    if (creatable + pullable == 0) {
+      if (item.wasPossible()) {
+        removed.add(instance);
+        item.setPossible(false);
+      }
+    } else if (!item.wasPossible()) {
+      added.add(instance);
+      item.setPossible(true);
+    }
+  }
+
+  /**
+   * Applies changes to the lists the GUI shows. While refreshes may run on the refresh worker, the
+   * changes are handed to the event dispatch thread in the order they were made, so that the lists
+   * do not change while it is drawing them.
+   */
+  private static void updateLists(final Runnable update) {
+    if (Preferences.getInteger("concoctionRefreshDelay") > 0
+        && !SwingUtilities.isEventDispatchThread()) {
+      SwingUtilities.invokeLater(update);
+    } else {
+      update.run();
+    }
+  }
 
+  private static void updateFilters(final boolean changeDetected) {
     // Now tell the GUI about the changes
     ConcoctionDatabase.creatableList.updateFilter(changeDetected);
     ConcoctionDatabase.usableList.updateFilter(changeDetected);
@@ -1387,6 +1671,115 @@ public class ConcoctionDatabase {
     ConcoctionDatabase.queuedPotions.updateFilter(changeDetected);
   }
 
+  /** Everything other than item quantities which the calculated quantities depend on */
+  private record Permissions(
+      Set<CraftingType> permitted,
+      Set<CraftingRequirements> requirements,
+      Map<CraftingType, Integer> adventureUsage,
+      Map<CraftingType, Integer> creationCost,
+      List<Integer> limits,
+      boolean useNPCStores,
+      boolean useCoinmasters,
+      int pullsAvailable) {}
+
+  private static Permissions permissions(final boolean useNPCStores, final boolean useCoinmasters) {
+    List<Integer> limits = new ArrayList<>();
+    for (Concoction limit :
+        List.of(
+            ConcoctionDatabase.stillsLimit,
+            ConcoctionDatabase.clipArtLimit,
+            ConcoctionDatabase.extrudeLimit,
+            ConcoctionDatabase.adventureLimit,
+            ConcoctionDatabase.adventureSmithingLimit,
+            ConcoctionDatabase.cookingLimit,
+            ConcoctionDatabase.turnFreeLimit,
+            ConcoctionDatabase.turnFreeCookingLimit,
+            ConcoctionDatabase.turnFreeSmithingLimit,
+            ConcoctionDatabase.meatLimit)) {
+      limits.add(limit.initial);
+      limits.add(limit.total);
+    }
+    return new Permissions(
+        Set.copyOf(ConcoctionDatabase.PERMIT_METHOD),
+        Set.copyOf(ConcoctionDatabase.REQUIREMENT_MET),
+        Map.copyOf(ConcoctionDatabase.ADVENTURE_USAGE),
+        Map.copyOf(ConcoctionDatabase.CREATION_COST),
+        limits,
+        useNPCStores,
+        useCoinmasters,
+        ConcoctionDatabase.considerPulls()
+            ? ConcoctionDatabase.getPullsBudgeted() - ConcoctionDatabase.queuedPullsUsed
+            : 0);
+  }
+
+  /**
+   * @return the concoctions made from these items, directly or through other concoctions, along
+   *     with the concoctions for the items themselves
+   */
+  private static Set<Concoction> affectedBy(final Set<Integer> itemIds) {
+    Map<Integer, List<Concoction>> consumers = ConcoctionDatabase.getConsumers();
+    Set<Concoction> affected = new HashSet<>();
+    Set<Integer> seen = new HashSet<>(itemIds);
+    Stack<Integer> pending = new Stack<>();
+    pending.addAll(itemIds);
+
+    while (!pending.isEmpty()) {
+      int itemId = pending.pop();
+      Concoction made = ConcoctionPool.get(itemId);
+      if (made != null) {
+        affected.add(made);
+      }
+      for (Concoction consumer : consumers.getOrDefault(itemId, List.of())) {
+        affected.add(consumer);
+        int consumerId = consumer.getItemId();
+        if (consumerId > 0 && seen.add(consumerId)) {
+          pending.push(consumerId);
+        }
+      }
+    }
+    return affected;
+  }
+
+  private static Map<Integer, List<Concoction>> getConsumers() {
+    if (ConcoctionDatabase.consumers != null) {
+      return ConcoctionDatabase.consumers;
+    }
+
+    Map<Integer, List<Concoction>> consumers = new HashMap<>();
+    for (Concoction item : ConcoctionPool.concoctions()) {
+      for (AdventureResult ingredient : item.getIngredients()) {
+        int itemId = ingredient.getItemId();
+        consumers.computeIfAbsent(itemId, k -> new ArrayList<>()).add(item);
+        // The calculation may switch to the other of a pair of interchangeable ingredients
+        int other = ConcoctionDatabase.interchangeableWith(itemId);
+        if (other != -1) {
+          consumers.computeIfAbsent(other, k -> new ArrayList<>()).add(item);
+        }
+      }
+      // Meat paste is an implicit ingredient of combining
+      if (item.getMixingMethod() == CraftingType.COMBINE
+          || item.getMixingMethod() == CraftingType.ACOMBINE) {
+        consumers.computeIfAbsent(ItemPool.MEAT_PASTE, k -> new ArrayList<>()).add(item);
+      }
+    }
+    ConcoctionDatabase.consumers = consumers;
+    return consumers;
+  }
+
+  private static int interchangeableWith(final int itemId) {
+    return switch (itemId) {
+      case ItemPool.SCHLITZ -> ItemPool.WILLER;
+      case ItemPool.WILLER -> ItemPool.SCHLITZ;
+      case ItemPool.KETCHUP -> ItemPool.CATSUP;
+      case ItemPool.CATSUP -> ItemPool.KETCHUP;
+      case ItemPool.DYSPEPSI_COLA -> ItemPool.CLOACA_COLA;
+      case ItemPool.CLOACA_COLA -> ItemPool.DYSPEPSI_COLA;
+      case ItemPool.TITANIUM_UMBRELLA -> ItemPool.GOATSKIN_UMBRELLA;
+      case ItemPool.GOATSKIN_UMBRELLA -> ItemPool.TITANIUM_UMBRELLA;
+      default -> -1;
+    };
+  }
+
   /** Reset concoction stat gains when you've logged in a new character. */
   public static final void resetConcoctionStatGains() {
     for (Concoction item : ConcoctionPool.concoctions()) {
@@ -0,0 +1,95 @@
+package net.sourceforge.kolmafia.persistence;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import net.sourceforge.kolmafia.objectpool.Concoction;
+
+/**
+ * How many of each concoction there are, could be created, used and pulled, and what it costs, as
+ * of the end of one refresh of the concoction database. A snapshot never changes once made; each
+ * refresh publishes a new one, so readers on other threads see every count from the same refresh,
+ * and never the partly calculated values a refresh in progress leaves in the concoctions
+ * themselves.
+ *
+ * <p>A partial refresh changes only a few concoctions, so the snapshot it makes shares the counts
+ * of the last full one and records only the concoctions changed since, which are folded into a new
+ * full copy once they reach an eighth of it.
+ */
+public final class ConcoctionSnapshot {
+  public record Counts(
+      int initial, int creatable, int usable, int turnFree, int pullable, int price) {
+    static Counts of(final Concoction item) {
+      return new Counts(
+          item.initial,
+          Math.max(item.creatable, 0),
+          item.getAvailable(),
+          item.getTurnFreeAvailable(),
+          Math.max(item.pullable, 0),
+          item.getPrice());
+    }
+  }
+
+  public static final ConcoctionSnapshot EMPTY = new ConcoctionSnapshot(Map.of(), Map.of());
+
+  private final Map<Concoction, Counts> base;
+  private final Map<Concoction, Counts> changes;
+
+  private ConcoctionSnapshot(
+      final Map<Concoction, Counts> base, final Map<Concoction, Counts> changes) {
+    this.base = base;
+    this.changes = changes;
+  }
+
+  /** Makes a snapshot of these concoctions, as they are now. */
+  static ConcoctionSnapshot of(final Collection<Concoction> concoctions) {
+    Map<Concoction, Counts> counts = new HashMap<>(concoctions.size() * 2);
+    for (Concoction item : concoctions) {
+      counts.put(item, Counts.of(item));
+    }
+    return new ConcoctionSnapshot(Collections.unmodifiableMap(counts), Map.of());
+  }
+
+  /** Makes a snapshot with these concoctions as they are now, and the rest as in this one. */
+  ConcoctionSnapshot with(final Collection<Concoction> concoctions) {
+    Map<Concoction, Counts> changes =
+        new HashMap<>((this.changes.size() + concoctions.size()) * 2);
+    changes.putAll(this.changes);
+    for (Concoction item : concoctions) {
+      changes.put(item, Counts.of(item));
+    }
+
+    if (changes.size() * 8 < this.base.size()) {
+      return new ConcoctionSnapshot(this.base, Collections.unmodifiableMap(changes));
+    }
+
+    Map<Concoction, Counts> counts = new HashMap<>(this.base);
+    counts.putAll(changes);
+    return new ConcoctionSnapshot(Collections.unmodifiableMap(counts), Map.of());
+  }
+
+  /**
+   * @return the counts for this concoction, or, if no refresh has covered it yet, its counts as
+   *     they are now
+   */
+  public Counts get(final Concoction item) {
+    Counts counts = this.changes.get(item);
+    if (counts == null) {
+      counts = this.base.get(item);
+    }
+    return counts != null ? counts : Counts.of(item);
+  }
+
+  public int getCreatable(final Concoction item) {
+    return this.get(item).creatable();
+  }
+
+  public int getUsable(final Concoction item) {
+    return this.get(item).usable();
+  }
+
+  public int getPullable(final Concoction item) {
+    return this.get(item).pullable();
+  }
+}
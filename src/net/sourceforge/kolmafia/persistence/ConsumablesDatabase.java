@@ -1250,6 +1250,7 @@ public class ConsumablesDatabase {
             "0",
             effectTurns + " Buzzed on Distillate");
     c.getConcoction().resetCalculations();
+    ConcoctionDatabase.updateSnapshot(List.of(c.getConcoction()));
   }
 
   public static void setVariableConsumables() {
@@ -0,0 +1,162 @@
+package net.sourceforge.kolmafia.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import net.sourceforge.kolmafia.StaticEntity;
+import net.sourceforge.kolmafia.preferences.Preferences;
+
+/**
+ * Optionally loads the databases at startup in an explicit order, rather than whenever some other
+ * class first happens to touch them, and records how long each took.
+ *
+ * <p>This is off unless the global preference "databaseLoadThreads" is set above 0, as loading
+ * everything up front delays startup by the time taken by databases a session might never use.
+ * Setting it to 1 loads them one at a time in declared order, which is mostly useful for seeing
+ * what each costs.
+ *
+ * <p>Each database is loaded by its static initializer, so loading one means initializing its
+ * class. A database is only started once the ones it is declared to come after have finished.
+ * With more than one thread, databases whose dependencies are done load concurrently on a
+ * fork-join pool.
+ *
+ * <p>The databases behind items, effects, skills, modifiers, equipment, familiars and concoctions
+ * all refer to one another, so they are declared as a chain and load one at a time; initializing
+ * two classes which need each other on different threads would deadlock. The others refer to
+ * none of them, or are declared to come after the whole chain, and so may load concurrently.
+ */
+public class DatabaseInitializer {
+  private DatabaseInitializer() {}
+
+  private record Database(String name, Runnable load, List<String> after) {}
+
+  public record Timing(String name, long nanos, String thread, boolean failed) {}
+
+  private static final List<Database> DATABASES =
+      List.of(
+          database("HolidayDatabase"),
+          database("BountyDatabase"),
+          database("EffectDatabase"),
+          database("SkillDatabase", "EffectDatabase"),
+          database("ItemDatabase", "SkillDatabase"),
+          new Database(
+              "ModifierDatabase",
+              ModifierDatabase::ensureModifierDatabaseInitialised,
+              List.of("ItemDatabase")),
+          database("QuestDatabase", "ItemDatabase"),
+          database("NPCStoreDatabase", "HolidayDatabase", "QuestDatabase"),
+          database("EquipmentDatabase", "ModifierDatabase", "NPCStoreDatabase"),
+          database("FamiliarDatabase", "EquipmentDatabase"),
+          database("ConsumablesDatabase", "FamiliarDatabase", "HolidayDatabase"),
+          database("ConcoctionDatabase", "ConsumablesDatabase"),
+          database("CoinmastersDatabase", "ConcoctionDatabase"),
+          database("RestoresDatabase", "ConcoctionDatabase"),
+          database("DailyLimitDatabase", "ConcoctionDatabase"),
+          database("CafeDatabase", "ConcoctionDatabase"),
+          database("MonsterDatabase", "ConcoctionDatabase"),
+          database("AdventureDatabase", "MonsterDatabase", "BountyDatabase"),
+          database("FactDatabase", "MonsterDatabase"),
+          database("PocketDatabase", "MonsterDatabase"));
+
+  private static final List<Timing> timings = Collections.synchronizedList(new ArrayList<>());
+  private static boolean initialized = false;
+  private static long elapsed = 0;
+  private static int threads = 0;
+
+  private static Database database(final String name, final String... after) {
+    String className = DatabaseInitializer.class.getPackageName() + "." + name;
+    return new Database(
+        name,
+        () -> {
+          try {
+            Class.forName(className, true, DatabaseInitializer.class.getClassLoader());
+          } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+          }
+        },
+        List.of(after));
+  }
+
+  /** Loads every database, if asked to and unless that has been done already. */
+  public static synchronized void initialize() {
+    if (DatabaseInitializer.initialized) {
+      return;
+    }
+
+    int threads = Preferences.getInteger("databaseLoadThreads");
+    if (threads <= 0) {
+      return;
+    }
+    DatabaseInitializer.initialized = true;
+
+    long start = System.nanoTime();
+    if (threads == 1) {
+      DATABASES.forEach(DatabaseInitializer::load);
+    } else {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+        Map<String, CompletableFuture<Void>> loaded = new HashMap<>();
+        for (Database database : DATABASES) {
+          CompletableFuture<?>[] after =
+              database.after.stream().map(loaded::get).toArray(CompletableFuture[]::new);
+          loaded.put(
+              database.name,
+              CompletableFuture.allOf(after).thenRunAsync(() -> load(database), pool));
+        }
+        CompletableFuture.allOf(loaded.values().toArray(CompletableFuture[]::new)).join();
+      } finally {
+        pool.shutdown();
+      }
+    }
+    DatabaseInitializer.elapsed = System.nanoTime() - start;
+    DatabaseInitializer.threads = threads;
+  }
+
+  /** Forgets what has been loaded, so that {@link #initialize} loads (or times) them all again. */
+  static synchronized void reset() {
+    DatabaseInitializer.initialized = false;
+    DatabaseInitializer.timings.clear();
+    DatabaseInitializer.elapsed = 0;
+    DatabaseInitializer.threads = 0;
+  }
+
+  private static void load(final Database database) {
+    long start = System.nanoTime();
+    boolean failed = false;
+    try {
+      database.load.run();
+    } catch (Throwable e) {
+      // The class stays unusable, just as if it had failed to load on first use
+      failed = true;
+      StaticEntity.printStackTrace(e, "Unable to load " + database.name);
+    }
+    timings.add(
+        new Timing(
+            database.name, System.nanoTime() - start, Thread.currentThread().getName(), failed));
+  }
+
+  /**
+   * @return how long each database took to load, in the order they finished. A database loaded
+   *     early by another one's initializer is counted in that one.
+   */
+  public static List<Timing> getTimings() {
+    synchronized (timings) {
+      return List.copyOf(timings);
+    }
+  }
+
+  /**
+   * @return the wall clock time taken to load every database, in nanoseconds
+   */
+  public static long getElapsed() {
+    return DatabaseInitializer.elapsed;
+  }
+
+  public static int getThreads() {
+    return DatabaseInitializer.threads;
+  }
+}
@@ -32,12 +32,13 @@ import net.sourceforge.kolmafia.objectpool.OutfitPool;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.session.EquipmentManager;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
+import net.sourceforge.kolmafia.utilities.IntColumn;
 import net.sourceforge.kolmafia.utilities.LogStream;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class EquipmentDatabase {
-  private static final Map<Integer, Integer> power = new HashMap<>();
-  private static final Map<Integer, Integer> hands = new HashMap<>();
+  private static final IntColumn power = new IntColumn(0);
+  private static final IntColumn hands = new IntColumn(0);
   private static final Map<Integer, String> itemTypes = new HashMap<>();
   private static final Map<Integer, String> statRequirements = new HashMap<>();
 
@@ -46,7 +47,7 @@ public class EquipmentDatabase {
   private static final Map<Integer, String> outfitById = new TreeMap<>();
   public static final List<SpecialOutfit> weirdOutfits = new ArrayList<>();
 
-  private static final Map<Integer, Integer> pulverize = new HashMap<>();
+  private static final IntColumn pulverize = new IntColumn(0);
   // Values in pulverize are one of:
   //	0 - not initialized yet
   //	positive - ID of special-case pulverize result (worthless powder, epic wad, etc.)
@@ -510,7 +511,7 @@ public class EquipmentDatabase {
   }
 
   public static final int getPower(final int itemId) {
-    return EquipmentDatabase.power.getOrDefault(itemId, 0);
+    return EquipmentDatabase.power.get(itemId);
   }
 
   public static final void setPower(final int itemId, final int power) {
@@ -518,7 +519,7 @@ public class EquipmentDatabase {
   }
 
   public static final int getHands(final int itemId) {
-    return EquipmentDatabase.hands.getOrDefault(itemId, 0);
+    return EquipmentDatabase.hands.get(itemId);
   }
 
   public static final String getEquipRequirement(final int itemId) {
@@ -743,8 +744,8 @@ public class EquipmentDatabase {
     if (id < 0) {
       return -1;
     }
-    Integer pulver = EquipmentDatabase.pulverize.get(id);
-    if (pulver == null) {
+    int pulver = EquipmentDatabase.pulverize.get(id);
+    if (pulver == 0) {
       pulver = EquipmentDatabase.derivePulverization(id);
       EquipmentDatabase.pulverize.put(id, pulver);
     }
@@ -50,6 +50,7 @@ import net.sourceforge.kolmafia.session.ElVibratoManager;
 import net.sourceforge.kolmafia.session.ElVibratoManager.Punchcard;
 import net.sourceforge.kolmafia.session.EquipmentManager;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
+import net.sourceforge.kolmafia.utilities.IntColumn;
 import net.sourceforge.kolmafia.utilities.LogStream;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 import org.json.JSONException;
@@ -59,10 +60,13 @@ public class ItemDatabase {
   private static int maxItemId = 0;
 
   private static String[] canonicalNames = new String[0];
-  private static final Map<Integer, ConsumptionType> useTypeById = new HashMap<>();
-  private static final Map<Integer, EnumSet<Attribute>> attributesById = new HashMap<>();
-  private static final Map<Integer, Integer> priceById = new HashMap<>();
-  private static final Map<Integer, Integer> nameLength = new HashMap<>();
+  // Indexed by item id. Use types are kept as ordinals and attributes as bits, by ordinal
+  private static final ConsumptionType[] USE_TYPES = ConsumptionType.values();
+  private static final Attribute[] ATTRIBUTES = Attribute.values();
+  private static final IntColumn useTypeById = new IntColumn(ConsumptionType.NONE.ordinal());
+  private static final IntColumn attributesById = new IntColumn(0);
+  private static final IntColumn priceById = new IntColumn(0);
+  private static final IntColumn nameLength = new IntColumn(0);
   private static final Map<Integer, String> pluralById = new HashMap<>();
   private static final Map<Integer, String> imageById = new HashMap<>();
 
@@ -190,6 +194,11 @@ public class ItemDatabase {
       this.description = description;
     }
 
+    // There are fewer than 32 attributes, so an item's fit in the bits of an int
+    int bit() {
+      return 1 << this.ordinal();
+    }
+
     public static Attribute byDescription(String description) {
       var lookup = attributeByDescription.get(description);
       if (lookup != null) return lookup;
@@ -343,7 +352,7 @@ public class ItemDatabase {
         if (useType == null) {
           RequestLogger.printLine("Unknown primary usage for " + name + ": " + usage);
         } else {
-          ItemDatabase.useTypeById.put(itemId, useType);
+          ItemDatabase.useTypeById.put(itemId, useType.ordinal());
         }
 
         EnumSet<Attribute> attrs = EnumSet.noneOf(Attribute.class);
@@ -367,7 +376,7 @@ public class ItemDatabase {
           if (access.contains(a.description)) attrs.add(a);
         }
 
-        ItemDatabase.attributesById.put(itemId, attrs);
+        ItemDatabase.attributesById.put(itemId, ItemDatabase.attributeBits(attrs));
 
         if (itemId > ItemDatabase.maxItemId) {
           ItemDatabase.maxItemId = itemId;
@@ -843,24 +852,24 @@ public class ItemDatabase {
   }
 
   public static final void registerMultiUsability(final int itemId, final boolean multi) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     EnumSet<Attribute> attributes = ItemDatabase.getAttributes(itemId);
 
     if (multi) {
       // We think the item is single usable but it really is multiusable
       if (useType == ConsumptionType.USE) {
-        ItemDatabase.useTypeById.put(itemId, ConsumptionType.USE_MULTIPLE);
+        ItemDatabase.useTypeById.put(itemId, ConsumptionType.USE_MULTIPLE.ordinal());
       } else {
         attributes.add(Attribute.MULTIPLE);
-        ItemDatabase.attributesById.put(itemId, attributes);
+        ItemDatabase.attributesById.put(itemId, ItemDatabase.attributeBits(attributes));
       }
     } else {
       // We think the item is multi usable but it really is single usable
       if (useType == ConsumptionType.USE_MULTIPLE) {
-        ItemDatabase.useTypeById.put(itemId, ConsumptionType.USE);
+        ItemDatabase.useTypeById.put(itemId, ConsumptionType.USE.ordinal());
       } else {
         attributes.add(Attribute.USABLE);
-        ItemDatabase.attributesById.put(itemId, attributes);
+        ItemDatabase.attributesById.put(itemId, ItemDatabase.attributeBits(attributes));
       }
     }
   }
@@ -873,8 +882,8 @@ public class ItemDatabase {
     String text = DebugDatabase.itemDescriptionText(rawText);
     if (text == null) {
       // Assume defaults
-      ItemDatabase.useTypeById.put(itemId, ConsumptionType.NONE);
-      ItemDatabase.attributesById.put(itemId, EnumSet.noneOf(Attribute.class));
+      ItemDatabase.useTypeById.put(itemId, ConsumptionType.NONE.ordinal());
+      ItemDatabase.attributesById.put(itemId, 0);
       ItemDatabase.accessById.put(id, Attribute.TRADEABLE + "," + Attribute.DISCARDABLE);
       ItemDatabase.priceById.put(itemId, 0);
       return;
@@ -891,7 +900,7 @@ public class ItemDatabase {
     if (text.contains("blue\">Makes you look like")) {
       usage = ConsumptionType.AVATAR_POTION;
     }
-    ItemDatabase.useTypeById.put(itemId, usage);
+    ItemDatabase.useTypeById.put(itemId, usage.ordinal());
 
     String access = DebugDatabase.parseAccess(text);
     ItemDatabase.accessById.put(id, access);
@@ -903,7 +912,7 @@ public class ItemDatabase {
     if (multi && usage != ConsumptionType.USE_MULTIPLE) {
       attrs.add(Attribute.MULTIPLE);
     }
-    ItemDatabase.attributesById.put(itemId, attrs);
+    ItemDatabase.attributesById.put(itemId, ItemDatabase.attributeBits(attrs));
 
     int price = DebugDatabase.parsePrice(text);
     ItemDatabase.priceById.put(itemId, price);
@@ -1375,7 +1384,7 @@ public class ItemDatabase {
   }
 
   public static final int getNameLength(final int itemId) {
-    return ItemDatabase.nameLength.getOrDefault(itemId, 0);
+    return ItemDatabase.nameLength.get(itemId);
   }
 
   public static final String getPluralName(final String name) {
@@ -1486,7 +1495,7 @@ public class ItemDatabase {
    * @return The price associated with the item
    */
   public static final int getPriceById(final int itemId) {
-    return ItemDatabase.priceById.getOrDefault(itemId, 0);
+    return ItemDatabase.priceById.get(itemId);
   }
 
   /**
@@ -1499,8 +1508,22 @@ public class ItemDatabase {
   }
 
   public static final EnumSet<Attribute> getAttributes(int itemId) {
-    return EnumSet.copyOf(
-        ItemDatabase.attributesById.getOrDefault(itemId, EnumSet.noneOf(Attribute.class)));
+    int bits = ItemDatabase.attributesById.get(itemId);
+    EnumSet<Attribute> attributes = EnumSet.noneOf(Attribute.class);
+    for (var attr : ATTRIBUTES) {
+      if ((bits & attr.bit()) != 0) {
+        attributes.add(attr);
+      }
+    }
+    return attributes;
+  }
+
+  private static int attributeBits(final EnumSet<Attribute> attributes) {
+    int bits = 0;
+    for (var attr : attributes) {
+      bits |= attr.bit();
+    }
+    return bits;
   }
 
   public static final String attrsToSecondaryUsage(EnumSet<Attribute> attrs) {
@@ -1523,16 +1546,11 @@ public class ItemDatabase {
   }
 
   public static boolean getAttribute(int itemId, Attribute mask) {
-    var attrs = ItemDatabase.attributesById.getOrDefault(itemId, EnumSet.noneOf(Attribute.class));
-    return attrs.contains(mask);
+    return (ItemDatabase.attributesById.get(itemId) & mask.bit()) != 0;
   }
 
   public static boolean getAttribute(int itemId, EnumSet<Attribute> mask) {
-    var attrs = ItemDatabase.attributesById.getOrDefault(itemId, EnumSet.noneOf(Attribute.class));
-    for (var attr : mask) {
-      if (attrs.contains(attr)) return true;
-    }
-    return false;
+    return (ItemDatabase.attributesById.get(itemId) & ItemDatabase.attributeBits(mask)) != 0;
   }
 
   /**
@@ -1810,7 +1828,7 @@ public class ItemDatabase {
   public static boolean isUsable(final int itemId) {
     // Anything that you can manipulate with inv_use.php
 
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     EnumSet<Attribute> attributes = ItemDatabase.getAttributes(itemId);
 
     return switch (useType) {
@@ -1840,64 +1858,64 @@ public class ItemDatabase {
   }
 
   public static final boolean isPotion(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return (useType == ConsumptionType.POTION || useType == ConsumptionType.AVATAR_POTION);
   }
 
   public static final boolean isEquipment(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return KoLConstants.isEquipmentType(useType, true);
   }
 
   public static final boolean isFood(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.EAT;
   }
 
   public static final boolean isBooze(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.DRINK;
   }
 
   public static final boolean isHat(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.HAT;
   }
 
   public static final boolean isWeapon(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.WEAPON;
   }
 
   public static final boolean isOffHand(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.OFFHAND;
   }
 
   public static final boolean isShirt(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.SHIRT;
   }
 
   public static final boolean isPants(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.PANTS;
   }
 
   public static final boolean isAccessory(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.ACCESSORY;
   }
 
   public static final boolean isFamiliarEquipment(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     return useType == ConsumptionType.FAMILIAR_EQUIPMENT;
   }
 
   public static final boolean isMultiUsable(final int itemId) {
     // Anything that you can manipulate with multiuse.php
 
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     EnumSet<Attribute> attributes = ItemDatabase.getAttributes(itemId);
 
     return switch (useType) {
@@ -1908,7 +1926,7 @@ public class ItemDatabase {
   }
 
   public static final boolean isReusable(final int itemId) {
-    ConsumptionType useType = ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    ConsumptionType useType = ItemDatabase.useType(itemId);
     if (useType == ConsumptionType.USE_INFINITE) return true;
     EnumSet<Attribute> attributes = ItemDatabase.getAttributes(itemId);
     return attributes.contains(Attribute.REUSABLE);
@@ -2002,9 +2020,11 @@ public class ItemDatabase {
    * @return The consumption associated with the item
    */
   public static final ConsumptionType getConsumptionType(final int itemId) {
-    return itemId <= 0
-        ? ConsumptionType.NONE
-        : ItemDatabase.useTypeById.getOrDefault(itemId, ConsumptionType.NONE);
+    return itemId <= 0 ? ConsumptionType.NONE : ItemDatabase.useType(itemId);
+  }
+
+  private static ConsumptionType useType(final int itemId) {
+    return USE_TYPES[ItemDatabase.useTypeById.get(itemId)];
   }
 
   public static final ConsumptionType getConsumptionType(final AdventureResult item) {
@@ -32,6 +32,7 @@ import net.sourceforge.kolmafia.ModifierExpression;
 import net.sourceforge.kolmafia.ModifierType;
 import net.sourceforge.kolmafia.Modifiers;
 import net.sourceforge.kolmafia.RequestLogger;
+import net.sourceforge.kolmafia.SpeculationContext;
 import net.sourceforge.kolmafia.StaticEntity;
 import net.sourceforge.kolmafia.ZodiacSign;
 import net.sourceforge.kolmafia.maximizer.Maximizer;
@@ -59,8 +60,10 @@ public class ModifierDatabase {
   // maps for modifiers
   private static final TwoLevelEnumHashMap<ModifierType, IntOrString, String>
       modifierStringsByName = new TwoLevelEnumHashMap<>(ModifierType.class);
+  // Parsed modifiers are never changed once stored here, so they can be shared between threads.
+  // Variable modifiers are evaluated into a copy for each caller instead.
   private static final TwoLevelEnumHashMap<ModifierType, IntOrString, Modifiers> modifiersByName =
-      new TwoLevelEnumHashMap<>(ModifierType.class);
+      TwoLevelEnumHashMap.concurrent(ModifierType.class);
   private static final Map<String, Modifier> modifierTypesByName = new HashMap<>();
   private static final Map<String, String> familiarEffectByName = new HashMap<>();
 
@@ -379,11 +382,15 @@ public class ModifierDatabase {
 
       modifiers.variable = modifiers.override(lookup);
 
-      modifiersByName.put(type, key, modifiers);
+      // Another thread may have parsed the same modifiers meanwhile; keep the first
+      Modifiers parsed = modifiersByName.putIfAbsent(type, key, modifiers);
+      if (parsed != null) {
+        modifiers = parsed;
+      }
     }
 
     if (modifiers.variable) {
-      modifiers.override(lookup);
+      modifiers = modifiers.overlay(lookup);
       if (originalType != null) {
         modifiers.setLookup(new Lookup(originalType, key));
       }
@@ -424,35 +431,37 @@ public class ModifierDatabase {
       return 0.0;
     }
 
-    // TODO: I'm not keen on this setting a static variable??
-    Modifiers.setFamiliar(fam);
-
-    int weight = passedWeight;
-
-    Modifiers tempMods = new Modifiers();
-
-    // Mad Hatrack ... hats do not give their normal modifiers
-    // Fancypants Scarecrow ... pants do not give their normal modifiers
-    int itemId = item.getItemId();
-    ConsumptionType type = ItemDatabase.getConsumptionType(itemId);
-    if ((familiarId != FamiliarPool.HATRACK || type != ConsumptionType.HAT)
-        && (familiarId != FamiliarPool.SCARECROW || type != ConsumptionType.PANTS)) {
-      // Add in all the modifiers bestowed by this item
-      tempMods.add(getItemModifiers(itemId));
-
-      // Apply weight modifiers right now
-      weight += (int) tempMods.getDouble(DoubleModifier.FAMILIAR_WEIGHT);
-      weight += (int) tempMods.getDouble(DoubleModifier.HIDDEN_FAMILIAR_WEIGHT);
-      weight += (fam.getFeasted() ? 10 : 0);
-      double percent = tempMods.getDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT) / 100.0;
-      if (percent != 0.0) {
-        weight = (int) Math.floor(weight + weight * percent);
+    SpeculationContext previous = SpeculationContext.speculate().withFamiliar(fam).enter();
+    try {
+      int weight = passedWeight;
+
+      Modifiers tempMods = new Modifiers();
+
+      // Mad Hatrack ... hats do not give their normal modifiers
+      // Fancypants Scarecrow ... pants do not give their normal modifiers
+      int itemId = item.getItemId();
+      ConsumptionType type = ItemDatabase.getConsumptionType(itemId);
+      if ((familiarId != FamiliarPool.HATRACK || type != ConsumptionType.HAT)
+          && (familiarId != FamiliarPool.SCARECROW || type != ConsumptionType.PANTS)) {
+        // Add in all the modifiers bestowed by this item
+        tempMods.add(getItemModifiers(itemId));
+
+        // Apply weight modifiers right now
+        weight += (int) tempMods.getDouble(DoubleModifier.FAMILIAR_WEIGHT);
+        weight += (int) tempMods.getDouble(DoubleModifier.HIDDEN_FAMILIAR_WEIGHT);
+        weight += (fam.getFeasted() ? 10 : 0);
+        double percent = tempMods.getDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT) / 100.0;
+        if (percent != 0.0) {
+          weight = (int) Math.floor(weight + weight * percent);
+        }
       }
-    }
 
-    tempMods.lookupFamiliarModifiers(fam, weight, item);
+      tempMods.lookupFamiliarModifiers(fam, weight, item);
 
-    return tempMods.getNumeric(mod);
+      return tempMods.getNumeric(mod);
+    } finally {
+      SpeculationContext.restore(previous);
+    }
   }
 
   public static final boolean getBooleanModifier(
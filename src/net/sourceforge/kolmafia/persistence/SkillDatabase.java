@@ -16,6 +16,7 @@ import net.sourceforge.kolmafia.request.FightRequest;
 import net.sourceforge.kolmafia.request.UseSkillRequest;
 import net.sourceforge.kolmafia.request.UseSkillRequest.BuffTool;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
+import net.sourceforge.kolmafia.utilities.IntColumn;
 import net.sourceforge.kolmafia.utilities.LockableListFactory;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
@@ -68,12 +69,12 @@ public class SkillDatabase {
   private static final Map<Integer, String> imageById = new TreeMap<>();
   private static final Map<Integer, Long> mpConsumptionById = new HashMap<>();
   private static final Map<Integer, SkillType> skillTypeById = new TreeMap<>();
-  private static final Map<Integer, Integer> durationById = new HashMap<>();
-  private static final Map<Integer, Integer> levelById = new HashMap<>();
+  private static final IntColumn durationById = new IntColumn(-1);
+  private static final IntColumn levelById = new IntColumn(-1);
   private static final Map<Category, List<String>> skillsByCategory = new EnumMap<>(Category.class);
   private static final Map<Integer, Category> skillCategoryById = new HashMap<>();
   // Per-user data. Needs to be reset when log in as a new user.
-  private static final Map<Integer, Integer> castsById = new HashMap<>();
+  private static final IntColumn castsById = new IntColumn(0);
 
   public enum Category {
     UNKNOWN("unknown"),
@@ -445,8 +446,7 @@ public class SkillDatabase {
    * @return The level of the corresponding skill
    */
   public static final int getSkillLevel(final int skillId) {
-    Integer level = SkillDatabase.levelById.get(skillId);
-    return level == null ? -1 : level;
+    return SkillDatabase.levelById.get(skillId);
   }
 
   public static final int getSkillPurchaseCost(final int skillId) {
@@ -813,13 +813,11 @@ public class SkillDatabase {
    * @return The duration of effect the cast gives
    */
   public static final int getEffectDuration(final int skillId) {
-    Integer duration = SkillDatabase.durationById.get(skillId);
-    if (duration == null) {
+    int actualDuration = SkillDatabase.durationById.get(skillId);
+    if (actualDuration == -1) {
       return 0;
     }
 
-    int actualDuration = duration.intValue();
-
     SkillType type = SkillDatabase.getSkillType(skillId);
 
     if (type == SkillType.SONG) {
@@ -1597,12 +1595,7 @@ public class SkillDatabase {
 
   /** Method that is called when we need to update the number of casts for a given skill. */
   public static void registerCasts(int skillId, int count) {
-    Integer oldCasts = SkillDatabase.castsById.get(skillId);
-    if (oldCasts == null) {
-      oldCasts = 0;
-    }
-    int newCasts = oldCasts.intValue() + count;
-    SkillDatabase.castsById.put(skillId, newCasts);
+    SkillDatabase.castsById.put(skillId, SkillDatabase.castsById.get(skillId) + count);
   }
 
   public static String skillString(
@@ -1707,12 +1700,7 @@ public class SkillDatabase {
    * Utility method used to get the number of times a skill has been cast in the current session.
    */
   public static int getCasts(int skillId) {
-    Integer casts = SkillDatabase.castsById.get(skillId);
-
-    if (casts == null) {
-      return 0;
-    }
-    return casts.intValue();
+    return SkillDatabase.castsById.get(skillId);
   }
 
   public static boolean sourceAgentSkill(int skillId) {
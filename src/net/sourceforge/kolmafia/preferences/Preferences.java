@@ -22,6 +22,7 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import net.java.dev.spellcast.utilities.DataUtilities;
 import net.sourceforge.kolmafia.KoLCharacter;
 import net.sourceforge.kolmafia.KoLConstants;
@@ -59,6 +60,10 @@ public class Preferences {
       Collections.synchronizedSortedMap(new TreeMap<>());
   private static File userPropertiesFile = null;
 
+  // Counts every change to any value, so that anything computed from many preferences can tell
+  // cheaply whether it needs to be computed again
+  private static final AtomicLong changes = new AtomicLong();
+
   private static final Set<String> defaultsSet = new HashSet<>();
   private static final Set<String> perUserGlobalSet = new HashSet<>();
   private static final Set<String> onlyResetOnRollover =
@@ -621,6 +626,7 @@ public class Preferences {
 
   /** Resets all settings so that the given user is represented whenever settings are modified. */
   public static synchronized void reset(String username) {
+    Preferences.changes.incrementAndGet();
     // We might not have been tracking encoded values here before this save. Fix that.
     Preferences.reinitializeEncodedValues();
     Preferences.saveToFile(Preferences.globalPropertiesFile, Preferences.globalEncodedValues);
@@ -955,10 +961,18 @@ public class Preferences {
         if (trackEncoded) Preferences.userEncodedValues.remove(name);
       }
     }
+    Preferences.changes.incrementAndGet();
     Preferences.maybeSaveToFileAfterUpdating(trackEncoded, name);
     PreferenceListenerRegistry.firePreferenceChanged(name);
   }
 
+  /**
+   * @return a number which changes whenever any preference does
+   */
+  public static long getChangeCount() {
+    return Preferences.changes.get();
+  }
+
   public static boolean isGlobalProperty(final String name) {
     return Preferences.globalNames.containsKey(name);
   }
@@ -1278,6 +1292,7 @@ public class Preferences {
 
   private static void putGlobal(final String name, final Object value, boolean updateEncoded) {
     Preferences.globalValues.put(name, value);
+    Preferences.changes.incrementAndGet();
     if (updateEncoded) {
       Preferences.globalEncodedValues.put(
           name, encodeProperty(name, value.toString()).getBytes(StandardCharsets.UTF_8));
@@ -1290,6 +1305,7 @@ public class Preferences {
 
   private static void putUser(final String name, final Object value, boolean updateEncoded) {
     Preferences.userValues.put(name, value);
+    Preferences.changes.incrementAndGet();
     if (updateEncoded) {
       Preferences.userEncodedValues.put(
           name, encodeProperty(name, value.toString()).getBytes(StandardCharsets.UTF_8));
@@ -509,6 +509,7 @@ public class ClanLoungeRequest extends GenericRequest {
       availableSpeakeasyDrinks.add(drink);
       ClanManager.addToLounge(drink.getItem());
       drink.getConcoction().resetCalculations();
+      ConcoctionDatabase.updateSnapshot(List.of(drink.getConcoction()));
     }
   }
 
@@ -517,9 +518,12 @@ public class ClanLoungeRequest extends GenericRequest {
     availableSpeakeasyDrinks.clear();
 
     // Reset availability for all drinks
+    List<Concoction> concoctions = new ArrayList<>();
     for (var drink : ALL_SPEAKEASY) {
       drink.getConcoction().resetCalculations();
+      concoctions.add(drink.getConcoction());
     }
+    ConcoctionDatabase.updateSnapshot(concoctions);
   }
 
   public static boolean maybeAddSpeakeasyDrink(final AdventureResult item) {
@@ -529,6 +533,7 @@ public class ClanLoungeRequest extends GenericRequest {
     if (drink != null) {
       availableSpeakeasyDrinks.add(drink);
       drink.getConcoction().resetCalculations();
+      ConcoctionDatabase.updateSnapshot(List.of(drink.getConcoction()));
       // But clan items are intact from previous visit.
       return true;
     }
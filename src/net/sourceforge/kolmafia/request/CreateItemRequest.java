@@ -7,6 +7,7 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.swing.SwingUtilities;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.KoLAdventure;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -23,6 +24,7 @@ import net.sourceforge.kolmafia.objectpool.ConcoctionPool;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.objectpool.SkillPool;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
+import net.sourceforge.kolmafia.persistence.ConcoctionSnapshot;
 import net.sourceforge.kolmafia.persistence.ItemDatabase;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.session.EquipmentManager;
@@ -76,7 +78,7 @@ public class CreateItemRequest extends GenericRequest implements Comparable<Crea
   protected int beforeQuantity;
   private int yield;
 
-  protected int quantityNeeded, quantityPossible, quantityPullable;
+  protected int quantityNeeded;
 
   /**
    * Constructs a new <code>CreateItemRequest</code> with nothing known other than the form to use.
@@ -923,6 +925,7 @@ public class CreateItemRequest extends GenericRequest implements Comparable<Crea
 
     // Sort ingredients by their creatability, so that if the overall creation
     // is going to fail, it should do so immediately, without wasted effort.
+    ConcoctionSnapshot snapshot = ConcoctionDatabase.getSnapshot();
     Arrays.sort(
         ingredients,
         new Comparator<>() {
@@ -932,7 +935,9 @@ public class CreateItemRequest extends GenericRequest implements Comparable<Crea
             if (left == null) return -1;
             Concoction right = ConcoctionPool.get(o2);
             if (right == null) return 1;
-            return left.creatable < right.creatable ? -1 : left.creatable < right.creatable ? 1 : 0;
+            int leftCreatable = snapshot.getCreatable(left);
+            int rightCreatable = snapshot.getCreatable(right);
+            return leftCreatable < rightCreatable ? -1 : leftCreatable < rightCreatable ? 1 : 0;
           }
         });
 
@@ -1025,24 +1030,29 @@ public class CreateItemRequest extends GenericRequest implements Comparable<Crea
     this.quantityNeeded = quantityNeeded;
   }
 
-  /** Returns the quantity of items that could be created with available ingredients. */
+  /**
+   * Returns the quantity of items that could be created with available ingredients, waiting for
+   * any refresh which is pending on the refresh worker. The GUI does not wait: it shows the counts
+   * as of the last refreshConcoctions, and is updated again when the next one ends.
+   */
   public int getQuantityPossible() {
-    return this.quantityPossible;
-  }
-
-  /** Sets the quantity of items that could be created. This is set by refreshConcoctions. */
-  public void setQuantityPossible(final int quantityPossible) {
-    this.quantityPossible = quantityPossible;
+    CreateItemRequest.awaitRefresh();
+    return ConcoctionDatabase.getSnapshot().getCreatable(this.concoction);
   }
 
-  /** Returns the quantity of items that could be pulled with the current budget. */
+  /**
+   * Returns the quantity of items that could be pulled with the current budget, waiting for any
+   * refresh which is pending on the refresh worker, except in the GUI.
+   */
   public int getQuantityPullable() {
-    return this.quantityPullable;
+    CreateItemRequest.awaitRefresh();
+    return ConcoctionDatabase.getSnapshot().getPullable(this.concoction);
   }
 
-  /** Sets the quantity of items that could be pulled. This is set by refreshConcoctions. */
-  public void setQuantityPullable(final int quantityPullable) {
-    this.quantityPullable = quantityPullable;
+  private static void awaitRefresh() {
+    if (!SwingUtilities.isEventDispatchThread()) {
+      ConcoctionDatabase.awaitRefresh();
+    }
   }
 
   /**
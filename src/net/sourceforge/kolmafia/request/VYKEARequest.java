@@ -35,7 +35,7 @@ public class VYKEARequest extends CreateItemRequest {
   @Override
   public int getQuantityPossible() {
     // You can't create more than one VYKEA companion
-    return Math.min(this.quantityPossible, 1);
+    return Math.min(super.getQuantityPossible(), 1);
   }
 
   @Override
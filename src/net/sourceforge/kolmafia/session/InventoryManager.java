@@ -133,7 +133,7 @@ public abstract class InventoryManager {
   }
 
   public static final int getCount(final int itemId) {
-    return InventoryManager.getCount(ItemPool.get(itemId, 1));
+    return AdventureResult.getCount(itemId, KoLConstants.inventory);
   }
 
   public static final int getCount(final AdventureResult item) {
@@ -633,11 +633,24 @@ public abstract class MallPriceManager {
   }
 
   public static int getMallPrices(AdventureResult[] items, float maxAge) {
+    return MallPriceManager.getMallPrices(items, maxAge, false);
+  }
+
+  /**
+   * Looks up the mall prices of items whose known price is older than {@code maxAge}.
+   *
+   * @param interruptible whether to stop searching once the user has asked to stop
+   * @return the number of prices looked up
+   */
+  public static int getMallPrices(AdventureResult[] items, float maxAge, boolean interruptible) {
     // Count how many items we retrieved
     int count = 0;
 
     try {
       for (AdventureResult item : items) {
+        if (interruptible && !KoLmafia.permitsContinue()) {
+          break;
+        }
         int itemId = item.getItemId();
         if (!validMallItem(itemId)) {
           continue;
@@ -818,6 +818,16 @@ public class OptionsFrame extends GenericFrame {
               "maximizerCombinationLimit",
               8,
               "Maximum number of combinations to consider (0 for no max)"));
+      this.queue(
+          new PreferenceIntegerTextField(
+              "maximizerThreads",
+              4,
+              "Threads to use when considering combinations (0 for one per core)"));
+      this.queue(
+          new PreferenceIntegerTextField(
+              "maximizerResultCacheSize",
+              4,
+              "Results to remember while nothing has changed (0 to always search)"));
       this.queue(
           new PreferenceButtonGroup(
               "maximizerPriceLevel",
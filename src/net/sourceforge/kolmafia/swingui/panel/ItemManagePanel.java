@@ -319,7 +319,7 @@ public abstract class ItemManagePanel<E, S extends JComponent> extends Scrollabl
       } else {
         Concoction concoction = (Concoction) items[i];
         itemName = concoction.getName();
-        itemCount = concoction.getAvailable();
+        itemCount = ConcoctionDatabase.getSnapshot().getUsable(concoction);
         if (concoction.speakeasy != null) {
           itemCount -= ConcoctionDatabase.queuedSpeakeasyDrink;
         }
@@ -604,7 +604,7 @@ public class UseItemEnqueuePanel extends ItemListManagePanel<Concoction> impleme
     public boolean isVisible(final Object element) {
       Concoction creation = (Concoction) element;
 
-      if (creation.getAvailable() == 0) {
+      if (ConcoctionDatabase.getSnapshot().getUsable(creation) == 0) {
         return false;
       }
 
@@ -850,7 +850,7 @@ public class UseItemEnqueuePanel extends ItemListManagePanel<Concoction> impleme
       // turn-free
       if (UseItemEnqueuePanel.this.filters[1].isSelected()) {
         if ((item != null && item.getItemId() > 0)
-            && creation.getTurnFreeAvailable() == 0
+            && ConcoctionDatabase.getSnapshot().get(creation).turnFree() == 0
             && !KoLConstants.restaurantItems.contains(creation.getName())
             && !KoLConstants.microbreweryItems.contains(creation.getName())) {
           return false;
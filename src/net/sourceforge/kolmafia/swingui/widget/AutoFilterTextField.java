@@ -15,6 +15,7 @@ import net.java.dev.spellcast.utilities.LockableListModel.ListElementFilter;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.KoLAdventure;
 import net.sourceforge.kolmafia.objectpool.Concoction;
+import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase.QueuedConcoction;
 import net.sourceforge.kolmafia.persistence.FaxBotDatabase.Monster;
 import net.sourceforge.kolmafia.persistence.ItemDatabase;
@@ -212,7 +213,7 @@ public class AutoFilterTextField<E> extends AutoHighlightTextField
       return ((CreateItemRequest) element).getQuantityPossible();
     }
     if (element instanceof Concoction) {
-      return ((Concoction) element).getAvailable();
+      return ConcoctionDatabase.getSnapshot().getUsable((Concoction) element);
     }
     if (element instanceof SoldItem) {
       return ((SoldItem) element).getQuantity();
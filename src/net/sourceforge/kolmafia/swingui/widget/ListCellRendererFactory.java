@@ -25,7 +25,9 @@ import net.sourceforge.kolmafia.modifiers.StringModifier;
 import net.sourceforge.kolmafia.objectpool.Concoction;
 import net.sourceforge.kolmafia.objectpool.EffectPool;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase.QueuedConcoction;
+import net.sourceforge.kolmafia.persistence.ConcoctionSnapshot;
 import net.sourceforge.kolmafia.persistence.ConsumablesDatabase;
 import net.sourceforge.kolmafia.persistence.EffectDatabase;
 import net.sourceforge.kolmafia.persistence.EquipmentDatabase;
@@ -498,9 +500,10 @@ public class ListCellRendererFactory {
     }
 
     public boolean appendAmount(final StringBuffer stringForm, final Concoction item) {
+      ConcoctionSnapshot.Counts counts = ConcoctionDatabase.getSnapshot().get(item);
       if (item.getItem() != null) {
         boolean turnFreeOnly = Preferences.getBoolean("showTurnFreeOnly");
-        int modified = (turnFreeOnly ? item.getTurnFreeAvailable() : item.getAvailable());
+        int modified = (turnFreeOnly ? counts.turnFree() : counts.usable());
         int initial = item.getItem().getCount(KoLConstants.inventory);
 
         // hack for clip art summons: if "no-summon" is checked, only show on-hand items
@@ -509,8 +512,8 @@ public class ListCellRendererFactory {
           modified = initial;
         }
 
-        if (item.price > 0) {
-          stringForm.append(item.price);
+        if (counts.price() > 0) {
+          stringForm.append(counts.price());
           stringForm.append(" meat, ");
           stringForm.append(initial);
           stringForm.append(" current");
@@ -550,18 +553,18 @@ public class ListCellRendererFactory {
           }
           stringForm.append(" adv");
         }
-      } else if (item.getPrice() > 0) {
+      } else if (counts.price() > 0) {
         // The speakeasy doesn't give you a discount.
         int price =
-            item.speakeasy != null ? item.getPrice() : CafeRequest.discountedPrice(item.getPrice());
+            item.speakeasy != null ? counts.price() : CafeRequest.discountedPrice(counts.price());
         stringForm.append(price);
         stringForm.append(" meat");
         return false;
       } else if (item.special) {
-        stringForm.append(item.initial);
+        stringForm.append(counts.initial());
         return false;
       }
-      return item.initial + item.creatable <= 0;
+      return counts.initial() + counts.creatable() <= 0;
     }
 
     protected void appendRange(
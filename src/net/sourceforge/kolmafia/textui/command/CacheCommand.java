@@ -1,13 +1,18 @@
 package net.sourceforge.kolmafia.textui.command;
 
+import net.sourceforge.kolmafia.AreaCombatData;
+import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.RelayRequest;
+import net.sourceforge.kolmafia.utilities.StringCache.Stats;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class CacheCommand extends AbstractCommand {
   public CacheCommand() {
-    this.usage = "[clear] - get image cache status or clear cache.";
+    this.usage =
+        "[clear | strings | encounters] - get image cache status or clear cache, "
+            + "or show use of the string or encounter caches.";
   }
 
   @Override
@@ -27,6 +32,56 @@ public class CacheCommand extends AbstractCommand {
 
     if (command.equals("clear")) {
       RelayRequest.clearImageCache();
+      return;
+    }
+
+    if (command.equals("strings")) {
+      StringBuilder output = new StringBuilder();
+      output.append("<table border=2 cols=5>");
+      output
+          .append("<tr>")
+          .append("<th>Cache</th>")
+          .append("<th>Hits</th>")
+          .append("<th>Misses</th>")
+          .append("<th>Evictions</th>")
+          .append("<th>Size</th>")
+          .append("</tr>");
+
+      for (Stats stats : StringUtilities.getCacheStats()) {
+        output
+            .append("<tr>")
+            .append("<td>")
+            .append(stats.name())
+            .append("</td>")
+            .append("<td>")
+            .append(KoLConstants.COMMA_FORMAT.format(stats.hits()))
+            .append("</td>")
+            .append("<td>")
+            .append(KoLConstants.COMMA_FORMAT.format(stats.misses()))
+            .append("</td>")
+            .append("<td>")
+            .append(KoLConstants.COMMA_FORMAT.format(stats.evictions()))
+            .append("</td>")
+            .append("<td>")
+            .append(stats.size())
+            .append(" / ")
+            .append(stats.capacity())
+            .append("</td>")
+            .append("</tr>");
+      }
+      output.append("</table>");
+
+      RequestLogger.printLine(output.toString());
+      RequestLogger.printLine();
+    }
+
+    if (command.equals("encounters")) {
+      RequestLogger.printLine(
+          "Encounter chances were found in the cache "
+              + KoLConstants.COMMA_FORMAT.format(AreaCombatData.getCacheHits())
+              + " times and computed "
+              + KoLConstants.COMMA_FORMAT.format(AreaCombatData.getCacheRebuilds())
+              + " times.");
     }
   }
 }
@@ -0,0 +1,61 @@
+package net.sourceforge.kolmafia.textui.command;
+
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.RequestLogger;
+import net.sourceforge.kolmafia.persistence.DatabaseInitializer;
+import net.sourceforge.kolmafia.persistence.DatabaseInitializer.Timing;
+
+public class DatabasesCommand extends AbstractCommand {
+  public DatabasesCommand() {
+    this.usage = " - show how long each database took to load at startup.";
+  }
+
+  @Override
+  public void run(final String cmd, final String parameters) {
+    var timings = DatabaseInitializer.getTimings();
+    if (timings.isEmpty()) {
+      RequestLogger.printLine(
+          "Databases were loaded as needed. Set databaseLoadThreads above 0 to time them.");
+      return;
+    }
+
+    StringBuilder output = new StringBuilder();
+    output.append("<table border=2 cols=3>");
+    output
+        .append("<tr>")
+        .append("<th>Database</th>")
+        .append("<th>Milliseconds</th>")
+        .append("<th>Thread</th>")
+        .append("</tr>");
+
+    long total = 0;
+    for (Timing timing : timings) {
+      total += timing.nanos();
+      output
+          .append("<tr>")
+          .append("<td>")
+          .append(timing.name())
+          .append(timing.failed() ? " (failed)" : "")
+          .append("</td>")
+          .append("<td>")
+          .append(KoLConstants.FLOAT_FORMAT.format(timing.nanos() / 1e6))
+          .append("</td>")
+          .append("<td>")
+          .append(timing.thread())
+          .append("</td>")
+          .append("</tr>");
+    }
+    output.append("</table>");
+
+    RequestLogger.printLine(output.toString());
+    RequestLogger.printLine(
+        "Loaded in "
+            + KoLConstants.FLOAT_FORMAT.format(DatabaseInitializer.getElapsed() / 1e6)
+            + " ms on "
+            + DatabaseInitializer.getThreads()
+            + " thread(s), "
+            + KoLConstants.FLOAT_FORMAT.format(total / 1e6)
+            + " ms in total.");
+    RequestLogger.printLine();
+  }
+}
@@ -4,6 +4,7 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
+import net.sourceforge.kolmafia.textui.parsetree.ProxyRecordValue;
 import net.sourceforge.kolmafia.textui.parsetree.Type;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Function;
@@ -26,15 +27,12 @@ public class EnumeratedWrapperPrototype extends ScriptableObject {
     setPrototype(ScriptableObject.getObjectPrototype(scope));
 
     if (recordValueClass != null) {
-      for (Method method : recordValueClass.getDeclaredMethods()) {
-        if (method.getName().startsWith("get_")) {
-          ProxyRecordMethodWrapper methodWrapper =
-              new ProxyRecordMethodWrapper(
-                  scope, ScriptableObject.getFunctionPrototype(scope), method);
-          String methodShortName =
-              JavascriptRuntime.toCamelCase(method.getName().replace("get_", ""));
-          setGetterOrSetter(methodShortName, 0, methodWrapper, false);
-        }
+      for (var entry : ProxyRecordValue.getters(recordValueClass).entrySet()) {
+        ProxyRecordMethodWrapper methodWrapper =
+            new ProxyRecordMethodWrapper(
+                scope, ScriptableObject.getFunctionPrototype(scope), entry.getValue());
+        String methodShortName = JavascriptRuntime.toCamelCase(entry.getKey());
+        setGetterOrSetter(methodShortName, 0, methodWrapper, false);
       }
     }
 
@@ -31,6 +31,10 @@ public class Assignment extends Evaluable {
     return this.oper;
   }
 
+  boolean hasRightHandSide() {
+    return this.rhs != null;
+  }
+
   public Evaluable getRightHandSide() {
     return this.rhs == null
         ? Value.locate(this.lhs.getLocation(), this.lhs.getType().initialValueExpression())
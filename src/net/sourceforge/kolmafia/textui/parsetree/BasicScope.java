@@ -396,8 +396,7 @@ public abstract class BasicScope extends Command {
     }
   }
 
-  @Override
-  public Value execute(final AshRuntime interpreter) {
+  void pause() {
     // Yield control at the top of the scope to
     // allow other tasks to run and keyboard input -
     // especially the Escape key - to be accepted.
@@ -411,6 +410,11 @@ public abstract class BasicScope extends Command {
       BasicScope.nextPause = t + 100L;
       this.pauser.pause(1);
     }
+  }
+
+  @Override
+  public Value execute(final AshRuntime interpreter) {
+    this.pause();
 
     try {
       Value result = DataTypes.VOID_VALUE;
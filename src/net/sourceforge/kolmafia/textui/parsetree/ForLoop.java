@@ -5,6 +5,7 @@ import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes;
 import net.sourceforge.kolmafia.textui.Parser;
+import net.sourceforge.kolmafia.textui.ScriptException;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 import org.eclipse.lsp4j.Location;
 
@@ -56,6 +57,10 @@ public class ForLoop extends Loop {
     return this.direction;
   }
 
+  ScriptException runtimeException(final AshRuntime interpreter, final String message) {
+    return interpreter.runtimeException(message, this.fileName, this.lineNumber);
+  }
+
   @Override
   public Value execute(final AshRuntime interpreter) {
     if (!KoLmafia.permitsContinue()) {
@@ -0,0 +1,766 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import net.sourceforge.kolmafia.KoLmafia;
+import net.sourceforge.kolmafia.textui.AshRuntime;
+import net.sourceforge.kolmafia.textui.DataTypes;
+import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
+import net.sourceforge.kolmafia.textui.Parser;
+import net.sourceforge.kolmafia.textui.ScriptRuntime.State;
+
+/**
+ * Compiles the body of a {@link UserDefinedFunction} into a tree of lambdas, for functions called
+ * often enough that walking the parse tree is a large part of what they cost.
+ *
+ * <p>Each compiled node does exactly what the {@code execute} method of its parse tree node does,
+ * in the same order, including capturing values and checking the interpreter state, but leaves
+ * out tracing and resolves everything that depends only on the parse tree, such as which
+ * operator to apply and which type to coerce to, once rather than on every execution. A node of a
+ * kind not compiled here is run by the interpreter, so any function body can be compiled.
+ *
+ * <p>Compiled code never traces, so {@link UserDefinedFunction} only runs it while tracing and
+ * profiling are off.
+ */
+final class FunctionCompiler {
+  private FunctionCompiler() {}
+
+  @FunctionalInterface
+  interface Code {
+    Value execute(AshRuntime interpreter);
+  }
+
+  @FunctionalInterface
+  private interface Binary {
+    Value apply(AshRuntime interpreter, Value leftValue, Value rightValue);
+  }
+
+  static Code compile(final Scope scope) {
+    return FunctionCompiler.compileScope(scope);
+  }
+
+  private static Code compileCommand(final Command command) {
+    Code code = null;
+
+    if (command instanceof Value.Constant constant) {
+      Value value = constant.value;
+      code = interpreter -> value;
+    } else if (command.getClass() == VariableReference.class) {
+      Variable target = ((VariableReference) command).target;
+      code = target::getValue;
+    } else if (command.getClass() == Operation.class) {
+      code = FunctionCompiler.compileOperation((Operation) command);
+    } else if (command.getClass() == Assignment.class) {
+      code = FunctionCompiler.compileAssignment((Assignment) command);
+    } else if (command.getClass() == IncDec.class) {
+      code = FunctionCompiler.compileIncDec((IncDec) command);
+    } else if (command.getClass() == FunctionCall.class) {
+      code = FunctionCompiler.compileCall((FunctionCall) command);
+    } else if (command.getClass() == FunctionReturn.class) {
+      code = FunctionCompiler.compileReturn((FunctionReturn) command);
+    } else if (command.getClass() == If.class) {
+      code = FunctionCompiler.compileIf((If) command);
+    } else if (command.getClass() == WhileLoop.class) {
+      code = FunctionCompiler.compileWhile((WhileLoop) command);
+    } else if (command.getClass() == ForLoop.class) {
+      code = FunctionCompiler.compileFor((ForLoop) command);
+    } else if (command.getClass() == LoopBreak.class) {
+      code = FunctionCompiler.compileState(State.BREAK);
+    } else if (command.getClass() == LoopContinue.class) {
+      code = FunctionCompiler.compileState(State.CONTINUE);
+    } else if (command.getClass() == Scope.class) {
+      code = FunctionCompiler.compileScope((Scope) command);
+    }
+
+    return code != null ? code : command::execute;
+  }
+
+  /** Executes an operand and captures its value, as the interpreter does. */
+  private static Value operand(final Code code, final AshRuntime interpreter) {
+    Value value = code.execute(interpreter);
+    interpreter.captureValue(value);
+    return value == null ? DataTypes.VOID_VALUE : value;
+  }
+
+  private static boolean exiting(final AshRuntime interpreter) {
+    return interpreter.getState() == State.EXIT;
+  }
+
+  private static boolean stopped(final AshRuntime interpreter) {
+    if (!KoLmafia.permitsContinue()) {
+      interpreter.setState(State.EXIT);
+      return true;
+    }
+    return false;
+  }
+
+  // BasicScope.execute
+  private static Code compileScope(final Scope scope) {
+    Code[] commands =
+        scope.getCommandList().stream().map(FunctionCompiler::compileCommand).toArray(Code[]::new);
+
+    return interpreter -> {
+      scope.pause();
+
+      try {
+        Value result = DataTypes.VOID_VALUE;
+
+        for (Code command : commands) {
+          result = command.execute(interpreter);
+
+          if (!KoLmafia.permitsContinue()) {
+            interpreter.setState(State.EXIT);
+          }
+
+          if (result == null) {
+            result = DataTypes.VOID_VALUE;
+          }
+
+          if (interpreter.getState() != State.NORMAL) {
+            break;
+          }
+        }
+
+        return result;
+      } finally {
+        scope.executed = true;
+      }
+    };
+  }
+
+  // ScriptState.execute
+  private static Code compileState(final State state) {
+    return interpreter -> {
+      interpreter.setState(state);
+      return DataTypes.VOID_VALUE;
+    };
+  }
+
+  // Operation.execute and Operator.applyTo
+  private static Code compileOperation(final Operation operation) {
+    Operator oper = operation.getOperator();
+    Evaluable lhs = operation.getLeftHandSide();
+    Evaluable rhs = operation.getRightHandSide();
+
+    if (rhs == null) {
+      return FunctionCompiler.compileUnary(oper, lhs);
+    }
+
+    Code left = FunctionCompiler.compileCommand(lhs);
+    Code right = FunctionCompiler.compileCommand(rhs);
+
+    if (oper.equals("||") || oper.equals("&&")) {
+      long shortCircuit = oper.equals("||") ? 1 : 0;
+      Value shortValue = oper.equals("||") ? DataTypes.TRUE_VALUE : DataTypes.FALSE_VALUE;
+
+      return interpreter -> {
+        Value leftValue = FunctionCompiler.operand(left, interpreter);
+        if (FunctionCompiler.exiting(interpreter)) {
+          return null;
+        }
+        if (leftValue.intValue() == shortCircuit) {
+          return shortValue;
+        }
+        Value rightValue = FunctionCompiler.operand(right, interpreter);
+        if (FunctionCompiler.exiting(interpreter)) {
+          return null;
+        }
+        return rightValue;
+      };
+    }
+
+    // The interpreter reports operands which do not correspond when it
+    // reaches them, so leave them to it.
+    if (!oper.validCoercion(lhs.getType(), rhs.getType())) {
+      return null;
+    }
+
+    Binary binary = FunctionCompiler.compileBinary(oper);
+    if (binary == null) {
+      return null;
+    }
+
+    return interpreter -> {
+      Value leftValue = FunctionCompiler.operand(left, interpreter);
+      if (FunctionCompiler.exiting(interpreter)) {
+        return null;
+      }
+      Value rightValue = FunctionCompiler.operand(right, interpreter);
+      if (FunctionCompiler.exiting(interpreter)) {
+        return null;
+      }
+      return binary.apply(interpreter, leftValue, rightValue);
+    };
+  }
+
+  private static Code compileUnary(final Operator oper, final Evaluable lhs) {
+    Type type = lhs.getType();
+
+    UnaryOperator<Value> unary =
+        switch (oper.operator) {
+          case "!" -> value -> DataTypes.makeBooleanValue(value.intValue() == 0);
+          case "~" -> value ->
+              value.getType().equals(TypeSpec.BOOLEAN)
+                  ? DataTypes.makeBooleanValue(value.intValue() == 0)
+                  : DataTypes.makeIntValue(~value.intValue());
+          case "-" -> type.equals(TypeSpec.INT)
+              ? value -> DataTypes.makeIntValue(0 - value.intValue())
+              : type.equals(TypeSpec.FLOAT)
+                  ? value -> DataTypes.makeFloatValue(0.0 - value.floatValue())
+                  : null;
+          default -> null;
+        };
+
+    if (unary == null) {
+      return null;
+    }
+
+    Code left = FunctionCompiler.compileCommand(lhs);
+
+    return interpreter -> {
+      Value leftValue = FunctionCompiler.operand(left, interpreter);
+      if (FunctionCompiler.exiting(interpreter)) {
+        return null;
+      }
+      return unary.apply(leftValue);
+    };
+  }
+
+  /**
+   * @return the operator applied to two values, or null if only the interpreter applies it
+   */
+  private static Binary compileBinary(final Operator oper) {
+    return switch (oper.operator) {
+      case "==" -> (interpreter, l, r) -> DataTypes.makeBooleanValue(l.equals(r));
+      case "!=" -> (interpreter, l, r) -> DataTypes.makeBooleanValue(!l.equals(r));
+      case Parser.APPROX -> (interpreter, l, r) ->
+          DataTypes.makeBooleanValue(l.equalsIgnoreCase(r));
+      case ">=" -> (interpreter, l, r) -> DataTypes.makeBooleanValue(l.compareTo(r) >= 0);
+      case "<=" -> (interpreter, l, r) -> DataTypes.makeBooleanValue(l.compareTo(r) <= 0);
+      case ">" -> (interpreter, l, r) -> DataTypes.makeBooleanValue(l.compareTo(r) > 0);
+      case "<" -> (interpreter, l, r) -> DataTypes.makeBooleanValue(l.compareTo(r) < 0);
+      case "contains" -> (interpreter, l, r) -> DataTypes.makeBooleanValue(l.contains(r));
+      case "+", "-", "*", "/", "%", "**", "&", "^", "|", "<<", ">>", ">>>" -> (interpreter, l, r) ->
+          FunctionCompiler.arithmetic(oper, interpreter, l, r);
+      default -> null;
+    };
+  }
+
+  // Operator.performArithmetic
+  private static Value arithmetic(
+      final Operator oper,
+      final AshRuntime interpreter,
+      final Value leftValue,
+      final Value rightValue) {
+    Type ltype = leftValue.getType();
+    Type rtype = rightValue.getType();
+    String op = oper.operator;
+
+    // If either side is non-numeric, perform string operations
+    if (ltype.isStringLike() || rtype.isStringLike()) {
+      if (!op.equals("+")) {
+        throw oper.runtimeException(
+            interpreter, "Operator '" + op + "' applied to string operands");
+      }
+      return new Value(leftValue.toStringValue().toString() + rightValue.toStringValue());
+    }
+
+    // If either value is a float, coerce to float
+    if (ltype.equals(TypeSpec.FLOAT) || rtype.equals(TypeSpec.FLOAT)) {
+      double rfloat = rightValue.toFloatValue().floatValue();
+      if ((op.equals("/") || op.equals("%")) && rfloat == 0.0) {
+        throw oper.runtimeException(interpreter, "Division by zero");
+      }
+
+      double lfloat = leftValue.toFloatValue().floatValue();
+      double val =
+          switch (op) {
+            case "+" -> lfloat + rfloat;
+            case "-" -> lfloat - rfloat;
+            case "*" -> lfloat * rfloat;
+            case "/" -> lfloat / rfloat;
+            case "%" -> lfloat % rfloat;
+            case "**" -> Math.pow(lfloat, rfloat);
+            default -> 0.0;
+          };
+
+      if (op.equals("**") && (Double.isNaN(val) || Double.isInfinite(val))) {
+        throw oper.runtimeException(
+            interpreter, "Invalid exponentiation: cannot take " + lfloat + " ** " + rfloat);
+      }
+
+      return DataTypes.makeFloatValue(val);
+    }
+
+    // If this is a logical operator, return an int or boolean
+    if (oper.isLogical()) {
+      long lint = leftValue.intValue();
+      long rint = rightValue.intValue();
+      long val =
+          switch (op) {
+            case "&" -> lint & rint;
+            case "^" -> lint ^ rint;
+            case "|" -> lint | rint;
+            default -> 0;
+          };
+      return ltype.equals(TypeSpec.BOOLEAN)
+          ? DataTypes.makeBooleanValue(val != 0)
+          : DataTypes.makeIntValue(val);
+    }
+
+    // Otherwise, perform arithmetic on integers
+    long rint = rightValue.intValue();
+    if ((op.equals("/") || op.equals("%")) && rint == 0) {
+      throw oper.runtimeException(interpreter, "Division by zero");
+    }
+
+    long lint = leftValue.intValue();
+    long val =
+        switch (op) {
+          case "+" -> lint + rint;
+          case "-" -> lint - rint;
+          case "*" -> lint * rint;
+          case "/" -> lint / rint;
+          case "%" -> lint % rint;
+          case "**" -> (long) Math.pow(lint, rint);
+          case "<<" -> lint << rint;
+          case ">>" -> lint >> rint;
+          case ">>>" -> lint >>> rint;
+          default -> 0;
+        };
+    return DataTypes.makeIntValue(val);
+  }
+
+  // Assignment.execute
+  private static Code compileAssignment(final Assignment assignment) {
+    if (!assignment.hasRightHandSide()
+        || assignment.getLeftHandSide().getClass() != VariableReference.class) {
+      return null;
+    }
+
+    VariableReference lhs = assignment.getLeftHandSide();
+    Code rhs = FunctionCompiler.compileCommand(assignment.getRightHandSide());
+    Type type = lhs.getType();
+    Operator oper = assignment.getOperator();
+
+    if (oper == null) {
+      return interpreter -> {
+        if (FunctionCompiler.stopped(interpreter)) {
+          return null;
+        }
+
+        Value value = rhs.execute(interpreter);
+        interpreter.captureValue(value);
+
+        if (FunctionCompiler.exiting(interpreter)) {
+          return null;
+        }
+
+        return lhs.setValue(interpreter, FunctionCompiler.coerce(type, value));
+      };
+    }
+
+    // Other types either concatenate or are assigned without applying the
+    // operator at all, so leave them to the interpreter.
+    if (!type.equals(TypeSpec.INT) && !type.equals(TypeSpec.FLOAT)
+        || !oper.validCoercion(type, type)) {
+      return null;
+    }
+
+    Binary binary = FunctionCompiler.compileBinary(oper);
+    if (binary == null) {
+      return null;
+    }
+
+    return interpreter -> {
+      if (FunctionCompiler.stopped(interpreter)) {
+        return null;
+      }
+
+      Value value = rhs.execute(interpreter);
+      interpreter.captureValue(value);
+
+      if (FunctionCompiler.exiting(interpreter)) {
+        return null;
+      }
+
+      value = FunctionCompiler.coerce(type, value);
+
+      // VariableReference.setValue applies the operator to values it has
+      // already evaluated, which the interpreter captures again.
+      Value currentValue = FunctionCompiler.operand(lhs.target::getValue, interpreter);
+      if (FunctionCompiler.exiting(interpreter)) {
+        return null;
+      }
+      interpreter.captureValue(value);
+      if (FunctionCompiler.exiting(interpreter)) {
+        return null;
+      }
+
+      Value newValue = binary.apply(interpreter, currentValue, value);
+      lhs.target.setValue(interpreter, newValue);
+      return newValue;
+    };
+  }
+
+  private static Value coerce(final Type type, final Value value) {
+    return switch (type.getType()) {
+      case STRING -> value.toStringValue();
+      case INT -> value.toIntValue();
+      case FLOAT -> value.toFloatValue();
+      case BOOLEAN -> value.toBooleanValue();
+      default -> value;
+    };
+  }
+
+  // IncDec.execute
+  private static Code compileIncDec(final IncDec incDec) {
+    VariableReference lhs = incDec.getLeftHandSide();
+    if (lhs.getClass() != VariableReference.class) {
+      return null;
+    }
+
+    Operator oper = incDec.getOperator();
+    String op = oper.operator;
+    boolean pre = op.equals(Parser.PRE_INCREMENT) || op.equals(Parser.PRE_DECREMENT);
+    long delta =
+        op.equals(Parser.PRE_INCREMENT) || op.equals(Parser.POST_INCREMENT)
+            ? 1
+            : op.equals(Parser.PRE_DECREMENT) || op.equals(Parser.POST_DECREMENT) ? -1 : 0;
+    if (delta == 0) {
+      return null;
+    }
+
+    return interpreter -> {
+      if (FunctionCompiler.stopped(interpreter)) {
+        return null;
+      }
+
+      Value value = lhs.target.getValue(interpreter);
+      interpreter.captureValue(value);
+
+      // Operator.applyTo evaluates and captures the value again
+      Value leftValue = value;
+      interpreter.captureValue(leftValue);
+      if (leftValue == null) {
+        leftValue = DataTypes.VOID_VALUE;
+      }
+
+      Value newValue = null;
+      if (!FunctionCompiler.exiting(interpreter)) {
+        if (leftValue.getType().equals(TypeSpec.INT)) {
+          newValue = DataTypes.makeIntValue(leftValue.intValue() + delta);
+        } else if (leftValue.getType().equals(TypeSpec.FLOAT)) {
+          newValue = DataTypes.makeFloatValue(leftValue.floatValue() + delta);
+        } else {
+          throw oper.runtimeException(
+              interpreter, "Internal error: pre/post increment can only be applied to numbers");
+        }
+        lhs.target.setValue(interpreter, newValue);
+      }
+
+      if (FunctionCompiler.exiting(interpreter)) {
+        return null;
+      }
+
+      return pre ? newValue : value;
+    };
+  }
+
+  // FunctionCall.execute
+  private static Code compileCall(final FunctionCall call) {
+    Code[] params =
+        call.getParams().stream().map(FunctionCompiler::compileCommand).toArray(Code[]::new);
+
+    return interpreter -> {
+      // Only the interpreter measures calls for the profiler
+      if (interpreter.profiler != null) {
+        return call.execute(interpreter);
+      }
+
+      if (FunctionCompiler.stopped(interpreter)) {
+        return null;
+      }
+
+      Object[] values = new Object[params.length + 1];
+      values[0] = interpreter;
+
+      for (int i = 0; i < params.length; ++i) {
+        Value value = FunctionCompiler.operand(params[i], interpreter);
+        if (FunctionCompiler.exiting(interpreter)) {
+          return null;
+        }
+        values[i + 1] = value;
+      }
+
+      Function target = call.getTarget();
+      interpreter.setLineAndFile(call.fileName, call.lineNumber);
+      interpreter.pushFrame(target.getName());
+
+      Value result = target.execute(interpreter, values);
+
+      if (!FunctionCompiler.exiting(interpreter)) {
+        interpreter.setState(State.NORMAL);
+      }
+
+      interpreter.popFrame();
+      return result;
+    };
+  }
+
+  // FunctionReturn.execute
+  private static Code compileReturn(final FunctionReturn functionReturn) {
+    if (functionReturn.getExpression() == null) {
+      return interpreter -> {
+        if (!KoLmafia.permitsContinue()) {
+          interpreter.setState(State.EXIT);
+        }
+        if (!FunctionCompiler.exiting(interpreter)) {
+          interpreter.setState(State.RETURN);
+        }
+        return null;
+      };
+    }
+
+    Code returnValue = FunctionCompiler.compileCommand(functionReturn.getExpression());
+    Type expectedType = functionReturn.getExpectedType();
+    TypeSpec coercion = expectedType == null ? TypeSpec.ANY : expectedType.getType();
+
+    return interpreter -> {
+      if (!KoLmafia.permitsContinue()) {
+        interpreter.setState(State.EXIT);
+      }
+
+      if (FunctionCompiler.exiting(interpreter)) {
+        return null;
+      }
+
+      Value result = returnValue.execute(interpreter);
+      interpreter.captureValue(result);
+
+      if (result == null) {
+        return null;
+      }
+
+      if (!FunctionCompiler.exiting(interpreter)) {
+        interpreter.setState(State.RETURN);
+      }
+
+      return switch (coercion) {
+        case STRING -> result.toStringValue();
+        case FLOAT -> result.toFloatValue();
+        case INT -> result.toIntValue();
+        default -> result;
+      };
+    };
+  }
+
+  // If.execute, Conditional.execute and Else.execute
+  private static Code compileIf(final If command) {
+    List<Code> branches = new ArrayList<>();
+    branches.add(FunctionCompiler.compileBranch(command));
+    Iterator<Conditional> it = command.getElseLoopIterator();
+    while (it.hasNext()) {
+      branches.add(FunctionCompiler.compileBranch(it.next()));
+    }
+    Code[] chain = branches.toArray(new Code[0]);
+
+    return interpreter -> {
+      for (Code branch : chain) {
+        Value result = branch.execute(interpreter);
+
+        if (interpreter.getState() != State.NORMAL || result == DataTypes.TRUE_VALUE) {
+          return result;
+        }
+      }
+
+      return DataTypes.FALSE_VALUE;
+    };
+  }
+
+  private static Code compileBranch(final Conditional branch) {
+    Code scope = FunctionCompiler.compileScope(branch.getScope());
+
+    if (branch instanceof Else) {
+      return interpreter -> {
+        if (FunctionCompiler.stopped(interpreter)) {
+          return null;
+        }
+
+        Value result = scope.execute(interpreter);
+
+        if (interpreter.getState() != State.NORMAL) {
+          return result;
+        }
+
+        return DataTypes.TRUE_VALUE;
+      };
+    }
+
+    Code condition = FunctionCompiler.compileCommand(branch.getCondition());
+
+    return interpreter -> {
+      if (FunctionCompiler.stopped(interpreter)) {
+        return null;
+      }
+
+      Value conditionResult = condition.execute(interpreter);
+      interpreter.captureValue(conditionResult);
+
+      if (conditionResult == null) {
+        return null;
+      }
+
+      if (conditionResult.intValue() == 1) {
+        Value result = scope.execute(interpreter);
+
+        if (interpreter.getState() != State.NORMAL) {
+          return result;
+        }
+
+        return DataTypes.TRUE_VALUE;
+      }
+
+      return DataTypes.FALSE_VALUE;
+    };
+  }
+
+  // Loop.execute
+  private static Value iterate(final Code scope, final AshRuntime interpreter) {
+    Value result = scope.execute(interpreter);
+
+    if (!KoLmafia.permitsContinue()) {
+      interpreter.setState(State.EXIT);
+    }
+
+    State state = interpreter.getState();
+
+    if (state == State.EXIT) {
+      return null;
+    }
+
+    if (state == State.BREAK) {
+      // Stay in state; the loop exits
+      return DataTypes.VOID_VALUE;
+    }
+
+    if (state == State.CONTINUE) {
+      // Done with this iteration
+      interpreter.setState(State.NORMAL);
+    }
+
+    return result;
+  }
+
+  // WhileLoop.execute
+  private static Code compileWhile(final WhileLoop loop) {
+    Code condition = FunctionCompiler.compileCommand(loop.getCondition());
+    Code scope = FunctionCompiler.compileScope(loop.getScope());
+
+    return interpreter -> {
+      if (FunctionCompiler.stopped(interpreter)) {
+        return null;
+      }
+
+      while (true) {
+        Value conditionResult = condition.execute(interpreter);
+        interpreter.captureValue(conditionResult);
+
+        if (conditionResult == null) {
+          return null;
+        }
+
+        if (conditionResult.intValue() != 1) {
+          break;
+        }
+
+        Value result = FunctionCompiler.iterate(scope, interpreter);
+
+        if (interpreter.getState() == State.BREAK) {
+          interpreter.setState(State.NORMAL);
+          return DataTypes.VOID_VALUE;
+        }
+
+        if (interpreter.getState() != State.NORMAL) {
+          return result;
+        }
+      }
+
+      return DataTypes.VOID_VALUE;
+    };
+  }
+
+  // ForLoop.execute
+  private static Code compileFor(final ForLoop loop) {
+    VariableReference variable = loop.getVariable();
+    if (variable.getClass() != VariableReference.class) {
+      return null;
+    }
+
+    Code initial = FunctionCompiler.compileCommand(loop.getInitial());
+    Code last = FunctionCompiler.compileCommand(loop.getLast());
+    Code increment = FunctionCompiler.compileCommand(loop.getIncrement());
+    Code scope = FunctionCompiler.compileScope(loop.getScope());
+    int direction = loop.getDirection();
+
+    return interpreter -> {
+      if (FunctionCompiler.stopped(interpreter)) {
+        return null;
+      }
+
+      Value initialValue = initial.execute(interpreter);
+      interpreter.captureValue(initialValue);
+      if (initialValue == null) {
+        return null;
+      }
+
+      Value lastValue = last.execute(interpreter);
+      interpreter.captureValue(lastValue);
+      if (lastValue == null) {
+        return null;
+      }
+
+      Value incrementValue = increment.execute(interpreter);
+      interpreter.captureValue(incrementValue);
+      if (incrementValue == null) {
+        return null;
+      }
+
+      long current = initialValue.intValue();
+      long step = incrementValue.intValue();
+      long end = lastValue.intValue();
+
+      boolean up = direction > 0 || direction == 0 && current <= end;
+
+      if (up && step < 0 || !up && step > 0) {
+        step = -step;
+      }
+
+      // Make sure the loop will eventually terminate
+      if (current != end && step == 0) {
+        throw loop.runtimeException(interpreter, "Start not equal to end and increment equals 0");
+      }
+
+      while (up && current <= end || !up && current >= end) {
+        variable.target.setValue(interpreter, new Value(current));
+
+        Value result = FunctionCompiler.iterate(scope, interpreter);
+
+        if (interpreter.getState() == State.BREAK) {
+          interpreter.setState(State.NORMAL);
+          return DataTypes.VOID_VALUE;
+        }
+
+        if (interpreter.getState() != State.NORMAL) {
+          return result;
+        }
+
+        current += step;
+      }
+
+      return DataTypes.VOID_VALUE;
+    };
+  }
+}
@@ -0,0 +1,343 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
+
+/**
+ * The contents of a map whose keys are ordered by their numeric content alone: ints, booleans, and
+ * the enumerated types which are identified by number, such as items and skills.
+ *
+ * <p>Entries are kept in parallel arrays, found by an open-addressing index on the key's number,
+ * and iterated in ascending order of that number, just as a TreeMap of the same keys would be.
+ * Keys added in ascending order, as data files and loops generally add them, keep the arrays
+ * sorted as they go; otherwise they are sorted when next iterated. Removed entries leave holes
+ * which are squeezed out when the arrays are next rebuilt.
+ */
+final class IdKeyedMap extends AbstractMap<Value, Value> {
+  private static final Set<TypeSpec> ID_ORDERED =
+      EnumSet.of(
+          TypeSpec.BOOLEAN,
+          TypeSpec.INT,
+          TypeSpec.ITEM,
+          TypeSpec.CLASS,
+          TypeSpec.SKILL,
+          TypeSpec.EFFECT,
+          TypeSpec.FAMILIAR,
+          TypeSpec.SLOT,
+          TypeSpec.THRALL,
+          TypeSpec.SERVANT,
+          TypeSpec.PATH);
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final boolean caseInsensitive;
+
+  private long[] ids;
+  private Value[] keys;
+  private Value[] values;
+  private int[] slots;
+
+  // Entries in use, including holes left by removals
+  private int used;
+  private int size;
+  private boolean sorted;
+  private int modCount;
+
+  IdKeyedMap(final boolean caseInsensitive) {
+    this.caseInsensitive = caseInsensitive;
+    this.reset();
+  }
+
+  /**
+   * @return true if any two keys of this type are ordered by their numbers alone
+   */
+  static boolean isIdOrdered(final Type type) {
+    return type != null && ID_ORDERED.contains(type.getBaseType().getType());
+  }
+
+  static boolean accepts(final Value key) {
+    return isIdOrdered(key.getType());
+  }
+
+  /**
+   * Copies this map into a TreeMap, for when a key arrives which it cannot hold. Iterators still
+   * running over this map will report that it has been modified.
+   */
+  TreeMap<Value, Value> toTreeMap() {
+    TreeMap<Value, Value> map =
+        this.caseInsensitive ? new TreeMap<>(Value.ignoreCaseComparator) : new TreeMap<>();
+    map.putAll(this);
+    this.modCount++;
+    return map;
+  }
+
+  private void reset() {
+    this.ids = new long[INITIAL_CAPACITY];
+    this.keys = new Value[INITIAL_CAPACITY];
+    this.values = new Value[INITIAL_CAPACITY];
+    this.slots = new int[INITIAL_CAPACITY * 2];
+    this.used = 0;
+    this.size = 0;
+    this.sorted = true;
+  }
+
+  private static int hash(final long id) {
+    long h = id * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  // Returns the slot holding this id, or the empty slot where it would go
+  private int probe(final long id) {
+    int mask = this.slots.length - 1;
+    for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+      int entry = this.slots[slot];
+      if (entry == 0 || this.ids[entry - 1] == id) {
+        return slot;
+      }
+    }
+  }
+
+  // Returns the index of the live entry for this key, or -1 if there is none
+  private int indexOf(final Object o) {
+    if (!(o instanceof Value key) || !accepts(key)) {
+      return -1;
+    }
+    int entry = this.slots[this.probe(key.contentLong)];
+    return entry != 0 && this.keys[entry - 1] != null ? entry - 1 : -1;
+  }
+
+  /**
+   * Copies the live entries into arrays of the given capacity, in ascending order, and indexes
+   * them anew.
+   */
+  private void rebuild(final int capacity) {
+    long[] order = new long[this.size];
+    int n = 0;
+    for (int i = 0; i < this.used; ++i) {
+      if (this.keys[i] != null) {
+        order[n++] = this.ids[i];
+      }
+    }
+    if (!this.sorted) {
+      Arrays.sort(order);
+    }
+
+    long[] ids = new long[capacity];
+    Value[] keys = new Value[capacity];
+    Value[] values = new Value[capacity];
+    int[] slots = new int[Integer.highestOneBit(capacity) * 2];
+    int mask = slots.length - 1;
+
+    for (int i = 0; i < n; ++i) {
+      int from = this.slots[this.probe(order[i])] - 1;
+      ids[i] = order[i];
+      keys[i] = this.keys[from];
+      values[i] = this.values[from];
+
+      int slot = hash(order[i]) & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = i + 1;
+    }
+
+    this.ids = ids;
+    this.keys = keys;
+    this.values = values;
+    this.slots = slots;
+    this.used = n;
+    this.sorted = true;
+  }
+
+  private void sort() {
+    if (!this.sorted) {
+      this.rebuild(this.ids.length);
+    }
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return this.indexOf(key) >= 0;
+  }
+
+  @Override
+  public Value get(final Object key) {
+    int index = this.indexOf(key);
+    return index >= 0 ? this.values[index] : null;
+  }
+
+  @Override
+  public Value put(final Value key, final Value value) {
+    long id = key.contentLong;
+    int entry = this.slots[this.probe(id)];
+
+    if (entry != 0) {
+      int index = entry - 1;
+      if (this.keys[index] != null) {
+        // Like a TreeMap, keep the key which is already there
+        Value old = this.values[index];
+        this.values[index] = value;
+        return old;
+      }
+
+      // Refill the hole left by this key's removal, which is already in order
+      this.keys[index] = key;
+      this.values[index] = value;
+      this.size++;
+      this.modCount++;
+      return null;
+    }
+
+    if (this.used == this.ids.length) {
+      this.rebuild(this.size * 2 > this.used ? this.used * 2 : this.used);
+    }
+
+    int index = this.used++;
+    if (index > 0 && id < this.ids[index - 1]) {
+      this.sorted = false;
+    }
+    this.ids[index] = id;
+    this.keys[index] = key;
+    this.values[index] = value;
+    this.slots[this.probe(id)] = index + 1;
+    this.size++;
+    this.modCount++;
+    return null;
+  }
+
+  private Value removeAt(final int index) {
+    Value old = this.values[index];
+    this.keys[index] = null;
+    this.values[index] = null;
+    this.size--;
+    this.modCount++;
+    return old;
+  }
+
+  @Override
+  public Value remove(final Object key) {
+    int index = this.indexOf(key);
+    return index >= 0 ? this.removeAt(index) : null;
+  }
+
+  @Override
+  public void clear() {
+    this.reset();
+    this.modCount++;
+  }
+
+  @Override
+  public Set<Value> keySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Value> iterator() {
+        return new Cursor<>() {
+          @Override
+          Value element(final int index) {
+            return IdKeyedMap.this.keys[index];
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return IdKeyedMap.this.size;
+      }
+
+      @Override
+      public boolean contains(final Object key) {
+        return IdKeyedMap.this.containsKey(key);
+      }
+    };
+  }
+
+  @Override
+  public Set<Entry<Value, Value>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<Value, Value>> iterator() {
+        return new Cursor<>() {
+          @Override
+          Entry<Value, Value> element(final int index) {
+            return new SimpleImmutableEntry<>(
+                IdKeyedMap.this.keys[index], IdKeyedMap.this.values[index]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return IdKeyedMap.this.size;
+      }
+    };
+  }
+
+  /**
+   * Walks the live entries in ascending order. Like TreeMap's iterators, it fails on the next call
+   * to next() once the map has been structurally modified other than through its own remove().
+   */
+  private abstract class Cursor<E> implements Iterator<E> {
+    private int next;
+    private int current = -1;
+    private int expectedModCount;
+
+    Cursor() {
+      IdKeyedMap.this.sort();
+      this.expectedModCount = IdKeyedMap.this.modCount;
+      this.next = this.skip(0);
+    }
+
+    abstract E element(int index);
+
+    private int skip(int index) {
+      while (index < IdKeyedMap.this.used && IdKeyedMap.this.keys[index] == null) {
+        index++;
+      }
+      return index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next < IdKeyedMap.this.used;
+    }
+
+    @Override
+    public E next() {
+      if (IdKeyedMap.this.modCount != this.expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (this.next >= IdKeyedMap.this.used) {
+        throw new NoSuchElementException();
+      }
+      this.current = this.next;
+      this.next = this.skip(this.next + 1);
+      return this.element(this.current);
+    }
+
+    @Override
+    public void remove() {
+      if (this.current < 0) {
+        throw new IllegalStateException();
+      }
+      if (IdKeyedMap.this.modCount != this.expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      IdKeyedMap.this.removeAt(this.current);
+      this.current = -1;
+      this.expectedModCount = IdKeyedMap.this.modCount;
+    }
+  }
+}
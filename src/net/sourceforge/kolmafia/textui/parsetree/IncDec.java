@@ -21,6 +21,10 @@ public class IncDec extends Evaluable {
     return this.lhs;
   }
 
+  Operator getOperator() {
+    return this.oper;
+  }
+
   @Override
   public Type getType() {
     return this.lhs.getType();
@@ -1,6 +1,8 @@
 package net.sourceforge.kolmafia.textui.parsetree;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.Arrays;
@@ -18,6 +20,14 @@ public class LibraryFunction extends Function {
   private Method method;
   public String[] deprecationWarning;
 
+  // The method, bound once, and invoked with exactly as many arguments as it
+  // takes, rather than reflectively with an array of them
+  private MethodHandle handle;
+  // The same, taking its arguments in an array, for methods with more of them
+  // than any library function now has
+  private MethodHandle spreader;
+  private final boolean varArgs;
+
   public LibraryFunction(
       final String name, final Type type, final Type[] params, final String... deprecationWarning) {
     super(name.toLowerCase(), type);
@@ -36,8 +46,15 @@ public class LibraryFunction extends Function {
       args[i] = Value.class;
     }
 
+    this.varArgs = params.length > 0 && params[params.length - 1] instanceof VarArgType;
+
     try {
       this.method = RuntimeLibrary.findMethod(name, args);
+      this.handle = MethodHandles.publicLookup().unreflect(this.method);
+      this.spreader =
+          this.handle
+              .asType(MethodType.genericMethodType(args.length).changeReturnType(Value.class))
+              .asSpreader(Object[].class, args.length);
     } catch (Exception e) {
       // This should not happen; it denotes a coding
       // error that must be fixed before release.
@@ -66,27 +83,12 @@ public class LibraryFunction extends Function {
       throw interpreter.runtimeException("Internal error: no method for " + this.getName());
     }
 
-    try {
-      // Bind values to variable references.
-      // Collapse values into VarArgs array
-      values = this.bindVariableReferences(interpreter, values);
-
-      // Invoke the method
-      return (Value) this.method.invoke(this, values);
-    } catch (InvocationTargetException e) {
-      // This is an error in the called method. Pass
-      // it on up so that we'll print a stack trace.
+    // Bind values to variable references.
+    // Collapse values into VarArgs array
+    values = this.bindValues(interpreter, values);
 
-      Throwable cause = e.getCause();
-      if (cause instanceof ScriptException) {
-        // Pass up exceptions intentionally generated by library
-        throw (ScriptException) cause;
-      }
-      throw new RuntimeException(cause);
-    } catch (IllegalAccessException e) {
-      // This is not expected, but is an internal error in ASH
-      throw new ScriptException(e);
-    }
+    // Invoke the method
+    return this.invoke(values);
   }
 
   // This is necessary for calls into the runtime library from other languages.
@@ -100,25 +102,65 @@ public class LibraryFunction extends Function {
       throw controller.runtimeException("Internal error: no method for " + this.getName());
     }
 
-    try {
-      // Collapse values into VarArgs array
-      values = this.bindVariableReferences(null, values);
+    // Collapse values into VarArgs array
+    values = this.bindValues(null, values);
 
-      // Invoke the method
-      return (Value) this.method.invoke(this, values);
-    } catch (InvocationTargetException e) {
-      // This is an error in the called method. Pass
-      // it on up so that we'll print a stack trace.
+    // Invoke the method
+    return this.invoke(values);
+  }
+
+  private Object[] bindValues(final AshRuntime interpreter, final Object[] values) {
+    if (this.varArgs || values.length != this.variableReferences.size() + 1) {
+      return this.bindVariableReferences(interpreter, values);
+    }
 
-      Throwable cause = e.getCause();
-      if (cause instanceof ScriptException) {
-        // Pass up exceptions intentionally generated by library
-        throw (ScriptException) cause;
+    // Without a VarArgs parameter, the values are already as the method takes
+    // them, so there is no need to copy them.
+    if (interpreter != null) {
+      int index = 1;
+      for (VariableReference current : this.variableReferences) {
+        current.setValue(interpreter, (Value) values[index++]);
       }
-      throw new RuntimeException(cause);
-    } catch (IllegalAccessException e) {
-      // This is not expected, but is an internal error in ASH
-      throw new ScriptException(e);
+    }
+
+    return values;
+  }
+
+  private Value invoke(final Object[] values) {
+    ScriptRuntime controller = (ScriptRuntime) values[0];
+
+    try {
+      return switch (values.length) {
+        case 1 -> (Value) this.handle.invokeExact(controller);
+        case 2 -> (Value) this.handle.invokeExact(controller, (Value) values[1]);
+        case 3 -> (Value) this.handle.invokeExact(controller, (Value) values[1], (Value) values[2]);
+        case 4 -> (Value)
+            this.handle.invokeExact(
+                controller, (Value) values[1], (Value) values[2], (Value) values[3]);
+        case 5 -> (Value)
+            this.handle.invokeExact(
+                controller,
+                (Value) values[1],
+                (Value) values[2],
+                (Value) values[3],
+                (Value) values[4]);
+        case 6 -> (Value)
+            this.handle.invokeExact(
+                controller,
+                (Value) values[1],
+                (Value) values[2],
+                (Value) values[3],
+                (Value) values[4],
+                (Value) values[5]);
+        default -> (Value) this.spreader.invokeExact(values);
+      };
+    } catch (ScriptException e) {
+      // Pass up exceptions intentionally generated by library
+      throw e;
+    } catch (Throwable e) {
+      // This is an error in the called method. Pass
+      // it on up so that we'll print a stack trace.
+      throw new RuntimeException(e);
     }
   }
 
@@ -9,16 +9,17 @@ import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
 
 public class MapValue extends AggregateValue {
   public MapValue(final AggregateType type) {
-    super(type);
-    this.content = new TreeMap<Value, Value>();
+    this(type, false);
   }
 
   public MapValue(final AggregateType type, boolean caseInsensitive) {
     super(type);
     this.content =
-        caseInsensitive
-            ? new TreeMap<Value, Value>(Value.ignoreCaseComparator)
-            : new TreeMap<Value, Value>();
+        IdKeyedMap.isIdOrdered(type.getIndexType())
+            ? new IdKeyedMap(caseInsensitive)
+            : caseInsensitive
+                ? new TreeMap<Value, Value>(Value.ignoreCaseComparator)
+                : new TreeMap<Value, Value>();
   }
 
   public MapValue(final AggregateType type, Map<?, ?> value) {
@@ -31,15 +32,24 @@ public class MapValue extends AggregateValue {
     return (Map<Value, Value>) this.content;
   }
 
+  // A key which an IdKeyedMap cannot hold, like a float in an int-keyed map, is compared with the
+  // others as a TreeMap would compare it, so move the contents into one.
+  private Map<Value, Value> getMap(final Value key) {
+    if (this.content instanceof IdKeyedMap map && !IdKeyedMap.accepts(key)) {
+      this.content = map.toTreeMap();
+    }
+    return this.getMap();
+  }
+
   @Override
   public Value aref(final Value key, final AshRuntime interpreter) {
-    Map<Value, Value> map = this.getMap();
+    Map<Value, Value> map = this.getMap(key);
     return map.get(key);
   }
 
   @Override
   public void aset(final Value key, Value val, final AshRuntime interpreter) {
-    Map<Value, Value> map = this.getMap();
+    Map<Value, Value> map = this.getMap(key);
 
     Type dataType = this.getDataType();
     Type baseType = dataType.getBaseType();
@@ -91,7 +101,7 @@ public class MapValue extends AggregateValue {
       return rv;
     }
 
-    Map<Value, Value> map = this.getMap();
+    Map<Value, Value> map = this.getMap(key);
     return map.remove(key);
   }
 
@@ -109,7 +119,7 @@ public class MapValue extends AggregateValue {
 
   @Override
   public boolean contains(final Value key) {
-    Map<Value, Value> map = this.getMap();
+    Map<Value, Value> map = this.getMap(key);
     return map.containsKey(key);
   }
 
@@ -1,10 +1,16 @@
 package net.sourceforge.kolmafia.textui.parsetree;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.AreaCombatData;
@@ -79,12 +85,16 @@ public class ProxyRecordValue extends RecordValue {
       throw interpreter.runtimeException("Internal error: field index out of bounds");
     }
 
+    Getter getter = ACCESSORS.get(this.getClass()).getter(type, index);
+    if (getter == null) {
+      throw interpreter.runtimeException(
+          "Unable to invoke attribute getter: no method get_" + type.getFieldNames()[index]);
+    }
+
     Object rv;
     try {
-      rv = this.getClass().getMethod("get_" + type.getFieldNames()[index]).invoke(this);
-    } catch (InvocationTargetException e) {
-      throw interpreter.runtimeException("Unable to invoke attribute getter: " + e.getCause());
-    } catch (Exception e) {
+      rv = getter.get(this);
+    } catch (RuntimeException e) {
       throw interpreter.runtimeException("Unable to invoke attribute getter: " + e);
     }
 
@@ -146,6 +156,84 @@ public class ProxyRecordValue extends RecordValue {
   @Override
   public void clear() {}
 
+  /** Reads one field of a proxy record by calling its get_ method */
+  @FunctionalInterface
+  public interface Getter {
+    Object get(ProxyRecordValue proxy);
+  }
+
+  /**
+   * The getters of one kind of proxy record, by name and by field index. Finding a method by name
+   * and invoking it reflectively on every field read is slow, so each proxy class has its getters
+   * looked up and bound once, the first time it is read.
+   */
+  private record Accessors(Map<String, Getter> byName, RecordType type, Getter[] byIndex) {
+    private static Accessors of(final Class<?> proxyClass) {
+      Map<String, Getter> byName = new LinkedHashMap<>();
+      for (Method method : proxyClass.getDeclaredMethods()) {
+        int modifiers = method.getModifiers();
+        if (method.getName().startsWith("get_")
+            && java.lang.reflect.Modifier.isPublic(modifiers)
+            && !java.lang.reflect.Modifier.isStatic(modifiers)
+            && method.getParameterCount() == 0) {
+          byName.put(method.getName().substring(4), bind(method));
+        }
+      }
+
+      RecordType type = null;
+      try {
+        type = (RecordType) proxyClass.getField("_type").get(null);
+      } catch (ReflectiveOperationException e) {
+        // Not a proxy with a record type of its own; fields will be found by name
+      }
+
+      String[] names = type == null ? new String[0] : type.getFieldNames();
+      Getter[] byIndex = new Getter[names.length];
+      for (int i = 0; i < names.length; ++i) {
+        byIndex[i] = byName.get(names[i]);
+      }
+
+      return new Accessors(Collections.unmodifiableMap(byName), type, byIndex);
+    }
+
+    private static Getter bind(final Method method) {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        return (Getter)
+            LambdaMetafactory.metafactory(
+                    lookup,
+                    "get",
+                    MethodType.methodType(Getter.class),
+                    MethodType.methodType(Object.class, ProxyRecordValue.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(Object.class, method.getDeclaringClass()))
+                .getTarget()
+                .invokeExact();
+      } catch (Throwable e) {
+        throw new IllegalStateException("Unable to bind attribute getter " + method, e);
+      }
+    }
+
+    private Getter getter(final RecordType type, final int index) {
+      return type == this.type ? this.byIndex[index] : this.byName.get(type.getFieldNames()[index]);
+    }
+  }
+
+  private static final ClassValue<Accessors> ACCESSORS =
+      new ClassValue<>() {
+        @Override
+        protected Accessors computeValue(final Class<?> proxyClass) {
+          return Accessors.of(proxyClass);
+        }
+      };
+
+  /**
+   * @return the getters declared by this proxy class, keyed by field name
+   */
+  public static Map<String, Getter> getters(final Class<?> proxyClass) {
+    return ACCESSORS.get(proxyClass).byName();
+  }
+
   /* Helper for building parallel arrays of field names & types */
   private static class RecordBuilder {
     private final ArrayList<String> names;
@@ -5,14 +5,22 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
 import net.sourceforge.kolmafia.StaticEntity;
+import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.RuntimeLibrary;
+import net.sourceforge.kolmafia.textui.ScriptRuntime;
 import org.eclipse.lsp4j.Location;
 
 public class UserDefinedFunction extends Function {
+  // Calls interpreted before the function body is compiled
+  static final int COMPILE_THRESHOLD = 100;
+
   private Scope scope;
   private final Stack<ArrayList<Value>> callStack;
 
+  private int calls = 0;
+  private volatile FunctionCompiler.Code compiled = null;
+
   public UserDefinedFunction(
       final String name,
       final Type type,
@@ -26,12 +34,35 @@ public class UserDefinedFunction extends Function {
 
   public void setScope(final Scope s) {
     this.scope = s;
+    this.calls = 0;
+    this.compiled = null;
   }
 
   public Scope getScope() {
     return this.scope;
   }
 
+  boolean isCompiled() {
+    return this.compiled != null;
+  }
+
+  private Value executeScope(final AshRuntime interpreter) {
+    FunctionCompiler.Code compiled = this.compiled;
+
+    if (compiled == null
+        && ++this.calls == COMPILE_THRESHOLD
+        && Preferences.getBoolean("ashCompileHotFunctions")) {
+      compiled = this.compiled = FunctionCompiler.compile(this.scope);
+    }
+
+    // Tracing and profiling need the interpreter
+    if (compiled == null || ScriptRuntime.isTracing() || interpreter.profiler != null) {
+      return this.scope.execute(interpreter);
+    }
+
+    return compiled.execute(interpreter);
+  }
+
   private void saveBindings(AshRuntime interpreter) {
     if (this.scope == null) {
       return;
@@ -84,7 +115,7 @@ public class UserDefinedFunction extends Function {
     // Bind values to variable references
     this.bindVariableReferences(interpreter, values);
 
-    Value result = this.scope.execute(interpreter);
+    Value result = this.executeScope(interpreter);
 
     // Restore initial variable bindings
     this.restoreBindings(interpreter);
@@ -0,0 +1,286 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.java.dev.spellcast.utilities.DataUtilities;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.RequestLogger;
+
+/**
+ * The larger data files, precompiled by the dataBundle Gradle task so that startup does not have
+ * to read and split their text. Each file is stored as a table of its distinct strings followed by
+ * its records, as indices into that table. Comments, blank lines and the version line are left
+ * out; the version is kept in the directory at the start of the bundle.
+ *
+ * <p>The bundle is memory mapped when running from a build directory and read into memory from a
+ * jar. {@link FileUtilities#getVersionedReader} only uses it when the user has no override for the
+ * file and the bundled version is the one asked for, and reads the text otherwise.
+ */
+public class DataBundle {
+  public static final String RESOURCE = KoLConstants.DATA_DIRECTORY + "data.bundle";
+
+  // The files read only through getVersionedReader and readData
+  public static final List<String> FILES =
+      List.of(
+          "adventures.txt",
+          "classskills.txt",
+          "combats.txt",
+          "concoctions.txt",
+          "equipment.txt",
+          "fambattle.txt",
+          "familiars.txt",
+          "foldgroups.txt",
+          "items.txt",
+          "modifiers.txt",
+          "monsters.txt",
+          "outfits.txt",
+          "pulverize.txt",
+          "statuseffects.txt",
+          "zonelist.txt");
+
+  private static final int MAGIC = 0x4B4D4442; // "KMDB"
+  private static final int FORMAT = 1;
+
+  private record Section(int version, int offset) {}
+
+  private final ByteBuffer buffer;
+  private final Map<String, Section> sections = new HashMap<>();
+
+  // Loaded on first use by the class loader, which makes it safe to share between threads
+  private static class Holder {
+    private static final DataBundle INSTANCE = DataBundle.load();
+  }
+
+  private DataBundle(final ByteBuffer buffer) {
+    this.buffer = buffer;
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+      throw new IllegalArgumentException("Not a data bundle of format " + FORMAT);
+    }
+    int count = buffer.getInt(8);
+    int position = 12;
+    for (int i = 0; i < count; ++i) {
+      int length = buffer.getInt(position);
+      String name = DataBundle.decode(buffer, position + 4, length);
+      position += 4 + length;
+      this.sections.put(name, new Section(buffer.getInt(position), buffer.getInt(position + 4)));
+      position += 8;
+    }
+  }
+
+  public static DataBundle read(final ByteBuffer buffer) {
+    return new DataBundle(buffer);
+  }
+
+  /**
+   * @return a reader over the bundled records of this data file, or null if the user has an
+   *     override for it or it is not bundled at this version
+   */
+  public static BufferedReader getReader(final String filename, final int version) {
+    DataBundle bundle = Holder.INSTANCE;
+    if (bundle == null || !bundle.contains(filename, version) || DataBundle.hasOverride(filename)) {
+      return null;
+    }
+    return bundle.reader(filename, version);
+  }
+
+  public boolean contains(final String filename, final int version) {
+    Section section = this.sections.get(filename);
+    return section != null && section.version == version;
+  }
+
+  public BufferedReader reader(final String filename, final int version) {
+    Section section = this.sections.get(filename);
+    if (section == null || section.version != version) {
+      return null;
+    }
+
+    ByteBuffer data = this.buffer.duplicate();
+    data.position(section.offset);
+    String[] strings = new String[data.getInt()];
+    for (int i = 0; i < strings.length; ++i) {
+      int length = data.getInt();
+      strings[i] = DataBundle.decode(data, data.position(), length);
+      data.position(data.position() + length);
+    }
+    return new RecordReader(strings, data.slice());
+  }
+
+  private static boolean hasOverride(final String filename) {
+    InputStream override =
+        DataUtilities.getOverrideStream(KoLConstants.DATA_DIRECTORY + filename, true);
+    if (override == null) {
+      return false;
+    }
+    try {
+      override.close();
+    } catch (IOException e) {
+      // Only opened to see that it is there
+    }
+    return true;
+  }
+
+  private static DataBundle load() {
+    URL url = DataBundle.class.getResource("/" + RESOURCE);
+    if (url == null) {
+      return null;
+    }
+    try {
+      ByteBuffer buffer;
+      if (url.getProtocol().equals("file")) {
+        try (FileChannel channel = FileChannel.open(Path.of(url.toURI()))) {
+          buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+      } else {
+        try (InputStream istream = url.openStream()) {
+          buffer = ByteBuffer.wrap(istream.readAllBytes());
+        }
+      }
+      return new DataBundle(buffer);
+    } catch (IOException | URISyntaxException | RuntimeException e) {
+      RequestLogger.printLine("Unable to read " + RESOURCE + ", reading text data instead: " + e);
+      return null;
+    }
+  }
+
+  private static String decode(final ByteBuffer buffer, final int position, final int length) {
+    byte[] bytes = new byte[length];
+    buffer.get(position, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads the records of one bundled file. Use {@link FileUtilities#readData}, which returns the
+   * fields of each record without joining and splitting them again; readLine returns them joined
+   * by tabs, as they were in the text.
+   */
+  public static class RecordReader extends BufferedReader {
+    private final String[] strings;
+    private final ByteBuffer records;
+    private int remaining;
+
+    private RecordReader(final String[] strings, final ByteBuffer records) {
+      super(Reader.nullReader(), 1);
+      this.strings = strings;
+      this.records = records;
+      this.remaining = records.getInt();
+    }
+
+    public String[] readRecord() {
+      if (this.remaining == 0) {
+        return null;
+      }
+      this.remaining--;
+      String[] record = new String[this.records.getInt()];
+      for (int i = 0; i < record.length; ++i) {
+        record[i] = this.strings[this.records.getInt()];
+      }
+      return record;
+    }
+
+    @Override
+    public String readLine() {
+      String[] record = this.readRecord();
+      return record == null ? null : String.join("\t", record);
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  /** Writes the bundle of the given data files, in the order given. */
+  public static void write(final Path directory, final List<String> files, final OutputStream out)
+      throws IOException {
+    Map<String, byte[]> sections = new LinkedHashMap<>();
+    Map<String, Integer> versions = new HashMap<>();
+    for (String file : files) {
+      List<String[]> records = new ArrayList<>();
+      try (BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(
+                  Files.newInputStream(directory.resolve(file)), StandardCharsets.UTF_8))) {
+        versions.put(file, StringUtilities.parseInt(FileUtilities.readLine(reader)));
+        String line;
+        while ((line = FileUtilities.readLine(reader)) != null) {
+          records.add(line.split("\t", -1));
+        }
+      }
+      sections.put(file, DataBundle.section(records));
+    }
+
+    var header = new ByteArrayOutputStream();
+    var dir = new DataOutputStream(header);
+    dir.writeInt(MAGIC);
+    dir.writeInt(FORMAT);
+    dir.writeInt(sections.size());
+    int offset = 12;
+    for (String file : sections.keySet()) {
+      offset += 4 + file.getBytes(StandardCharsets.UTF_8).length + 8;
+    }
+    for (var entry : sections.entrySet()) {
+      byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      dir.writeInt(name.length);
+      dir.write(name);
+      dir.writeInt(versions.get(entry.getKey()));
+      dir.writeInt(offset);
+      offset += entry.getValue().length;
+    }
+
+    out.write(header.toByteArray());
+    for (byte[] section : sections.values()) {
+      out.write(section);
+    }
+  }
+
+  private static byte[] section(final List<String[]> records) throws IOException {
+    Map<String, Integer> indices = new LinkedHashMap<>();
+    for (String[] record : records) {
+      for (String field : record) {
+        indices.putIfAbsent(field, indices.size());
+      }
+    }
+
+    var bytes = new ByteArrayOutputStream();
+    var out = new DataOutputStream(bytes);
+    out.writeInt(indices.size());
+    for (String string : indices.keySet()) {
+      byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(encoded.length);
+      out.write(encoded);
+    }
+    out.writeInt(records.size());
+    for (String[] record : records) {
+      out.writeInt(record.length);
+      for (String field : record) {
+        out.writeInt(indices.get(field));
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /** Run by the dataBundle Gradle task: DataBundle &lt;data directory&gt; &lt;bundle&gt; */
+  public static void main(final String[] args) throws IOException {
+    Path output = Path.of(args[1]);
+    Files.createDirectories(output.getParent());
+    try (OutputStream out = Files.newOutputStream(output)) {
+      DataBundle.write(Path.of(args[0]), FILES, out);
+    }
+  }
+}
@@ -76,6 +76,12 @@ public class FileUtilities {
   }
 
   public static final BufferedReader getVersionedReader(final String filename, final int version) {
+    // Without an override, read the records precompiled into the data bundle
+    BufferedReader bundled = DataBundle.getReader(filename, version);
+    if (bundled != null) {
+      return bundled;
+    }
+
     BufferedReader reader =
         FileUtilities.getReader(
             DataUtilities.getReader(KoLConstants.DATA_DIRECTORY, filename, true));
@@ -153,6 +159,10 @@ public class FileUtilities {
       return null;
     }
 
+    if (reader instanceof DataBundle.RecordReader records) {
+      return records.readRecord();
+    }
+
     String line = readLine(reader);
     return line == null ? null : line.split("\t", -1);
   }
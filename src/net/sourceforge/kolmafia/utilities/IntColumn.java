@@ -0,0 +1,60 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An int for each id, such as an item or skill id, kept in a plain array rather than boxed in a
+ * map. Ids below {@link #DENSE_LIMIT} index the array, which grows to fit the largest one set;
+ * negative and larger ids are rare and kept in a map instead. An id which was never set has the
+ * default value given when the column was made.
+ *
+ * <p>Writes are serialized, but reads take no lock. A read on another thread sees either the value
+ * an id had before a concurrent write or the value it was given, never a partly grown array.
+ */
+public class IntColumn {
+  public static final int DENSE_LIMIT = 1 << 16;
+
+  private final int absent;
+  private volatile int[] values = new int[0];
+  private final Map<Integer, Integer> sparse = new ConcurrentHashMap<>();
+
+  public IntColumn(final int absent) {
+    this.absent = absent;
+  }
+
+  public int get(final int id) {
+    int[] values = this.values;
+    if (id >= 0 && id < values.length) {
+      return values[id];
+    }
+    if ((id >= 0 && id < DENSE_LIMIT) || this.sparse.isEmpty()) {
+      return this.absent;
+    }
+    return this.sparse.getOrDefault(id, this.absent);
+  }
+
+  public synchronized void put(final int id, final int value) {
+    if (id < 0 || id >= DENSE_LIMIT) {
+      this.sparse.put(id, value);
+      return;
+    }
+    int[] values = this.values;
+    if (id >= values.length) {
+      int length = Math.min(DENSE_LIMIT, Math.max(id + 1, values.length * 2));
+      int[] grown = Arrays.copyOf(values, length);
+      Arrays.fill(grown, values.length, length, this.absent);
+      grown[id] = value;
+      // Only publish the new array once it is filled in
+      this.values = grown;
+      return;
+    }
+    values[id] = value;
+  }
+
+  public synchronized void clear() {
+    Arrays.fill(this.values, this.absent);
+    this.sparse.clear();
+  }
+}
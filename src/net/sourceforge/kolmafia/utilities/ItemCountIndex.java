@@ -0,0 +1,12 @@
+package net.sourceforge.kolmafia.utilities;
+
+/**
+ * A list of items which keeps the total count of each item id as the list changes, so that asking
+ * how many of an item it holds does not have to search the list.
+ */
+public interface ItemCountIndex {
+  /**
+   * @return the total count of the items with this id in the list, or 0 if there are none
+   */
+  int getItemCount(int itemId);
+}
@@ -0,0 +1,40 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Collection;
+import net.sourceforge.kolmafia.AdventureResult;
+
+/**
+ * The count of each item id in a list, kept by {@link ItemListModel} and {@link ItemList}. Changes
+ * are made under the list's lock. Reads take no lock, and see the counts from before or after a
+ * recount, never part of one.
+ */
+final class ItemCounts {
+  private volatile IntColumn counts = new IntColumn(0);
+
+  void add(final AdventureResult result) {
+    ItemCounts.add(this.counts, result, 1);
+  }
+
+  void remove(final AdventureResult result) {
+    ItemCounts.add(this.counts, result, -1);
+  }
+
+  void reset(final Collection<AdventureResult> results) {
+    IntColumn counts = new IntColumn(0);
+    for (AdventureResult result : results) {
+      ItemCounts.add(counts, result, 1);
+    }
+    this.counts = counts;
+  }
+
+  int get(final int itemId) {
+    return this.counts.get(itemId);
+  }
+
+  private static void add(final IntColumn counts, final AdventureResult result, final int sign) {
+    if (result != null && result.isItem()) {
+      int itemId = result.getItemId();
+      counts.put(itemId, counts.get(itemId) + sign * result.getCount());
+    }
+  }
+}
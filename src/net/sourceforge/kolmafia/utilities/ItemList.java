@@ -0,0 +1,124 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import net.sourceforge.kolmafia.AdventureResult;
+
+/**
+ * Same as {@link ItemListModel}, except this extends a {@link SortedList}. The bulk removals which
+ * ArrayList makes without going through remove(int) recount the whole list afterwards.
+ *
+ * <p>Every change, and the count update that goes with it, is made while holding the list's lock,
+ * as {@link ItemListModel} holds its element list's. Counts may be read without the lock; see
+ * {@link ItemCounts}.
+ */
+public class ItemList extends SortedList<AdventureResult> implements ItemCountIndex {
+  private final ItemCounts counts = new ItemCounts();
+
+  @Override
+  public int getItemCount(final int itemId) {
+    return this.counts.get(itemId);
+  }
+
+  @Override
+  public boolean add(final AdventureResult o) {
+    synchronized (this) {
+      if (!super.add(o)) {
+        return false;
+      }
+      this.counts.add(o);
+      return true;
+    }
+  }
+
+  @Override
+  public boolean addAll(final int index, final Collection<? extends AdventureResult> c) {
+    synchronized (this) {
+      if (!super.addAll(index, c)) {
+        return false;
+      }
+      this.counts.reset(this);
+      return true;
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (this) {
+      super.clear();
+      this.counts.reset(this);
+    }
+  }
+
+  @Override
+  public AdventureResult remove(final int index) {
+    synchronized (this) {
+      AdventureResult removed = super.remove(index);
+      this.counts.remove(removed);
+      return removed;
+    }
+  }
+
+  @Override
+  public AdventureResult set(final int index, final AdventureResult element) {
+    synchronized (this) {
+      AdventureResult original = super.set(index, element);
+      this.counts.remove(original);
+      this.counts.add(element);
+      return original;
+    }
+  }
+
+  @Override
+  public boolean remove(final Object o) {
+    synchronized (this) {
+      boolean removed = super.remove(o);
+      this.counts.reset(this);
+      return removed;
+    }
+  }
+
+  @Override
+  public boolean removeAll(final Collection<?> c) {
+    synchronized (this) {
+      boolean removed = super.removeAll(c);
+      this.counts.reset(this);
+      return removed;
+    }
+  }
+
+  @Override
+  public boolean retainAll(final Collection<?> c) {
+    synchronized (this) {
+      boolean removed = super.retainAll(c);
+      this.counts.reset(this);
+      return removed;
+    }
+  }
+
+  @Override
+  public boolean removeIf(final Predicate<? super AdventureResult> filter) {
+    synchronized (this) {
+      boolean removed = super.removeIf(filter);
+      this.counts.reset(this);
+      return removed;
+    }
+  }
+
+  @Override
+  public void replaceAll(final UnaryOperator<AdventureResult> operator) {
+    synchronized (this) {
+      super.replaceAll(operator);
+      this.counts.reset(this);
+    }
+  }
+
+  @Override
+  protected void removeRange(final int fromIndex, final int toIndex) {
+    synchronized (this) {
+      super.removeRange(fromIndex, toIndex);
+      this.counts.reset(this);
+    }
+  }
+}
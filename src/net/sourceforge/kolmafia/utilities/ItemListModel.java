@@ -0,0 +1,71 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Collection;
+import net.java.dev.spellcast.utilities.SortedListModel;
+import net.sourceforge.kolmafia.AdventureResult;
+
+/**
+ * A {@link SortedListModel} of items which keeps the count of each item id as it changes. Every
+ * change made through the list itself is counted; changes made through a sub list or a mirror
+ * image are not, and none are made to the inventory, closet or storage that way.
+ *
+ * <p>Every change, and the count update that goes with it, is made while holding the lock on the
+ * element list. Counts may be read without the lock; see {@link ItemCounts}.
+ */
+public class ItemListModel extends SortedListModel<AdventureResult> implements ItemCountIndex {
+  private final ItemCounts counts = new ItemCounts();
+
+  @Override
+  public int getItemCount(final int itemId) {
+    return this.counts.get(itemId);
+  }
+
+  @Override
+  public boolean add(final AdventureResult o) {
+    synchronized (this.actualElements) {
+      if (!super.add(o)) {
+        return false;
+      }
+      this.counts.add(o);
+      return true;
+    }
+  }
+
+  @Override
+  public boolean addAll(final int index, final Collection<? extends AdventureResult> c) {
+    synchronized (this.actualElements) {
+      if (!super.addAll(index, c)) {
+        return false;
+      }
+      this.counts.reset(this.actualElements);
+      return true;
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (this.actualElements) {
+      super.clear();
+      this.counts.reset(this.actualElements);
+    }
+  }
+
+  @Override
+  public AdventureResult remove(final int index) {
+    synchronized (this.actualElements) {
+      AdventureResult removed = super.remove(index);
+      this.counts.remove(removed);
+      return removed;
+    }
+  }
+
+  @Override
+  public AdventureResult set(final int index, final AdventureResult element) {
+    synchronized (this.actualElements) {
+      AdventureResult original = super.set(index, element);
+      this.counts.remove(original);
+      this.counts.add(element);
+      return original;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import net.java.dev.spellcast.utilities.LockableListModel;
 import net.java.dev.spellcast.utilities.SortedListModel;
+import net.sourceforge.kolmafia.AdventureResult;
 
 /**
  * {@link net.java.dev.spellcast.utilities.LockableListModel} is used to hold data, but it depends
@@ -43,6 +44,19 @@ public class LockableListFactory {
     return i;
   }
 
+  /**
+   * Get an instance of ItemListModel if in a Swing environment, else get an ItemList. Either keeps
+   * the count of each item id, as an {@link ItemCountIndex}.
+   *
+   * @return ItemListModel or an ItemList if Swing cannot be loaded
+   */
+  public static List<AdventureResult> getItemInstance() {
+    if (SwinglessUIUtils.isSwingAvailable) {
+      return new ItemListModel();
+    }
+    return new ItemList();
+  }
+
   /**
    * Calls {@link net.java.dev.spellcast.utilities.LockableListModel#getSize()} if possible, else
    * returns list size
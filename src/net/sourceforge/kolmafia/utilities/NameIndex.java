@@ -0,0 +1,169 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * An index over an array of canonical names, such as the item or skill names, which narrows a
+ * search down to the few names which could match without testing every name in the array.
+ *
+ * <p>A name can only contain a search string of three or more characters if it contains every
+ * three character sequence in it, so each such sequence lists the names containing it, and a
+ * substring search need only test the names on the shortest of those lists. A fuzzy match must
+ * start at the beginning of some word in the name, so each character lists the names with a word
+ * starting with it. Every name also has a mask of the characters in it, which rules out most of
+ * the remaining names before the more expensive test.
+ *
+ * <p>The index refers to names by their position in the array. It keeps a copy of the array
+ * rather than the array itself, so that it can be cached against the array in a weak map, and so
+ * that it can tell if the array has since been changed in place, such as by sorting it.
+ */
+final class NameIndex {
+  private static final int SPACE = NameIndex.mask(" ");
+
+  private final String[] names;
+  private final int[] masks;
+  private final Map<Long, int[]> trigrams;
+  private final Map<Character, int[]> wordStarts;
+
+  NameIndex(final String[] names) {
+    this.names = names.clone();
+    this.masks = new int[names.length];
+
+    Map<Long, Postings> trigrams = new HashMap<>();
+    Map<Character, Postings> wordStarts = new HashMap<>();
+
+    for (int i = 0; i < names.length; ++i) {
+      String name = names[i];
+      this.masks[i] = NameIndex.mask(name);
+
+      for (int j = 0; j + 3 <= name.length(); ++j) {
+        trigrams.computeIfAbsent(NameIndex.trigram(name, j), k -> new Postings()).add(i);
+      }
+
+      for (int j = 0; j < name.length(); ++j) {
+        if (j == 0 || StringUtilities.isWordBoundary(name.charAt(j - 1))) {
+          wordStarts.computeIfAbsent(name.charAt(j), k -> new Postings()).add(i);
+        }
+      }
+    }
+
+    this.trigrams = new HashMap<>(trigrams.size() * 2);
+    trigrams.forEach((key, postings) -> this.trigrams.put(key, postings.toArray()));
+    this.wordStarts = new HashMap<>(wordStarts.size() * 2);
+    wordStarts.forEach((key, postings) -> this.wordStarts.put(key, postings.toArray()));
+  }
+
+  /**
+   * Returns whether this index is still for the names in this array. Rather than compare every
+   * name, this compares the length and the first, middle and last names, which is enough to notice
+   * the array being sorted or refilled in place.
+   */
+  boolean isFor(final String[] names) {
+    int length = names.length;
+    if (length != this.names.length) {
+      return false;
+    }
+    return length == 0
+        || (names[0] == this.names[0]
+            && names[length / 2] == this.names[length / 2]
+            && names[length - 1] == this.names[length - 1]);
+  }
+
+  /** A bit for each character in the string, ignoring case and some other distinctions */
+  static int mask(final String s) {
+    int mask = 0;
+    for (int i = s.length() - 1; i >= 0; --i) {
+      mask |= 1 << (s.charAt(i) & 0x1F);
+    }
+    return mask;
+  }
+
+  private static long trigram(final String s, final int index) {
+    return ((long) s.charAt(index) << 32)
+        | ((long) s.charAt(index + 1) << 16)
+        | (long) s.charAt(index + 2);
+  }
+
+  /**
+   * Returns the names which contain the search string, in the order of the array.
+   *
+   * @param checkBoundaries Whether the search string must start at the beginning of a word
+   */
+  List<String> substringMatches(final String searchString, final boolean checkBoundaries) {
+    int[] candidates = null;
+    for (int j = 0; j + 3 <= searchString.length(); ++j) {
+      int[] postings = this.trigrams.get(NameIndex.trigram(searchString, j));
+      if (postings == null) {
+        return new ArrayList<>();
+      }
+      if (candidates == null || postings.length < candidates.length) {
+        candidates = postings;
+      }
+    }
+
+    int mask = NameIndex.mask(searchString);
+    return this.matches(
+        candidates,
+        mask,
+        name -> StringUtilities.substringMatches(name, searchString, checkBoundaries));
+  }
+
+  /** Returns the names which fuzzy match the search string, in the order of the array. */
+  List<String> fuzzyMatches(final String searchString) {
+    int first = 0;
+    while (first < searchString.length() && Character.isWhitespace(searchString.charAt(first))) {
+      ++first;
+    }
+
+    int[] candidates = null;
+    if (first < searchString.length()) {
+      candidates = this.wordStarts.get(searchString.charAt(first));
+      if (candidates == null) {
+        return new ArrayList<>();
+      }
+    }
+
+    // A search string containing spaces can fuzzy match a name with none, for example "in the
+    // box" matches "chef-in-the-box", so spaces are left out of the mask.
+    int mask = NameIndex.mask(searchString) & ~NameIndex.SPACE;
+    return this.matches(candidates, mask, name -> StringUtilities.fuzzyMatches(name, searchString));
+  }
+
+  private List<String> matches(
+      final int[] candidates, final int mask, final Predicate<String> test) {
+    List<String> matchList = new ArrayList<>();
+    int count = candidates == null ? this.names.length : candidates.length;
+    for (int k = 0; k < count; ++k) {
+      int i = candidates == null ? k : candidates[k];
+      if ((this.masks[i] & mask) == mask && test.test(this.names[i])) {
+        matchList.add(this.names[i]);
+      }
+    }
+    return matchList;
+  }
+
+  /** The positions of the names with some feature, added in increasing order */
+  private static class Postings {
+    private int[] ids = new int[2];
+    private int size = 0;
+
+    void add(final int id) {
+      if (this.size > 0 && this.ids[this.size - 1] == id) {
+        return;
+      }
+      if (this.size == this.ids.length) {
+        this.ids = Arrays.copyOf(this.ids, this.size * 2);
+      }
+      this.ids[this.size++] = id;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(this.ids, this.size);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of strings computed from other strings, which holds at most a fixed number of them and
+ * is safe to use from several threads at once.
+ *
+ * <p>The keys are spread over a number of segments, each a map in least recently used order with
+ * its own lock, so that threads using different keys seldom wait for one another. A segment which
+ * is full drops its least recently used entry to make room for a new one.
+ */
+public final class StringCache {
+  private static final int SEGMENTS = 16;
+
+  public record Stats(
+      String name, long hits, long misses, long evictions, int size, int capacity) {}
+
+  private final String name;
+  private final int capacity;
+  private final Segment[] segments = new Segment[SEGMENTS];
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public StringCache(final String name, final int capacity) {
+    this.name = name;
+    this.capacity = capacity;
+    int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+    for (int i = 0; i < SEGMENTS; ++i) {
+      this.segments[i] = new Segment(segmentCapacity);
+    }
+  }
+
+  private Segment segment(final String key) {
+    int hash = key.hashCode();
+    return this.segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+  }
+
+  /**
+   * @return the value cached for this key, or null if there is none
+   */
+  public String get(final String key) {
+    Segment segment = this.segment(key);
+    String value;
+    synchronized (segment) {
+      value = segment.get(key);
+    }
+    (value == null ? this.misses : this.hits).increment();
+    return value;
+  }
+
+  public void put(final String key, final String value) {
+    Segment segment = this.segment(key);
+    synchronized (segment) {
+      segment.put(key, value);
+    }
+  }
+
+  public void clear() {
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  public Stats getStats() {
+    return new Stats(
+        this.name,
+        this.hits.sum(),
+        this.misses.sum(),
+        this.evictions.sum(),
+        this.size(),
+        this.capacity);
+  }
+
+  private class Segment extends LinkedHashMap<String, String> {
+    private final int capacity;
+
+    Segment(final int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+      if (this.size() <= this.capacity) {
+        return false;
+      }
+      StringCache.this.evictions.increment();
+      return true;
+    }
+  }
+}
@@ -20,17 +20,20 @@ import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.RequestLogger;
 
 public class StringUtilities {
-  private static final HashMap<String, String> entityEncodeCache = new HashMap<>();
-  private static final HashMap<String, String> entityDecodeCache = new HashMap<>();
+  private static final StringCache entityEncodeCache = new StringCache("entity encode", 8192);
+  private static final StringCache entityDecodeCache = new StringCache("entity decode", 8192);
 
-  private static final HashMap<String, String> urlEncodeCache = new HashMap<>();
-  private static final HashMap<String, String> urlDecodeCache = new HashMap<>();
+  private static final StringCache urlEncodeCache = new StringCache("URL encode", 4096);
+  private static final StringCache urlDecodeCache = new StringCache("URL decode", 4096);
 
-  private static final HashMap<String, String> displayNameCache = new HashMap<>();
-  private static final HashMap<String, String> canonicalNameCache = new HashMap<>();
+  private static final StringCache displayNameCache = new StringCache("display name", 16384);
+  private static final StringCache canonicalNameCache = new StringCache("canonical name", 16384);
 
   private static final HashMap<String, String> prepositionsMap = new HashMap<>();
-  private static final WeakHashMap<String[], int[]> hashCache = new WeakHashMap<>();
+  // Arrays of fewer names are searched name by name
+  private static final int MIN_INDEXED_NAMES = 256;
+  // The index of each array searched more than once, or null for an array searched once
+  private static final WeakHashMap<String[], NameIndex> indexCache = new WeakHashMap<>();
 
   private static final Pattern NONINTEGER_PATTERN = Pattern.compile("[^0-9\\-]+");
 
@@ -76,6 +79,19 @@ public class StringUtilities {
     }
   }
 
+  /**
+   * @return how often each of the string caches has been used, and how full it is
+   */
+  public static List<StringCache.Stats> getCacheStats() {
+    return List.of(
+        StringUtilities.entityEncodeCache.getStats(),
+        StringUtilities.entityDecodeCache.getStats(),
+        StringUtilities.urlEncodeCache.getStats(),
+        StringUtilities.urlDecodeCache.getStats(),
+        StringUtilities.displayNameCache.getStats(),
+        StringUtilities.canonicalNameCache.getStats());
+  }
+
   /** Returns the encoded-encoded version of the provided UTF-8 string. */
   public static String getEntityEncode(final String utf8String) {
     return StringUtilities.getEntityEncode(utf8String, true);
@@ -248,19 +264,64 @@ public class StringUtilities {
       return matchList;
     }
 
-    int nameCount = names.length;
-    int[] hashes = StringUtilities.hashCache.get(names);
-    if (hashes == null) {
-      hashes = new int[nameCount];
-      for (int i = 0; i < nameCount; ++i) {
-        hashes[i] = StringUtilities.stringHash(names[i]);
+    NameIndex index = StringUtilities.getIndex(names);
+    if (index == null) {
+      return StringUtilities.getMatchingNamesUnindexed(names, searchString);
+    }
+
+    matchList = index.substringMatches(searchString, true);
+    if (!matchList.isEmpty()) {
+      return matchList;
+    }
+
+    matchList = index.substringMatches(searchString, false);
+    if (!matchList.isEmpty()) {
+      return matchList;
+    }
+
+    return index.fuzzyMatches(searchString);
+  }
+
+  /**
+   * Returns the index for this array, or null if it should be searched name by name instead: if it
+   * is small, or has not been searched before, as an array built afresh for each search never is.
+   */
+  private static NameIndex getIndex(final String[] names) {
+    if (names.length < StringUtilities.MIN_INDEXED_NAMES) {
+      return null;
+    }
+
+    NameIndex index;
+    synchronized (StringUtilities.indexCache) {
+      if (!StringUtilities.indexCache.containsKey(names)) {
+        StringUtilities.indexCache.put(names, null);
+        return null;
       }
-      StringUtilities.hashCache.put(names, hashes);
+      index = StringUtilities.indexCache.get(names);
     }
-    int hash = StringUtilities.stringHash(searchString);
+
+    if (index == null || !index.isFor(names)) {
+      index = new NameIndex(names);
+      synchronized (StringUtilities.indexCache) {
+        StringUtilities.indexCache.put(names, index);
+      }
+    }
+    return index;
+  }
+
+  private static List<String> getMatchingNamesUnindexed(
+      final String[] names, final String searchString) {
+    List<String> matchList = new ArrayList<>();
+
+    int nameCount = names.length;
+    int[] masks = new int[nameCount];
+    for (int i = 0; i < nameCount; ++i) {
+      masks[i] = NameIndex.mask(names[i]);
+    }
+    int mask = NameIndex.mask(searchString);
 
     for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash
+      if ((masks[i] & mask) == mask
           && StringUtilities.substringMatches(names[i], searchString, true)) {
         matchList.add(names[i]);
       }
@@ -271,7 +332,7 @@ public class StringUtilities {
     }
 
     for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash
+      if ((masks[i] & mask) == mask
           && StringUtilities.substringMatches(names[i], searchString, false)) {
         matchList.add(names[i]);
       }
@@ -284,12 +345,12 @@ public class StringUtilities {
     // There is an oddball special case here: a search string containing
     // spaces can successfully fuzzy-match an item name with no spaces,
     // for example "in the box" will match "chef-in-the-box".  However,
-    // the hash check would prevent us from even trying such a match.
-    // Therefore, strip out the bit representing a space in the hash:
-    hash &= ~StringUtilities.stringHash(" ");
+    // the mask check would prevent us from even trying such a match.
+    // Therefore, strip out the bit representing a space in the mask:
+    mask &= ~NameIndex.mask(" ");
 
     for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash && StringUtilities.fuzzyMatches(names[i], searchString)) {
+      if ((masks[i] & mask) == mask && StringUtilities.fuzzyMatches(names[i], searchString)) {
         matchList.add(names[i]);
       }
     }
@@ -297,14 +358,6 @@ public class StringUtilities {
     return matchList;
   }
 
-  private static int stringHash(final String s) {
-    int hash = 0;
-    for (int i = s.length() - 1; i >= 0; --i) {
-      hash |= 1 << (s.charAt(i) & 0x1F);
-    }
-    return hash;
-  }
-
   public static boolean substringMatches(
       final String source, final String substring, final boolean checkBoundaries) {
     if (source == null) {
@@ -385,7 +438,7 @@ public class StringUtilities {
     return false;
   }
 
-  private static boolean isWordBoundary(char ch) {
+  static boolean isWordBoundary(char ch) {
     return ch != '#' && !Character.isLetterOrDigit(ch);
   }
 
@@ -0,0 +1,135 @@
+package net.sourceforge.kolmafia;
+
+import static internal.helpers.Player.withEffect;
+import static internal.helpers.Player.withEquipped;
+import static internal.helpers.Player.withFamiliar;
+import static internal.helpers.Player.withSkill;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import internal.helpers.Cleanups;
+import java.util.ArrayList;
+import java.util.Map;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.modifiers.DoubleModifier;
+import net.sourceforge.kolmafia.objectpool.FamiliarPool;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.session.EquipmentManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AdjustmentCacheTest {
+  @BeforeEach
+  public void beforeEach() {
+    KoLCharacter.reset("AdjustmentCacheTest");
+    Preferences.reset("AdjustmentCacheTest");
+  }
+
+  private static Modifiers calculate(Map<Slot, AdventureResult> equipment, AdjustmentCache cache) {
+    return KoLCharacter.recalculateAdjustments(
+        false,
+        0,
+        equipment,
+        new ArrayList<>(KoLConstants.activeEffects),
+        KoLCharacter.getFamiliar(),
+        FamiliarData.NO_FAMILIAR,
+        FamiliarData.NO_FAMILIAR,
+        null,
+        "",
+        "",
+        Modeable.getStateMap(),
+        true,
+        cache);
+  }
+
+  @Test
+  public void cachedCalculationMatchesFullCalculation() {
+    var cleanups =
+        new Cleanups(
+            withFamiliar(FamiliarPool.BABY_GRAVY_FAIRY),
+            withSkill("Amphibian Sympathy"),
+            withEffect("Fat Leon's Phat Loot Lyric"),
+            withEquipped(Slot.PANTS, "Travoltan trousers"));
+
+    try (cleanups) {
+      var equipment = EquipmentManager.allEquipment();
+      var cache = new AdjustmentCache();
+
+      Modifiers full = calculate(equipment, null);
+      Modifiers cached = calculate(equipment, cache);
+      Modifiers again = calculate(equipment, cache);
+
+      for (var mod :
+          new DoubleModifier[] {
+            DoubleModifier.ITEMDROP,
+            DoubleModifier.INITIATIVE,
+            DoubleModifier.FAMILIAR_WEIGHT,
+            DoubleModifier.MOX_PCT
+          }) {
+        assertThat(mod.getName(), cached.getDouble(mod), equalTo(full.getDouble(mod)));
+        assertThat(mod.getName(), again.getDouble(mod), equalTo(full.getDouble(mod)));
+        assertThat(mod.getName(), cached.getAccumulator(mod), equalTo(full.getAccumulator(mod)));
+      }
+    }
+  }
+
+  @Test
+  public void changingEquipmentReusesCachedParts() {
+    var cleanups = new Cleanups(withEffect("Fat Leon's Phat Loot Lyric"));
+
+    try (cleanups) {
+      var equipment = EquipmentManager.allEquipment();
+      var cache = new AdjustmentCache();
+
+      calculate(equipment, cache);
+      int parts = cache.size();
+
+      equipment.put(Slot.PANTS, ItemPool.get(ItemPool.TRAVOLTAN_TROUSERS));
+      Modifiers mods = calculate(equipment, cache);
+
+      assertThat(cache.size(), is(parts));
+      assertThat(mods.getDouble(DoubleModifier.ITEMDROP), equalTo(20.0));
+      assertThat(mods.getDouble(DoubleModifier.INITIATIVE), equalTo(30.0));
+    }
+  }
+
+  @Test
+  public void cacheIsNotUsedForOtherEffects() {
+    var cache = new AdjustmentCache();
+    var equipment = EquipmentManager.allEquipment();
+
+    calculate(equipment, cache);
+
+    var cleanups = new Cleanups(withEffect("Fat Leon's Phat Loot Lyric"));
+    try (cleanups) {
+      Modifiers mods = calculate(equipment, cache);
+      assertThat(mods.getDouble(DoubleModifier.ITEMDROP), equalTo(20.0));
+    }
+  }
+
+  @Test
+  public void combinedManaCostMatchesSerialSum() {
+    double[] sources = {3, -2, -2, -1};
+
+    Modifiers serial = new Modifiers();
+    for (double source : sources) {
+      serial.addDouble(DoubleModifier.MANA_COST, source, ModifierType.NONE, "");
+    }
+
+    Modifiers part = new Modifiers();
+    for (int i = 1; i < sources.length; ++i) {
+      part.addDouble(DoubleModifier.MANA_COST, sources[i], ModifierType.NONE, "");
+    }
+    Modifiers combined = new Modifiers();
+    combined.addDouble(DoubleModifier.MANA_COST, sources[0], ModifierType.NONE, "");
+    combined.addCombined(part);
+
+    assertThat(combined.getDouble(DoubleModifier.MANA_COST), equalTo(-2.0));
+    assertThat(
+        combined.getDouble(DoubleModifier.MANA_COST),
+        equalTo(serial.getDouble(DoubleModifier.MANA_COST)));
+    assertThat(part.getDouble(DoubleModifier.MANA_COST), equalTo(-3.0));
+  }
+}
@@ -115,6 +115,28 @@ public class AreaCombatDataTest {
             hasEntry(GHOST, 0.0)));
   }
 
+  @Test
+  public void reusesEncounterChancesUntilSomethingChanges() {
+    SMUT_ORC_CAMP.getMonsterData(true);
+    long hits = AreaCombatData.getCacheHits();
+    long rebuilds = AreaCombatData.getCacheRebuilds();
+
+    Map<MonsterData, Double> first = SMUT_ORC_CAMP.getMonsterData(true);
+    Map<MonsterData, Double> second = SMUT_ORC_CAMP.getMonsterData(true);
+
+    assertThat(second, equalTo(first));
+    assertThat(first.get(JACKER), greaterThan(0.0));
+    assertThat(AreaCombatData.getCacheHits(), equalTo(hits + 2));
+    assertThat(AreaCombatData.getCacheRebuilds(), equalTo(rebuilds));
+
+    // The Blech House replaces the monsters
+    Preferences.setInteger("smutOrcNoncombatProgress", 15);
+    Map<MonsterData, Double> third = SMUT_ORC_CAMP.getMonsterData(true);
+
+    assertThat(third.get(JACKER), equalTo(0.0));
+    assertThat(AreaCombatData.getCacheRebuilds(), greaterThan(rebuilds));
+  }
+
   @Test
   public void nonstatefulDataWithNonzeroCombatRate() {
     try (var cleanup = withEffect(EffectPool.TAUNT_OF_HORUS)) {
@@ -97,4 +97,14 @@ public class ExpressionTest {
     var exp = new Expression("1+(4*path(The Source))", "nonexistent function");
     assertThat(exp.hasErrors(), equalTo(true));
   }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {"1+2*3-4", "-(3^2)%5", "max(min(1,2),floor(2.5))", "pref(test)", "32769", "@"})
+  void compiledExpressionMatchesInterpreter(String input) {
+    Preferences.setString("test", "7");
+    var exp = new Expression(input, input);
+    assertThat(exp.isCompiled(), equalTo(true));
+    assertEquals(exp.interpret(), exp.eval());
+  }
 }
@@ -557,4 +557,22 @@ public class ModifierExpressionTest {
       assertThat(exp.eval(), is(2.0));
     }
   }
+
+  @Test
+  public void compiledExpressionMatchesInterpreter() {
+    var cleanups =
+        new Cleanups(
+            withSkill("Natural Born Scrabbler"),
+            withEffect("Confused"),
+            withEquipped(Slot.WEAPON, "seal-clubbing club"));
+    try (cleanups) {
+      var exp =
+          new ModifierExpression(
+              "skill(38)+effect(Confused)*2+equipped(seal-clubbing club)*4+stripcommas(1,000)",
+              "Compiled");
+      assertThat(exp.isCompiled(), is(true));
+      assertThat(exp.eval(), is(1007.0));
+      assertThat(exp.eval(), is(exp.interpret()));
+    }
+  }
 }
@@ -149,6 +149,31 @@ public class ModifiersTest {
     assertEquals(-30, mod.getDouble(DoubleModifier.COMBAT_RATE));
   }
 
+  @Test
+  public void familiarWeightPenaltiesDoNotStack() {
+    Modifiers mod = new Modifiers();
+    mod.addDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT, -50, ModifierType.NONE, "");
+    mod.addDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT, -50, ModifierType.NONE, "");
+    assertEquals(-50, mod.getDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT));
+    mod.addDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT, -25, ModifierType.NONE, "");
+    assertEquals(-50, mod.getDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT));
+  }
+
+  @Test
+  public void familiarWeightBonusesStackWithPenalty() {
+    Modifiers mod = new Modifiers();
+    mod.addDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT, 10, ModifierType.NONE, "");
+    mod.addDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT, -25, ModifierType.NONE, "");
+    assertEquals(-15, mod.getDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT));
+    mod.addDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT, -50, ModifierType.NONE, "");
+    assertEquals(-40, mod.getDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT));
+
+    Modifiers total = new Modifiers();
+    total.addDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT, -50, ModifierType.NONE, "");
+    total.addCombined(mod);
+    assertEquals(-40, total.getDouble(DoubleModifier.FAMILIAR_WEIGHT_PCT));
+  }
+
   public static Stream<Arguments> getsRightModifiersNakedHatrack() {
     return Stream.of(
         Arguments.of(FamiliarPool.HATRACK, DoubleModifier.HATDROP),
@@ -172,6 +197,23 @@ public class ModifiersTest {
     }
   }
 
+  @Test
+  public void passiveSkillsFollowAvailableSkills() {
+    var cleanups = new Cleanups(withSkill("Amphibian Sympathy"));
+
+    try (cleanups) {
+      KoLCharacter.recalculateAdjustments();
+      assertThat(
+          KoLCharacter.getCurrentModifiers().getDouble(DoubleModifier.ITEMDROP), equalTo(0.0));
+
+      try (var observatiogn = withSkill(SkillPool.OBSERVATIOGN)) {
+        KoLCharacter.recalculateAdjustments();
+        assertThat(
+            KoLCharacter.getCurrentModifiers().getDouble(DoubleModifier.ITEMDROP), equalTo(10.0));
+      }
+    }
+  }
+
   @Nested
   class Fixodene {
     @Test
@@ -0,0 +1,86 @@
+package net.sourceforge.kolmafia;
+
+import static internal.helpers.Player.withFamiliar;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import internal.helpers.Cleanups;
+import net.sourceforge.kolmafia.objectpool.FamiliarPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SpeculationContextTest {
+  @BeforeEach
+  public void beforeEach() {
+    KoLCharacter.reset("SpeculationContextTest");
+  }
+
+  @Test
+  public void currentContextReflectsLiveCharacterWhenNoneIsActive() {
+    var cleanups = new Cleanups(withFamiliar(FamiliarPool.MOSQUITO));
+
+    try (cleanups) {
+      KoLCharacter.recalculateAdjustments();
+
+      var context = SpeculationContext.current();
+      assertThat(context.familiar(), equalTo(Modifiers.currentFamiliar));
+      assertThat(context.speculative(), is(false));
+    }
+  }
+
+  @Test
+  public void speculativeValuesStayOffLiveCharacter() {
+    Modifiers.smithsness = 3.0;
+
+    var previous = SpeculationContext.live(true).enter();
+    try {
+      SpeculationContext.publishSmithsness(7.0);
+      assertThat(SpeculationContext.current().smithsness(), equalTo(7.0));
+    } finally {
+      SpeculationContext.restore(previous);
+    }
+
+    assertThat(Modifiers.smithsness, equalTo(3.0));
+    assertThat(SpeculationContext.current().smithsness(), equalTo(3.0));
+  }
+
+  @Test
+  public void expressionsReadActiveContext() {
+    var exp = new ModifierExpression("W", "SpeculationContextTest");
+
+    var previous = SpeculationContext.live(true).withFamiliarWeight(15).enter();
+    try {
+      assertThat(exp.eval(), equalTo(15.0));
+    } finally {
+      SpeculationContext.restore(previous);
+    }
+  }
+
+  @Test
+  public void speculatingAnotherFamiliarLeavesCurrentFamiliarAlone() {
+    var cleanups = new Cleanups(withFamiliar(FamiliarPool.MOSQUITO));
+
+    try (cleanups) {
+      KoLCharacter.recalculateAdjustments();
+      String race = Modifiers.currentFamiliar;
+      double weight = Modifiers.currentWeight;
+
+      var spec = new Speculation();
+      spec.setFamiliar(new FamiliarData(FamiliarPool.BABY_GRAVY_FAIRY));
+      spec.calculate();
+
+      assertThat(Modifiers.currentFamiliar, equalTo(race));
+      assertThat(Modifiers.currentWeight, equalTo(weight));
+    }
+  }
+
+  @Test
+  public void notesReadsOfEquipmentValues() {
+    var smithsness = new ModifierExpression("K", "SpeculationContextTest");
+    var level = new ModifierExpression("L", "SpeculationContextTest");
+
+    assertThat(SpeculationContext.readsEquipment(smithsness::eval), is(true));
+    assertThat(SpeculationContext.readsEquipment(level::eval), is(false));
+  }
+}
@@ -17,6 +17,7 @@ import static internal.helpers.Player.withEquippableItem;
 import static internal.helpers.Player.withEquipped;
 import static internal.helpers.Player.withFamiliar;
 import static internal.helpers.Player.withFamiliarInTerrarium;
+import static internal.helpers.Player.withFullness;
 import static internal.helpers.Player.withItem;
 import static internal.helpers.Player.withLocation;
 import static internal.helpers.Player.withMeat;
@@ -30,6 +31,8 @@ import static internal.helpers.Player.withStats;
 import static internal.helpers.Player.withoutHoliday;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -991,6 +994,20 @@ public class MaximizerTest {
           recommendedSlotIsUnchanged(Slot.ACCESSORY3);
         }
       }
+
+      @Test
+      public void leavesCharacterHoboPowerAlone() {
+        final var cleanups =
+            new Cleanups(
+                withEquippableItem("Hodgman's garbage sticker"),
+                withEquippableItem("Hodgman's porkpie hat"));
+
+        try (cleanups) {
+          assertTrue(maximize("meat -tie"));
+
+          assertThat(Modifiers.hoboPower, equalTo(0.0));
+        }
+      }
     }
   }
 
@@ -1993,4 +2010,163 @@ public class MaximizerTest {
       }
     }
   }
+
+  @Nested
+  class Parallel {
+    @Test
+    public void parallelSearchFindsSameOutfitAsSerial() {
+      final var cleanups =
+          new Cleanups(
+              withProperty("maximizerThreads", 4),
+              withEquippableItem("bounty-hunting helmet"),
+              withEquippableItem("bounty-hunting rifle"),
+              withEquippableItem("bounty-hunting pants"),
+              withEquippableItem("eldritch hat"),
+              withEquippableItem("eldritch pants"));
+
+      try (cleanups) {
+        assertTrue(maximize("item -tie"));
+
+        assertEquals(70, modFor(DoubleModifier.ITEMDROP), 0.01);
+        recommendedSlotIs(Slot.HAT, "bounty-hunting helmet");
+        recommendedSlotIs(Slot.WEAPON, "bounty-hunting rifle");
+        recommendedSlotIs(Slot.PANTS, "bounty-hunting pants");
+      }
+    }
+
+    @Test
+    public void parallelSearchRespectsCombinationLimit() {
+      final var cleanups =
+          new Cleanups(
+              withProperty("maximizerThreads", 4),
+              withProperty("maximizerCombinationLimit", 1),
+              withEquippableItem("eldritch hat"),
+              withEquippableItem("eldritch pants"),
+              withEquippableItem("Team Avarice cap"));
+
+      try (cleanups) {
+        maximize("item -tie");
+
+        assertTrue(
+            someBoostIs(b -> b.toString().contains("hit combination limit")),
+            "combination limit should be reported");
+      }
+    }
+  }
+
+  @Nested
+  class Pruning {
+    @Test
+    public void prunesLoadoutsThatCannotBeatBest() {
+      final var cleanups =
+          new Cleanups(
+              withEquippableItem("Team Avarice cap"),
+              withEquippableItem("Flash Liquidizer Ultra Dousing Accessory"),
+              withEquippableItem("observational glasses"));
+
+      try (cleanups) {
+        assertTrue(maximize("item -tie"));
+
+        assertEquals(125, modFor(DoubleModifier.ITEMDROP), 0.01);
+        recommendedSlotIs(Slot.HAT, "Team Avarice cap");
+        assertThat(Maximizer.last.pruned, greaterThan(0));
+        assertThat(Maximizer.last.pruned, lessThanOrEqualTo(Maximizer.last.visited));
+      }
+    }
+
+    @Test
+    public void doesNotPruneDerivedModifiers() {
+      final var cleanups =
+          new Cleanups(
+              withEquippableItem("cursed cutlass"), withEquippableItem("dense meat sword"));
+
+      try (cleanups) {
+        assertTrue(maximize("mus -tie"));
+
+        recommendedSlotIs(Slot.WEAPON, "cursed cutlass");
+        assertThat(Maximizer.last.visited, equalTo(0));
+      }
+    }
+  }
+
+  @Nested
+  class ResultCaching {
+    @Test
+    public void reusesResultWhileNothingChanges() {
+      final var cleanups =
+          new Cleanups(
+              withProperty("maximizerResultCacheSize", 4),
+              withEquippableItem("Team Avarice cap"));
+
+      try (cleanups) {
+        Maximizer.clearResultCache();
+        assertTrue(maximize("item"));
+        assertTrue(maximize("item"));
+
+        recommendedSlotIs(Slot.HAT, "Team Avarice cap");
+        assertEquals(100, modFor(DoubleModifier.ITEMDROP), 0.01);
+        assertThat(Maximizer.getResultCacheMisses(), equalTo(1));
+        assertThat(Maximizer.getResultCacheHits(), equalTo(1));
+      }
+    }
+
+    @Test
+    public void searchesAgainWhenInventoryChanges() {
+      final var cleanups =
+          new Cleanups(
+              withProperty("maximizerResultCacheSize", 4),
+              withEquippableItem("observational glasses"));
+
+      try (cleanups) {
+        Maximizer.clearResultCache();
+        assertTrue(maximize("item"));
+        recommends("observational glasses");
+
+        try (var more = withEquippableItem("Team Avarice cap")) {
+          assertTrue(maximize("item"));
+          recommendedSlotIs(Slot.HAT, "Team Avarice cap");
+        }
+
+        assertThat(Maximizer.getResultCacheMisses(), equalTo(2));
+        assertThat(Maximizer.getResultCacheHits(), equalTo(0));
+      }
+    }
+
+    @Test
+    public void searchesAgainWhenFullnessOrMeatChanges() {
+      final var cleanups =
+          new Cleanups(
+              withProperty("maximizerResultCacheSize", 4),
+              withEquippableItem("Team Avarice cap"));
+
+      try (cleanups) {
+        Maximizer.clearResultCache();
+        assertTrue(maximize("item"));
+
+        try (var fuller = withFullness(5)) {
+          assertTrue(maximize("item"));
+        }
+        try (var richer = withMeat(1000)) {
+          assertTrue(maximize("item"));
+        }
+
+        assertThat(Maximizer.getResultCacheMisses(), equalTo(3));
+        assertThat(Maximizer.getResultCacheHits(), equalTo(0));
+      }
+    }
+
+    @Test
+    public void doesNotCacheWhenDisabled() {
+      final var cleanups = new Cleanups(withEquippableItem("Team Avarice cap"));
+
+      try (cleanups) {
+        Maximizer.clearResultCache();
+        assertTrue(maximize("item"));
+        assertTrue(maximize("item"));
+
+        assertThat(Maximizer.getResultCacheMisses(), equalTo(0));
+        assertThat(Maximizer.getResultCacheHits(), equalTo(0));
+      }
+    }
+  }
 }
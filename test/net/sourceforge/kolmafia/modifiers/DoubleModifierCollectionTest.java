@@ -0,0 +1,130 @@
+package net.sourceforge.kolmafia.modifiers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class DoubleModifierCollectionTest {
+  @Test
+  public void unsetModifiersAreZero() {
+    var doubles = new DoubleModifierCollection();
+
+    assertThat(doubles.get(DoubleModifier.MEATDROP), equalTo(0.0));
+    assertThat(doubles.nextIndex(0), is(-1));
+  }
+
+  @Test
+  public void addAccumulatesValues() {
+    var doubles = new DoubleModifierCollection();
+
+    assertThat(doubles.add(DoubleModifier.ITEMDROP, 10.0), equalTo(10.0));
+    assertThat(doubles.add(DoubleModifier.ITEMDROP, 15.0), equalTo(25.0));
+    assertThat(doubles.get(DoubleModifier.ITEMDROP), equalTo(25.0));
+  }
+
+  @Test
+  public void setReportsWhetherValueChanged() {
+    var doubles = new DoubleModifierCollection();
+
+    assertThat(doubles.set(DoubleModifier.MUS, 5.0), is(true));
+    assertThat(doubles.set(DoubleModifier.MUS, 5.0), is(false));
+    assertThat(doubles.set(DoubleModifier.MUS, 6.0), is(true));
+  }
+
+  @Test
+  public void settingZeroRemovesModifier() {
+    var doubles = new DoubleModifierCollection();
+
+    doubles.set(DoubleModifier.MOX, 5.0);
+    doubles.set(DoubleModifier.MOX, 0.0);
+
+    assertThat(doubles.get(DoubleModifier.MOX), equalTo(0.0));
+    assertThat(doubles.nextIndex(0), is(-1));
+  }
+
+  @Test
+  public void iteratesSetModifiersInOrdinalOrder() {
+    var doubles = new DoubleModifierCollection();
+
+    doubles.set(DoubleModifier.SPLEEN_CAPACITY, 1.0);
+    doubles.add(DoubleModifier.MEATDROP, 2.0);
+    doubles.set(DoubleModifier.INITIATIVE, 3.0);
+
+    List<DoubleModifier> seen = new ArrayList<>();
+    doubles.forEach((mod, value) -> seen.add(mod));
+
+    List<DoubleModifier> indexed = new ArrayList<>();
+    for (int i = doubles.nextIndex(0); i >= 0; i = doubles.nextIndex(i + 1)) {
+      indexed.add(DoubleModifierCollection.modifier(i));
+    }
+
+    assertThat(
+        seen,
+        contains(
+            DoubleModifier.INITIATIVE, DoubleModifier.MEATDROP, DoubleModifier.SPLEEN_CAPACITY));
+    assertThat(indexed, equalTo(seen));
+  }
+
+  @Test
+  public void resetClearsAllValues() {
+    var doubles = new DoubleModifierCollection();
+
+    doubles.add(DoubleModifier.HOT_DAMAGE, 4.0);
+    doubles.reset();
+
+    assertThat(doubles.get(DoubleModifier.HOT_DAMAGE), equalTo(0.0));
+    assertThat(doubles.nextIndex(0), is(-1));
+  }
+
+  @Test
+  public void overlayReadsThroughToBase() {
+    var base = new DoubleModifierCollection();
+    base.set(DoubleModifier.MEATDROP, 10.0);
+    base.set(DoubleModifier.ITEMDROP, 20.0);
+
+    var overlay = base.overlay();
+    overlay.set(DoubleModifier.ITEMDROP, 5.0);
+    overlay.add(DoubleModifier.MEATDROP, 1.0);
+    overlay.set(DoubleModifier.MUS, 3.0);
+
+    assertThat(overlay.get(DoubleModifier.MEATDROP), equalTo(11.0));
+    assertThat(overlay.get(DoubleModifier.ITEMDROP), equalTo(5.0));
+    assertThat(overlay.get(DoubleModifier.MUS), equalTo(3.0));
+    assertThat(base.get(DoubleModifier.MEATDROP), equalTo(10.0));
+    assertThat(base.get(DoubleModifier.ITEMDROP), equalTo(20.0));
+    assertThat(base.get(DoubleModifier.MUS), equalTo(0.0));
+    assertThat(base.nextIndex(DoubleModifier.MUS.ordinal()), is(-1));
+  }
+
+  @Test
+  public void overlayCanClearBaseValues() {
+    var base = new DoubleModifierCollection();
+    base.set(DoubleModifier.MOX, 5.0);
+
+    var overlay = base.overlay();
+    overlay.set(DoubleModifier.MOX, 0.0);
+
+    assertThat(overlay.get(DoubleModifier.MOX), equalTo(0.0));
+    assertThat(overlay.nextIndex(0), is(-1));
+    assertThat(base.get(DoubleModifier.MOX), equalTo(5.0));
+  }
+
+  @Test
+  public void overlayOfOverlayIsCopy() {
+    var base = new DoubleModifierCollection();
+    base.set(DoubleModifier.MEATDROP, 10.0);
+    var overlay = base.overlay();
+    overlay.set(DoubleModifier.ITEMDROP, 5.0);
+
+    var copy = overlay.overlay();
+    overlay.set(DoubleModifier.ITEMDROP, 7.0);
+
+    assertThat(copy.get(DoubleModifier.MEATDROP), equalTo(10.0));
+    assertThat(copy.get(DoubleModifier.ITEMDROP), equalTo(5.0));
+  }
+}
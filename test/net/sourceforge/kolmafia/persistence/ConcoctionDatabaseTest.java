@@ -0,0 +1,125 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static internal.helpers.Player.withConcoctionRefresh;
+import static internal.helpers.Player.withItem;
+import static internal.helpers.Player.withMeat;
+import static internal.helpers.Player.withProperty;
+import static internal.matchers.Preference.isSetTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import internal.helpers.Cleanups;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.objectpool.ConcoctionPool;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.request.CreateItemRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConcoctionDatabaseTest {
+  @BeforeEach
+  void beforeEach() {
+    KoLCharacter.reset("ConcoctionDatabaseTest");
+    Preferences.reset("ConcoctionDatabaseTest");
+  }
+
+  @Test
+  void changedItemRecalculatesWhatIsMadeFromIt() {
+    var cleanups =
+        new Cleanups(
+            withItem(ItemPool.PALM_FROND, 2),
+            withConcoctionRefresh(),
+            withProperty("_concoctionDatabaseRefreshes", 0),
+            withProperty("_concoctionDatabasePartialRefreshes", 0));
+    try (cleanups) {
+      var fan = ConcoctionPool.get(ItemPool.PALM_FROND_FAN);
+      assertThat(fan.creatable, is(1));
+
+      AdventureResult.addResultToList(
+          KoLConstants.inventory, ItemPool.get(ItemPool.PALM_FROND, 2));
+      ConcoctionDatabase.setRefreshNeeded(ItemPool.PALM_FROND);
+      ConcoctionDatabase.refreshConcoctions(false);
+
+      assertThat(fan.creatable, is(2));
+      assertThat("_concoctionDatabaseRefreshes", isSetTo(0));
+      assertThat("_concoctionDatabasePartialRefreshes", isSetTo(1));
+    }
+  }
+
+  @Test
+  void otherChangesRecalculateEverything() {
+    var cleanups =
+        new Cleanups(
+            withItem(ItemPool.PALM_FROND, 2),
+            withMeat(0),
+            withConcoctionRefresh(),
+            withProperty("_concoctionDatabaseRefreshes", 0),
+            withProperty("_concoctionDatabasePartialRefreshes", 0));
+    try (cleanups) {
+      KoLCharacter.setAvailableMeat(1000);
+      ConcoctionDatabase.setRefreshNeeded(ItemPool.PALM_FROND);
+      ConcoctionDatabase.refreshConcoctions(false);
+
+      assertThat("_concoctionDatabaseRefreshes", isSetTo(1));
+      assertThat("_concoctionDatabasePartialRefreshes", isSetTo(0));
+    }
+  }
+
+  @Test
+  void delayedRefreshesAreCoalescedAndPublishedTogether() {
+    var cleanups =
+        new Cleanups(
+            withItem(ItemPool.PALM_FROND, 2),
+            withConcoctionRefresh(),
+            withProperty("concoctionRefreshDelay", 60000),
+            withProperty("_concoctionDatabaseRefreshes", 0),
+            withProperty("_concoctionDatabasePartialRefreshes", 0));
+    try (cleanups) {
+      var fan = ConcoctionPool.get(ItemPool.PALM_FROND_FAN);
+      var request = CreateItemRequest.getInstance(ItemPool.PALM_FROND_FAN);
+      assertThat(request.getQuantityPossible(), is(1));
+
+      for (int i = 0; i < 3; ++i) {
+        AdventureResult.addResultToList(
+            KoLConstants.inventory, ItemPool.get(ItemPool.PALM_FROND, 2));
+        ConcoctionDatabase.setRefreshNeeded(ItemPool.PALM_FROND);
+        ConcoctionDatabase.refreshConcoctions(false);
+      }
+
+      // Nothing has been recalculated yet
+      assertThat(ConcoctionDatabase.getSnapshot().getCreatable(fan), is(1));
+
+      // Asking how many can be made waits for the refresh
+      assertThat(request.getQuantityPossible(), is(4));
+      assertThat(ConcoctionDatabase.getSnapshot().getCreatable(fan), is(4));
+      assertThat("_concoctionDatabaseRefreshes", isSetTo(0));
+      assertThat("_concoctionDatabasePartialRefreshes", isSetTo(1));
+    }
+  }
+
+  @Test
+  void partialRefreshesLeaveEarlierSnapshotsUnchanged() {
+    var cleanups =
+        new Cleanups(
+            withItem(ItemPool.PALM_FROND, 2),
+            withConcoctionRefresh(),
+            withProperty("_concoctionDatabasePartialRefreshes", 0));
+    try (cleanups) {
+      var fan = ConcoctionPool.get(ItemPool.PALM_FROND_FAN);
+      var before = ConcoctionDatabase.getSnapshot();
+
+      AdventureResult.addResultToList(
+          KoLConstants.inventory, ItemPool.get(ItemPool.PALM_FROND, 2));
+      ConcoctionDatabase.setRefreshNeeded(ItemPool.PALM_FROND);
+      ConcoctionDatabase.refreshConcoctions(false);
+
+      assertThat("_concoctionDatabasePartialRefreshes", isSetTo(1));
+      assertThat(before.getCreatable(fan), is(1));
+      assertThat(ConcoctionDatabase.getSnapshot().getCreatable(fan), is(2));
+      assertThat(ConcoctionDatabase.getSnapshot().get(fan).initial(), is(0));
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static internal.helpers.Player.withProperty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.persistence.DatabaseInitializer.Timing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class DatabaseInitializerTest {
+  @BeforeEach
+  @AfterEach
+  void reset() {
+    DatabaseInitializer.reset();
+  }
+
+  @Test
+  void loadsNothingByDefault() {
+    try (var cleanups = withProperty("databaseLoadThreads", 0)) {
+      DatabaseInitializer.initialize();
+    }
+
+    assertThat(DatabaseInitializer.getTimings(), empty());
+    assertThat(DatabaseInitializer.getThreads(), is(0));
+  }
+
+  @Test
+  @Timeout(value = 60, unit = TimeUnit.SECONDS)
+  void loadsEveryDatabaseConcurrently() {
+    try (var cleanups = withProperty("databaseLoadThreads", 4)) {
+      DatabaseInitializer.initialize();
+    }
+
+    var timings = DatabaseInitializer.getTimings();
+    assertThat(
+        timings.stream().map(Timing::name).toList(),
+        hasItems(
+            "HolidayDatabase",
+            "ItemDatabase",
+            "ModifierDatabase",
+            "ConcoctionDatabase",
+            "MonsterDatabase",
+            "AdventureDatabase",
+            "PocketDatabase"));
+    assertThat(timings.stream().anyMatch(Timing::failed), is(false));
+    assertThat(DatabaseInitializer.getThreads(), is(4));
+  }
+}
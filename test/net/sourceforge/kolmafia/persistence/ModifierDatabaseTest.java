@@ -1,7 +1,10 @@
 package net.sourceforge.kolmafia.persistence;
 
+import static internal.helpers.Player.withLevel;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.BufferedReader;
@@ -17,6 +20,7 @@ import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.ModifierType;
 import net.sourceforge.kolmafia.Modifiers;
 import net.sourceforge.kolmafia.modifiers.BitmapModifier;
+import net.sourceforge.kolmafia.modifiers.DoubleModifier;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -66,6 +70,29 @@ public class ModifierDatabaseTest {
     assertEquals(modifier, ModifierDatabase.parseModifier(enchantment));
   }
 
+  @Test
+  public void variableModifiersAreEvaluatedIntoACopy() {
+    Modifiers atLevel5;
+    try (var cleanups = withLevel(5)) {
+      atLevel5 = ModifierDatabase.getModifiers(ModifierType.ITEM, "The Emperor's new hat");
+    }
+    try (var cleanups = withLevel(10)) {
+      Modifiers atLevel10 =
+          ModifierDatabase.getModifiers(ModifierType.ITEM, "The Emperor's new hat");
+      assertThat(atLevel10, not(sameInstance(atLevel5)));
+      assertThat(atLevel10.getDouble(DoubleModifier.MYS), is(10.0));
+      assertThat(atLevel5.getDouble(DoubleModifier.MYS), is(5.0));
+    }
+  }
+
+  @Test
+  public void constantModifiersAreShared() {
+    Modifiers first = ModifierDatabase.getModifiers(ModifierType.ITEM, "ring of conflict");
+    Modifiers second = ModifierDatabase.getModifiers(ModifierType.ITEM, "ring of conflict");
+    assertThat(first.variable, is(false));
+    assertThat(second, sameInstance(first));
+  }
+
   @Test
   @Disabled("modifiers.txt would need to be modified")
   public void writeModifiersSubsetOfModifiersTxt() throws IOException {
@@ -0,0 +1,122 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import static internal.helpers.Player.withProperty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.textui.AshRuntime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FunctionCompilerTest {
+  private static final String SCRIPT =
+      """
+      string classify(int i) {
+        if (i % 15 == 0) {
+          return "fizzbuzz";
+        } else if (i % 5 == 0) {
+          return "buzz";
+        } else if (i % 3 == 0) {
+          return "fizz";
+        } else {
+          return i;
+        }
+      }
+
+      float average(int n) {
+        float total = 0;
+        int count = 0;
+        while (true) {
+          count += 1;
+          if (count > n) break;
+          if (count % 2 == 0) continue;
+          total += count * 1.5;
+        }
+        return total / n;
+      }
+
+      string summary(int n) {
+        string s = "";
+        for i from 1 to n {
+          s = s + classify(i) + ",";
+        }
+        int x = 0;
+        x++;
+        ++x;
+        x -= 1;
+        x <<= 3;
+        return s + x + " " + average(n) + " " + (n > 3 && !(n == 5) || -n > 0);
+      }
+
+      int fib(int n) {
+        if (n < 2) {
+          return n;
+        }
+        return fib(n - 1) + fib(n - 2);
+      }
+
+      string run() {
+        string result;
+        for i from 1 to 149 {
+          result = summary(i % 20 + 1) + " " + fib(i % 12);
+        }
+        return result;
+      }
+
+      run();
+      """;
+
+  @BeforeEach
+  void beforeEach() {
+    KoLCharacter.reset("FunctionCompilerTest");
+    Preferences.reset("FunctionCompilerTest");
+  }
+
+  private static AshRuntime validate(final String script) {
+    AshRuntime runtime = new AshRuntime();
+    runtime.validate(null, new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)));
+    return runtime;
+  }
+
+  private static boolean isCompiled(final AshRuntime runtime, final String name) {
+    Function[] functions = runtime.getFunctions().findFunctions(name);
+    return ((UserDefinedFunction) functions[0]).isCompiled();
+  }
+
+  @Test
+  void compiledFunctionsReturnWhatTheInterpreterReturns() {
+    AshRuntime interpreted = validate(SCRIPT);
+    String expected;
+    try (var cleanups = withProperty("ashCompileHotFunctions", false)) {
+      expected = interpreted.execute("main", null).toString();
+    }
+    assertThat(isCompiled(interpreted, "summary"), is(false));
+
+    AshRuntime compiled = validate(SCRIPT);
+    String actual = compiled.execute("main", null).toString();
+    assertThat(isCompiled(compiled, "summary"), is(true));
+    assertThat(isCompiled(compiled, "classify"), is(true));
+    assertThat(isCompiled(compiled, "fib"), is(true));
+
+    assertThat(actual, equalTo(expected));
+    assertThat(actual, equalTo("1,2,fizz,4,buzz,fizz,7,8,fizz,buzz,8 3.75 true 5"));
+  }
+
+  @Test
+  void functionsAreInterpretedUntilCalledOften() {
+    String script = "int twice(int n) { return n * 2; } for i from 2 to %d { twice(i); }";
+
+    AshRuntime runtime = validate(String.format(script, UserDefinedFunction.COMPILE_THRESHOLD));
+    runtime.execute("main", null);
+    assertThat(isCompiled(runtime, "twice"), is(false));
+
+    runtime = validate(String.format(script, UserDefinedFunction.COMPILE_THRESHOLD + 1));
+    runtime.execute("main", null);
+    assertThat(isCompiled(runtime, "twice"), is(true));
+  }
+}
@@ -0,0 +1,67 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Arrays;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.textui.AshRuntime;
+import net.sourceforge.kolmafia.textui.RuntimeLibrary;
+import net.sourceforge.kolmafia.textui.command.AbstractCommandTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LibraryFunctionTest extends AbstractCommandTestBase {
+  LibraryFunctionTest() {
+    this.command = "ash";
+  }
+
+  @BeforeEach
+  void beforeEach() {
+    KoLCharacter.reset("LibraryFunctionTest");
+    Preferences.reset("LibraryFunctionTest");
+  }
+
+  @Test
+  void invokesMethodsWithEachNumberOfArguments() {
+    assertThat(execute("my_meat()"), containsString("Returned: 0"));
+    assertThat(execute("to_int(\"42\")"), containsString("Returned: 42"));
+    assertThat(execute("substring(\"hello world\", 6)"), containsString("Returned: world"));
+    assertThat(execute("substring(\"hello world\", 0, 5)"), containsString("Returned: hello"));
+  }
+
+  @Test
+  void collectsVarArgsIntoAnArray() {
+    assertThat(execute("max(3, 9, 4)"), containsString("Returned: 9"));
+    assertThat(execute("max(3)"), containsString("Returned: 3"));
+  }
+
+  @Test
+  void passesUpExceptionsFromTheLibrary() {
+    String output = execute("substring(\"hello\", 9)");
+
+    assertThat(output, containsString("Begin index 9 out of bounds"));
+    assertThat(output, not(containsString("Script execution aborted")));
+  }
+
+  @Test
+  void invokesMethodsWithoutAnInterpreter() {
+    LibraryFunction substring =
+        Arrays.stream(RuntimeLibrary.functions.findFunctions("substring"))
+            .map(LibraryFunction.class::cast)
+            .filter(f -> f.getVariableReferences().size() == 3)
+            .findFirst()
+            .orElseThrow();
+    AshRuntime controller = new AshRuntime();
+
+    Value result =
+        substring.executeWithoutInterpreter(
+            controller,
+            new Object[] {controller, new Value("hello world"), new Value(6), new Value(11)});
+
+    assertThat(result.toString(), equalTo("world"));
+  }
+}
@@ -0,0 +1,112 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import net.sourceforge.kolmafia.textui.AshRuntime;
+import net.sourceforge.kolmafia.textui.DataTypes;
+import org.junit.jupiter.api.Test;
+
+class MapValueTest {
+  private static String run(final String script) {
+    AshRuntime runtime = new AshRuntime();
+    runtime.validate(null, new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)));
+    return runtime.execute("main", null).toString();
+  }
+
+  private static List<Long> keys(final MapValue map) {
+    List<Long> keys = new ArrayList<>();
+    for (Value key : map.keys()) {
+      keys.add(key.contentLong);
+    }
+    return keys;
+  }
+
+  @Test
+  void intKeysAreIteratedInOrder() {
+    String script =
+        """
+        string run() {
+          boolean[int] seen;
+          seen[5] = true;
+          seen[-3] = true;
+          seen[100] = true;
+          seen[2] = true;
+          seen[17] = true;
+          seen[2] = false;
+          remove seen[17];
+          string result;
+          foreach n in seen {
+            if (n == 100) {
+              remove seen[n];
+            } else {
+              result += n + ",";
+            }
+          }
+          return result + count(seen);
+        }
+        run();
+        """;
+
+    assertThat(run(script), equalTo("-3,2,5,3"));
+  }
+
+  @Test
+  void enumeratedKeysAreIteratedInIdOrder() {
+    String script =
+        """
+        string run() {
+          int[item] counts;
+          counts[$item[helmet turtle]] = 2;
+          counts[$item[seal tooth]] = 1;
+          counts[$item[seal-clubbing club]] = 3;
+          string result;
+          foreach it, n in counts {
+            result += it + "=" + n + ",";
+          }
+          return result;
+        }
+        run();
+        """;
+
+    assertThat(run(script), equalTo("seal-clubbing club=3,seal tooth=1,helmet turtle=2,"));
+  }
+
+  @Test
+  void keepsTreeMapOrderingForOtherKeys() {
+    MapValue map = new MapValue(new AggregateType(DataTypes.STRING_TYPE, DataTypes.INT_TYPE));
+    map.aset(new Value(10), new Value("ten"));
+    map.aset(new Value(2), new Value("two"));
+
+    assertThat(map.aref(new Value(2.0)).toString(), equalTo("two"));
+    assertThat(map.content, instanceOf(TreeMap.class));
+    assertThat(keys(map), contains(2L, 10L));
+  }
+
+  @Test
+  void addingKeysWhileIteratingIsDetected() {
+    MapValue map = new MapValue(new AggregateType(DataTypes.INT_TYPE, DataTypes.INT_TYPE));
+    for (int i = 0; i < 20; ++i) {
+      map.aset(new Value(i * 7 % 20), new Value(i));
+    }
+    assertThat(keys(map).subList(0, 3), contains(0L, 1L, 2L));
+
+    Iterator<Value> it = map.iterator();
+    it.next();
+    map.aset(new Value(0), new Value(100));
+    it.next();
+    map.aset(new Value(50), new Value(50));
+
+    assertThrows(ConcurrentModificationException.class, it::next);
+  }
+}
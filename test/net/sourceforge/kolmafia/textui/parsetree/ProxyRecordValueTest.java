@@ -0,0 +1,45 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasKey;
+
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.textui.command.AbstractCommandTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProxyRecordValueTest extends AbstractCommandTestBase {
+  ProxyRecordValueTest() {
+    this.command = "ash";
+  }
+
+  @BeforeEach
+  void beforeEach() {
+    KoLCharacter.reset("ProxyRecordValueTest");
+    Preferences.reset("ProxyRecordValueTest");
+  }
+
+  @Test
+  void everyProxyFieldHasAGetter() throws ReflectiveOperationException {
+    for (Class<?> proxyClass : ProxyRecordValue.class.getDeclaredClasses()) {
+      if (!ProxyRecordValue.class.isAssignableFrom(proxyClass)) {
+        continue;
+      }
+      RecordType type = (RecordType) proxyClass.getField("_type").get(null);
+      var getters = ProxyRecordValue.getters(proxyClass);
+      for (String name : type.getFieldNames()) {
+        assertThat(proxyClass.getSimpleName(), getters, hasKey(name));
+      }
+    }
+  }
+
+  @Test
+  void readsFieldsOfEachType() {
+    assertThat(execute("$item[seal tooth].name"), containsString("Returned: seal tooth"));
+    assertThat(execute("$item[seal tooth].id"), containsString("Returned: 2"));
+    assertThat(execute("$item[seal tooth].tradeable"), containsString("Returned: true"));
+    assertThat(execute("$skill[Seal Clubbing Frenzy].combat"), containsString("Returned: false"));
+  }
+}
@@ -0,0 +1,58 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataBundleTest {
+  private DataBundle bundle;
+
+  @BeforeEach
+  void writeBundle(@TempDir Path directory) throws IOException {
+    Files.writeString(
+        directory.resolve("first.txt"),
+        "3\n# a comment\n\nalpha\tbeta\t\nbeta\tgamma\n",
+        StandardCharsets.UTF_8);
+    Files.writeString(directory.resolve("second.txt"), "1\nÿ\n", StandardCharsets.UTF_8);
+
+    var out = new ByteArrayOutputStream();
+    DataBundle.write(directory, List.of("first.txt", "second.txt"), out);
+    this.bundle = DataBundle.read(ByteBuffer.wrap(out.toByteArray()));
+  }
+
+  @Test
+  void readsRecordsAsSplitFields() {
+    BufferedReader reader = this.bundle.reader("first.txt", 3);
+
+    assertThat(FileUtilities.readData(reader), arrayContaining("alpha", "beta", ""));
+    assertThat(FileUtilities.readData(reader), arrayContaining("beta", "gamma"));
+    assertThat(FileUtilities.readData(reader), nullValue());
+  }
+
+  @Test
+  void readsRecordsAsLines() {
+    BufferedReader reader = this.bundle.reader("second.txt", 1);
+
+    assertThat(FileUtilities.readLine(reader), equalTo("ÿ"));
+    assertThat(FileUtilities.readLine(reader), nullValue());
+  }
+
+  @Test
+  void doesNotReadOtherVersions() {
+    assertThat(this.bundle.reader("first.txt", 2), nullValue());
+    assertThat(this.bundle.reader("third.txt", 1), nullValue());
+  }
+}
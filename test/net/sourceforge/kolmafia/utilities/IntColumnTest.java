@@ -0,0 +1,55 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.junit.jupiter.api.Test;
+
+class IntColumnTest {
+  @Test
+  void unsetIdsHaveTheDefault() {
+    var column = new IntColumn(-1);
+    column.put(10, 5);
+
+    assertThat(column.get(0), equalTo(-1));
+    assertThat(column.get(10), equalTo(5));
+    assertThat(column.get(11), equalTo(-1));
+    assertThat(column.get(IntColumn.DENSE_LIMIT + 1), equalTo(-1));
+    assertThat(column.get(-3), equalTo(-1));
+  }
+
+  @Test
+  void keepsValuesAsTheArrayGrows() {
+    var column = new IntColumn(0);
+    for (int id = 0; id < 1000; id += 7) {
+      column.put(id, id * 2);
+    }
+
+    for (int id = 0; id < 1000; ++id) {
+      assertThat(column.get(id), equalTo(id % 7 == 0 ? id * 2 : 0));
+    }
+  }
+
+  @Test
+  void keepsNegativeAndHugeIds() {
+    var column = new IntColumn(0);
+    column.put(-3, 1);
+    column.put(IntColumn.DENSE_LIMIT, 2);
+    column.put(Integer.MAX_VALUE, 3);
+
+    assertThat(column.get(-3), equalTo(1));
+    assertThat(column.get(IntColumn.DENSE_LIMIT), equalTo(2));
+    assertThat(column.get(Integer.MAX_VALUE), equalTo(3));
+  }
+
+  @Test
+  void clearRestoresTheDefault() {
+    var column = new IntColumn(-1);
+    column.put(4, 1);
+    column.put(-4, 1);
+    column.clear();
+
+    assertThat(column.get(4), equalTo(-1));
+    assertThat(column.get(-4), equalTo(-1));
+  }
+}
@@ -0,0 +1,72 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ItemListTest {
+  private static Stream<Supplier<List<AdventureResult>>> lists() {
+    return Stream.of(ItemListModel::new, ItemList::new);
+  }
+
+  private static int count(final List<AdventureResult> list, final int itemId) {
+    return ((ItemCountIndex) list).getItemCount(itemId);
+  }
+
+  @ParameterizedTest
+  @MethodSource("lists")
+  void countsResultsAddedAndRemoved(final Supplier<List<AdventureResult>> supplier) {
+    var list = supplier.get();
+
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.SEAL_TOOTH, 3));
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.DRY_NOODLES, 1));
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.SEAL_TOOTH, 2));
+    assertThat(count(list, ItemPool.SEAL_TOOTH), equalTo(5));
+    assertThat(count(list, ItemPool.DRY_NOODLES), equalTo(1));
+    assertThat(count(list, ItemPool.MILK_OF_MAGNESIUM), equalTo(0));
+
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.SEAL_TOOTH, -5));
+    AdventureResult.removeResultFromList(list, ItemPool.get(ItemPool.DRY_NOODLES, 1));
+    assertThat(count(list, ItemPool.SEAL_TOOTH), equalTo(0));
+    assertThat(count(list, ItemPool.DRY_NOODLES), equalTo(0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("lists")
+  void countsBulkChanges(final Supplier<List<AdventureResult>> supplier) {
+    var list = supplier.get();
+
+    list.addAll(
+        List.of(ItemPool.get(ItemPool.SEAL_TOOTH, 4), ItemPool.get(ItemPool.DRY_NOODLES, 2)));
+    assertThat(count(list, ItemPool.SEAL_TOOTH), equalTo(4));
+    assertThat(ItemPool.get(ItemPool.DRY_NOODLES, 1).getCount(list), equalTo(2));
+
+    list.removeAll(List.of(ItemPool.get(ItemPool.SEAL_TOOTH, 1)));
+    assertThat(count(list, ItemPool.SEAL_TOOTH), equalTo(0));
+    assertThat(count(list, ItemPool.DRY_NOODLES), equalTo(2));
+
+    list.clear();
+    assertThat(AdventureResult.getCount(ItemPool.DRY_NOODLES, list), equalTo(0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("lists")
+  void countsReplacedResults(final Supplier<List<AdventureResult>> supplier) {
+    var list = supplier.get();
+
+    list.add(ItemPool.get(ItemPool.SEAL_TOOTH, 4));
+    list.set(0, ItemPool.get(ItemPool.SEAL_TOOTH, 6));
+    assertThat(count(list, ItemPool.SEAL_TOOTH), equalTo(6));
+
+    list.set(0, ItemPool.get(ItemPool.DRY_NOODLES, 2));
+    assertThat(count(list, ItemPool.SEAL_TOOTH), equalTo(0));
+    assertThat(count(list, ItemPool.DRY_NOODLES), equalTo(2));
+  }
+}
@@ -0,0 +1,66 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class NameIndexTest {
+  private static final String[] NAMES = {
+    "chef-in-the-box", "hermit permit", "seal tooth", "seal-clubbing club", "tenderizing hammer"
+  };
+
+  @Test
+  void findsSubstringsInOrder() {
+    var index = new NameIndex(NAMES);
+
+    assertThat(index.substringMatches("seal", true), contains("seal tooth", "seal-clubbing club"));
+    assertThat(index.substringMatches("club", true), contains("seal-clubbing club"));
+    assertThat(index.substringMatches("mit", true), is(empty()));
+    assertThat(index.substringMatches("mit", false), contains("hermit permit"));
+    assertThat(index.substringMatches("it", false), contains("hermit permit"));
+    assertThat(index.substringMatches("xyz", false), is(empty()));
+  }
+
+  @Test
+  void findsFuzzyMatchesFromTheStartOfAWord() {
+    var index = new NameIndex(NAMES);
+
+    assertThat(index.fuzzyMatches("in the box"), contains("chef-in-the-box"));
+    assertThat(index.fuzzyMatches("stooth"), contains("seal tooth"));
+    assertThat(index.fuzzyMatches("scc"), contains("seal-clubbing club"));
+    assertThat(index.fuzzyMatches("eal"), is(empty()));
+  }
+
+  @Test
+  void indexesLargeArraysSearchedAgain() {
+    String[] names = new String[300];
+    for (int i = 0; i < names.length; ++i) {
+      names[i] = String.format("name %03d", names.length - i);
+    }
+
+    for (int i = 0; i < 2; ++i) {
+      assertThat(StringUtilities.getMatchingNames(names, "e 007"), contains("name 007"));
+    }
+
+    Arrays.sort(names);
+    assertThat(new NameIndex(names).isFor(names), is(true));
+    assertThat(StringUtilities.getMatchingNames(names, "name 00"), hasSize(9));
+    assertThat(StringUtilities.getMatchingNames(names, "name 00").get(0), is("name 001"));
+  }
+
+  @Test
+  void noticesWhenTheArrayIsChanged() {
+    String[] names = {"seal tooth", "hermit permit"};
+    assertThat(StringUtilities.getMatchingNames(names, "permit"), contains("hermit permit"));
+
+    Arrays.sort(names);
+    assertThat(new NameIndex(names).isFor(names), is(true));
+    assertThat(StringUtilities.getMatchingNames(names, "tooth"), contains("seal tooth"));
+    assertThat(StringUtilities.getMatchingNames(names, "permit"), contains("hermit permit"));
+  }
+}
@@ -0,0 +1,51 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.jupiter.api.Test;
+
+class StringCacheTest {
+  @Test
+  void countsHitsAndMisses() {
+    var cache = new StringCache("test", 100);
+
+    assertThat(cache.get("seal tooth"), nullValue());
+    cache.put("seal tooth", "Seal Tooth");
+    assertThat(cache.get("seal tooth"), equalTo("Seal Tooth"));
+    assertThat(cache.get("seal tooth"), equalTo("Seal Tooth"));
+
+    var stats = cache.getStats();
+    assertThat(stats.hits(), equalTo(2L));
+    assertThat(stats.misses(), equalTo(1L));
+    assertThat(stats.evictions(), equalTo(0L));
+    assertThat(stats.size(), equalTo(1));
+  }
+
+  @Test
+  void dropsLeastRecentlyUsedWhenFull() {
+    var cache = new StringCache("test", 32);
+    cache.put("hot", "HOT");
+
+    for (int i = 0; i < 1000; ++i) {
+      cache.put("key" + i, "value" + i);
+      assertThat(cache.get("hot"), equalTo("HOT"));
+    }
+
+    var stats = cache.getStats();
+    assertThat(stats.size(), lessThanOrEqualTo(32));
+    assertThat(stats.evictions(), equalTo(1001L - stats.size()));
+  }
+
+  @Test
+  void clearEmptiesTheCache() {
+    var cache = new StringCache("test", 100);
+    cache.put("a", "b");
+    cache.clear();
+
+    assertThat(cache.get("a"), nullValue());
+    assertThat(cache.size(), equalTo(0));
+  }
+}